@@ -0,0 +1,262 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.SchemaMigrator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Embedded benchmark database. Applies the application's schema migrations
+ * (so the same indexes are in place) and seeds deterministic data
+ * with volumes taken from system properties (pass them to the forked JVMs with
+ * -jvmArgsAppend, e.g. -jvmArgsAppend "-Dbench.rentals=5000000"):
+ *
+ *   bench.branches   (default 50)
+ *   bench.equipment  (default 100000)
+ *   bench.customers  (default 50000)
+ *   bench.rentals    (default 1000000)
+ *
+ * The database file under target/ remembers which volumes it holds, so the
+ * data is only regenerated when the volumes or the current date change.
+ */
+public final class BenchmarkDatabase {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] CATEGORIES = {
+            "Camera", "Lens", "Drone", "Lighting", "Audio", "Gimbal"
+    };
+
+    public static final int BRANCHES = Integer.getInteger("bench.branches", 50);
+    public static final int EQUIPMENT = Integer.getInteger("bench.equipment", 100000);
+    public static final int CUSTOMERS = Integer.getInteger("bench.customers", 50000);
+    public static final int RENTALS = Integer.getInteger("bench.rentals", 1000000);
+
+    private static boolean ready;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Create and seed the database unless it already holds the requested volumes
+     */
+    public static synchronized void ensureSeeded() throws SQLException {
+        if (ready) {
+            return;
+        }
+        String seedKey = BRANCHES + "/" + EQUIPMENT + "/" + CUSTOMERS + "/" + RENTALS + "@" + LocalDate.now();
+
+        SchemaMigrator.migrate();
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS benchmark_seed (seed_key VARCHAR(200) PRIMARY KEY)");
+            }
+            if (!isSeeded(conn, seedKey)) {
+                seed(conn, seedKey);
+            }
+        }
+        ready = true;
+    }
+
+    private static boolean isSeeded(Connection conn, String seedKey) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM benchmark_seed WHERE seed_key = ?")) {
+            stmt.setString(1, seedKey);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void seed(Connection conn, String seedKey) throws SQLException {
+        System.out.println("Seeding benchmark database: " + seedKey);
+        long started = System.currentTimeMillis();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : new String[] {"benchmark_seed", "daily_branch_revenue", "rentals", "reservations",
+                    "customers", "equipment", "categories", "branches"}) {
+                stmt.executeUpdate("DELETE FROM " + table);
+            }
+            for (String table : new String[] {"rentals", "reservations", "customers",
+                    "equipment", "categories", "branches"}) {
+                stmt.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN " + idColumn(table)
+                        + " RESTART WITH 1");
+            }
+        }
+
+        Random random = new Random(42);
+        seedBranches(conn);
+        seedCategories(conn);
+        seedEquipment(conn, random);
+        seedCustomers(conn, random);
+        seedRentals(conn, random);
+
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO benchmark_seed (seed_key) VALUES (?)")) {
+            stmt.setString(1, seedKey);
+            stmt.executeUpdate();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        System.out.println("Seeded in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private static String idColumn(String table) {
+        switch (table) {
+            case "rentals": return "rental_id";
+            case "reservations": return "reservation_id";
+            case "customers": return "customer_id";
+            case "categories": return "category_id";
+            case "branches": return "branch_id";
+            default: return "equipment_id";
+        }
+    }
+
+    private static void seedBranches(Connection conn) throws SQLException {
+        String sql = "INSERT INTO branches (branch_code, branch_name, address, contact_number, email) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= BRANCHES; i++) {
+                stmt.setString(1, "BR" + i);
+                stmt.setString(2, "Branch " + i);
+                stmt.setString(3, i + " Main Street");
+                stmt.setString(4, "011" + (1000000 + i));
+                stmt.setString(5, "branch" + i + "@gearrent.lk");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedCategories(Connection conn) throws SQLException {
+        String sql = "INSERT INTO categories (category_name, description, base_price_factor, "
+                + "weekend_multiplier, default_late_fee) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                stmt.setString(1, CATEGORIES[i]);
+                stmt.setString(2, CATEGORIES[i] + " equipment");
+                stmt.setBigDecimal(3, new BigDecimal("1.00").add(BigDecimal.valueOf(i, 1)));
+                stmt.setBigDecimal(4, new BigDecimal("1.20"));
+                stmt.setBigDecimal(5, new BigDecimal("1500.00"));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedEquipment(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO equipment (equipment_code, category_id, brand, model, purchase_year, "
+                + "daily_base_price, security_deposit, status, branch_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= EQUIPMENT; i++) {
+                stmt.setString(1, "EQ" + i);
+                stmt.setInt(2, 1 + random.nextInt(CATEGORIES.length));
+                stmt.setString(3, "Brand" + random.nextInt(40));
+                stmt.setString(4, "Model" + random.nextInt(500));
+                stmt.setInt(5, 2015 + random.nextInt(10));
+                stmt.setBigDecimal(6, BigDecimal.valueOf(1000 + random.nextInt(20000), 0));
+                stmt.setBigDecimal(7, BigDecimal.valueOf(10000 + random.nextInt(90000), 0));
+                stmt.setString(8, random.nextInt(50) == 0 ? "UNDER_MAINTENANCE" : "AVAILABLE");
+                stmt.setInt(9, equipmentBranch(i));
+                addBatch(conn, stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedCustomers(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO customers (customer_code, customer_name, nic_passport, contact_number, "
+                + "email, address, membership_level, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String[] levels = {"REGULAR", "REGULAR", "REGULAR", "SILVER", "GOLD"};
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= CUSTOMERS; i++) {
+                stmt.setString(1, "CUS" + i);
+                stmt.setString(2, "Customer " + Integer.toString(random.nextInt(1 << 30), 36));
+                stmt.setString(3, "NIC" + i);
+                stmt.setString(4, "07" + (10000000 + i));
+                stmt.setString(5, "customer" + i + "@example.com");
+                stmt.setString(6, i + " Lake Road");
+                stmt.setString(7, levels[random.nextInt(levels.length)]);
+                stmt.setString(8, random.nextInt(20) == 0 ? "INACTIVE" : "ACTIVE");
+                addBatch(conn, stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Rentals spread over the last three years: mostly RETURNED, a few CANCELLED,
+     * and ACTIVE/OVERDUE ones around today so the hot lookups have something to find
+     */
+    private static void seedRentals(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO rentals (rental_code, equipment_id, customer_id, branch_id, start_date, "
+                + "end_date, actual_return_date, daily_rate, rental_amount, security_deposit, "
+                + "final_payable_amount, payment_status, rental_status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDate today = LocalDate.now();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= RENTALS; i++) {
+                int equipmentId = 1 + random.nextInt(EQUIPMENT);
+                int days = 1 + random.nextInt(14);
+                int roll = random.nextInt(100);
+                String status;
+                LocalDate start;
+                LocalDate returned = null;
+                if (roll < 5) {
+                    status = "ACTIVE";
+                    start = today.minusDays(random.nextInt(days));
+                } else if (roll < 7) {
+                    status = "OVERDUE";
+                    start = today.minusDays(days + 1 + random.nextInt(20));
+                } else if (roll < 11) {
+                    status = "CANCELLED";
+                    start = today.minusDays(random.nextInt(1095));
+                } else {
+                    status = "RETURNED";
+                    start = today.minusDays(days + random.nextInt(1095));
+                }
+                LocalDate end = start.plusDays(days - 1);
+                if ("RETURNED".equals(status)) {
+                    returned = end.plusDays(random.nextInt(10) == 0 ? 1 + random.nextInt(3) : 0);
+                }
+                BigDecimal dailyRate = BigDecimal.valueOf(1000 + random.nextInt(20000), 0);
+                BigDecimal amount = dailyRate.multiply(BigDecimal.valueOf(days));
+
+                stmt.setString(1, "RENT-" + i);
+                stmt.setInt(2, equipmentId);
+                stmt.setInt(3, 1 + random.nextInt(CUSTOMERS));
+                stmt.setInt(4, equipmentBranch(equipmentId));
+                stmt.setDate(5, Date.valueOf(start));
+                stmt.setDate(6, Date.valueOf(end));
+                stmt.setDate(7, returned != null ? Date.valueOf(returned) : null);
+                stmt.setBigDecimal(8, dailyRate);
+                stmt.setBigDecimal(9, amount);
+                stmt.setBigDecimal(10, BigDecimal.valueOf(25000, 0));
+                stmt.setBigDecimal(11, amount);
+                stmt.setString(12, "RETURNED".equals(status) ? "PAID" : "UNPAID");
+                stmt.setString(13, status);
+                addBatch(conn, stmt, i);
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Branch that owns an equipment id; rentals are booked at the owning branch
+     */
+    static int equipmentBranch(int equipmentId) {
+        return 1 + (equipmentId - 1) % BRANCHES;
+    }
+
+    private static void addBatch(Connection conn, PreparedStatement stmt, int row) throws SQLException {
+        stmt.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.service.BookingCodeService;
+import com.gearrentpro.util.DatabaseConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rental codes from 8 threads at once, all for the same branch: randomUuid is the
+ * previous "RENT-" + 8 hex digits of a random UUID, hiLo is BookingCodeService.
+ * Uniqueness is covered by HiLoAllocatorTest.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Threads(8)
+@State(Scope.Benchmark)
+public class CodeAllocatorBenchmark {
+
+    private BookingCodeService bookingCodeService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSeeded();
+        bookingCodeService = BookingCodeService.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConfig.shutdown();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return "RENT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public String hiLo() throws Exception {
+        return bookingCodeService.nextRentalCode(1);
+    }
+}
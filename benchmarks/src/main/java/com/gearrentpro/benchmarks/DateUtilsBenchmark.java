@@ -0,0 +1,51 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.util.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Day counting used by pricing and rental validation
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilsBenchmark {
+
+    @Param({"1", "3", "7", "14", "30"})
+    private int days;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        startDate = LocalDate.of(2025, 6, 5);
+        endDate = startDate.plusDays(days - 1);
+    }
+
+    @Benchmark
+    public int countWeekendDays() {
+        return DateUtils.countWeekendDays(startDate, endDate);
+    }
+
+    @Benchmark
+    public int getDaysBetween() {
+        return DateUtils.getDaysBetween(startDate, endDate);
+    }
+}
@@ -0,0 +1,92 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.entity.Category;
+import com.gearrentpro.entity.Customer;
+import com.gearrentpro.entity.Equipment;
+import com.gearrentpro.service.PricingCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote path of the rental form: amount, discounts and the return settlement
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({"1", "3", "7", "14", "30"})
+    private int days;
+
+    private PricingCalculationService pricingService;
+    private Equipment equipment;
+    private Category category;
+    private Customer customer;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal rentalAmount;
+    private BigDecimal deposit;
+    private BigDecimal lateFee;
+    private BigDecimal damageCharge;
+
+    @Setup
+    public void setUp() {
+        pricingService = PricingCalculationService.getInstance();
+
+        equipment = new Equipment();
+        equipment.setDailyBasePrice(new BigDecimal("4500.00"));
+        equipment.setSecurityDeposit(new BigDecimal("25000.00"));
+
+        category = new Category();
+        category.setBasePriceFactor(new BigDecimal("1.20"));
+        category.setWeekendMultiplier(new BigDecimal("1.15"));
+        category.setDefaultLateFee(new BigDecimal("1500.00"));
+
+        customer = new Customer();
+        customer.setMembershipLevel(Customer.MembershipLevel.GOLD);
+
+        // Starts on a Thursday so short ranges cross a weekend
+        startDate = LocalDate.of(2025, 6, 5);
+        endDate = startDate.plusDays(days - 1);
+        rentalAmount = pricingService.calculateRentalAmount(equipment, category, startDate, endDate);
+        deposit = equipment.getSecurityDeposit();
+        lateFee = new BigDecimal("3000.00");
+        damageCharge = new BigDecimal("7500.00");
+    }
+
+    @Benchmark
+    public BigDecimal calculateRentalAmount() {
+        return pricingService.calculateRentalAmount(equipment, category, startDate, endDate);
+    }
+
+    @Benchmark
+    public BigDecimal calculateLongRentalDiscount() {
+        return pricingService.calculateLongRentalDiscount(rentalAmount, startDate, endDate);
+    }
+
+    @Benchmark
+    public BigDecimal calculateMembershipDiscount() throws Exception {
+        return pricingService.calculateMembershipDiscount(rentalAmount, customer);
+    }
+
+    @Benchmark
+    public PricingCalculationService.RefundInfo calculateRefundOrPayment() {
+        return pricingService.calculateRefundOrPayment(deposit, lateFee, damageCharge);
+    }
+}
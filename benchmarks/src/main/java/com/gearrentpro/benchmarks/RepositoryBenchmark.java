@@ -0,0 +1,127 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.dao.CustomerDAO;
+import com.gearrentpro.dao.RentalDAO;
+import com.gearrentpro.entity.Customer;
+import com.gearrentpro.entity.Rental;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gearrentpro.util.DatabaseConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO latency against the embedded database seeded by {@link BenchmarkDatabase}.
+ * Sample-time mode reports p50/p90/p99 per call; in throughput mode the "rows"
+ * counter reports rows per millisecond.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private RentalDAO rentalDAO;
+    private CustomerDAO customerDAO;
+    private LocalDate today;
+
+    /**
+     * Rows returned per invocation, reported by JMH as a rate
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    /**
+     * Per-thread source of random branch/equipment ids
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private final SplittableRandom random = new SplittableRandom(7);
+
+        int branchId() {
+            return 1 + random.nextInt(BenchmarkDatabase.BRANCHES);
+        }
+
+        int equipmentId() {
+            return 1 + random.nextInt(BenchmarkDatabase.EQUIPMENT);
+        }
+
+        int days(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSeeded();
+        rentalDAO = new RentalDAO();
+        customerDAO = new CustomerDAO();
+        today = LocalDate.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConfig.shutdown();
+    }
+
+    @Benchmark
+    public List<Rental> getAllRentals(RowCounter counter) throws Exception {
+        List<Rental> rentals = rentalDAO.getAllRentals();
+        counter.rows += rentals.size();
+        return rentals;
+    }
+
+    @Benchmark
+    public List<Rental> getRentalsByBranch(Ids ids, RowCounter counter) throws Exception {
+        List<Rental> rentals = rentalDAO.getRentalsByBranch(ids.branchId());
+        counter.rows += rentals.size();
+        return rentals;
+    }
+
+    @Benchmark
+    public List<Rental> getOverdueRentals(RowCounter counter) throws Exception {
+        List<Rental> rentals = rentalDAO.getOverdueRentals();
+        counter.rows += rentals.size();
+        return rentals;
+    }
+
+    @Benchmark
+    public boolean isEquipmentRented(Ids ids, RowCounter counter) throws Exception {
+        LocalDate start = today.plusDays(ids.days(30));
+        boolean rented = rentalDAO.isEquipmentRented(ids.equipmentId(), start, start.plusDays(ids.days(14)));
+        counter.rows++;
+        return rented;
+    }
+
+    @Benchmark
+    public List<Customer> getAllCustomers(RowCounter counter) throws Exception {
+        List<Customer> customers = customerDAO.getAllCustomers();
+        counter.rows += customers.size();
+        return customers;
+    }
+}
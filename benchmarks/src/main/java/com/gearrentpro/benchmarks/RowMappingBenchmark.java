@@ -0,0 +1,205 @@
+package com.gearrentpro.benchmarks;
+
+import com.gearrentpro.entity.Rental;
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a scan of rental rows to Rental objects two ways: labelLookup is the previous
+ * mapper, which looked every column up by label, called Enum.valueOf and joined brand and
+ * model in Java for each row; indexedMapper resolves the columns once through RowMapper
+ * and EnumLookup, as RentalDAO's reader does. The rows come from bench_rental_scan, a copy
+ * of the rentals query with its joins already applied (rebuilt for each trial), so the
+ * time goes to reading and mapping rather than to H2 joins and sorting. The "rows"
+ * counter reports rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 30)
+@Measurement(iterations = 5, time = 30)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    private static final String CREATE_SCAN_TABLE =
+            "CREATE TABLE bench_rental_scan AS " +
+            "SELECT r.*, e.equipment_code, e.brand, e.model, " +
+            "CONCAT_WS(' ', e.brand, e.model) AS equipment_details, c.category_name, " +
+            "cus.customer_name, b.branch_name FROM rentals r " +
+            "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+            "JOIN categories c ON e.category_id = c.category_id " +
+            "JOIN customers cus ON r.customer_id = cus.customer_id " +
+            "JOIN branches b ON r.branch_id = b.branch_id";
+
+    private static final String SCAN_SQL = "SELECT * FROM bench_rental_scan";
+
+    private static final EnumLookup<Rental.PaymentStatus> PAYMENT_STATUSES = EnumLookup.of(Rental.PaymentStatus.class);
+    private static final EnumLookup<Rental.RentalStatus> RENTAL_STATUSES = EnumLookup.of(Rental.RentalStatus.class);
+    private static final RowMapper<Rental> RENTAL_MAPPER = RowMapper.of(RowMappingBenchmark::rentalReader);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSeeded();
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS bench_rental_scan");
+            stmt.execute(CREATE_SCAN_TABLE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS bench_rental_scan");
+        }
+        DatabaseConfig.shutdown();
+    }
+
+    @Benchmark
+    public void labelLookup(RepositoryBenchmark.RowCounter counter, Blackhole blackhole) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SCAN_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(mapByLabel(rs));
+                counter.rows++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void indexedMapper(RepositoryBenchmark.RowCounter counter, Blackhole blackhole) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SCAN_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            RowMapper.RowReader<Rental> reader = RENTAL_MAPPER.bind(rs);
+            while (rs.next()) {
+                blackhole.consume(reader.read(rs));
+                counter.rows++;
+            }
+        }
+    }
+
+    private static Rental mapByLabel(ResultSet rs) throws SQLException {
+        Rental rental = new Rental();
+        rental.setRentalId(rs.getInt("rental_id"));
+        rental.setRentalCode(rs.getString("rental_code"));
+        rental.setEquipmentId(rs.getInt("equipment_id"));
+        rental.setCustomerId(rs.getInt("customer_id"));
+        rental.setBranchId(rs.getInt("branch_id"));
+        rental.setReservationId((Integer) rs.getObject("reservation_id"));
+        rental.setStartDate(rs.getDate("start_date").toLocalDate());
+        rental.setEndDate(rs.getDate("end_date").toLocalDate());
+
+        Date actualReturn = rs.getDate("actual_return_date");
+        if (actualReturn != null) {
+            rental.setActualReturnDate(actualReturn.toLocalDate());
+        }
+
+        rental.setDailyRate(rs.getBigDecimal("daily_rate"));
+        rental.setRentalAmount(rs.getBigDecimal("rental_amount"));
+        rental.setSecurityDeposit(rs.getBigDecimal("security_deposit"));
+        rental.setMembershipDiscount(rs.getBigDecimal("membership_discount"));
+        rental.setLongRentalDiscount(rs.getBigDecimal("long_rental_discount"));
+        rental.setFinalPayableAmount(rs.getBigDecimal("final_payable_amount"));
+        rental.setPaymentStatus(Rental.PaymentStatus.valueOf(rs.getString("payment_status")));
+        rental.setRentalStatus(Rental.RentalStatus.valueOf(rs.getString("rental_status")));
+
+        rental.setEquipmentDetails(rs.getString("brand") + " " + rs.getString("model"));
+        rental.setCustomerName(rs.getString("customer_name"));
+        rental.setBranchName(rs.getString("branch_name"));
+
+        Timestamp ts = rs.getTimestamp("created_at");
+        if (ts != null) {
+            rental.setCreatedAt(ts.toLocalDateTime());
+        }
+        return rental;
+    }
+
+    /**
+     * Same reader as RentalDAO's, which is private to the DAO
+     */
+    private static RowMapper.RowReader<Rental> rentalReader(RowMapper.Columns columns) throws SQLException {
+        int rentalIdColumn = columns.get("rental_id");
+        int rentalCodeColumn = columns.get("rental_code");
+        int equipmentIdColumn = columns.get("equipment_id");
+        int customerIdColumn = columns.get("customer_id");
+        int branchIdColumn = columns.get("branch_id");
+        int reservationIdColumn = columns.get("reservation_id");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+        int actualReturnDateColumn = columns.get("actual_return_date");
+        int dailyRateColumn = columns.get("daily_rate");
+        int rentalAmountColumn = columns.get("rental_amount");
+        int securityDepositColumn = columns.get("security_deposit");
+        int membershipDiscountColumn = columns.get("membership_discount");
+        int longRentalDiscountColumn = columns.get("long_rental_discount");
+        int finalPayableAmountColumn = columns.get("final_payable_amount");
+        int paymentStatusColumn = columns.get("payment_status");
+        int rentalStatusColumn = columns.get("rental_status");
+        int equipmentDetailsColumn = columns.get("equipment_details");
+        int customerNameColumn = columns.get("customer_name");
+        int branchNameColumn = columns.get("branch_name");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Rental rental = new Rental();
+            rental.setRentalId(rs.getInt(rentalIdColumn));
+            rental.setRentalCode(rs.getString(rentalCodeColumn));
+            rental.setEquipmentId(rs.getInt(equipmentIdColumn));
+            rental.setCustomerId(rs.getInt(customerIdColumn));
+            rental.setBranchId(rs.getInt(branchIdColumn));
+            rental.setReservationId((Integer) rs.getObject(reservationIdColumn));
+            rental.setStartDate(rs.getDate(startDateColumn).toLocalDate());
+            rental.setEndDate(rs.getDate(endDateColumn).toLocalDate());
+
+            Date actualReturn = rs.getDate(actualReturnDateColumn);
+            if (actualReturn != null) {
+                rental.setActualReturnDate(actualReturn.toLocalDate());
+            }
+
+            rental.setDailyRate(rs.getBigDecimal(dailyRateColumn));
+            rental.setRentalAmount(rs.getBigDecimal(rentalAmountColumn));
+            rental.setSecurityDeposit(rs.getBigDecimal(securityDepositColumn));
+            rental.setMembershipDiscount(rs.getBigDecimal(membershipDiscountColumn));
+            rental.setLongRentalDiscount(rs.getBigDecimal(longRentalDiscountColumn));
+            rental.setFinalPayableAmount(rs.getBigDecimal(finalPayableAmountColumn));
+            rental.setPaymentStatus(PAYMENT_STATUSES.get(rs.getString(paymentStatusColumn)));
+            rental.setRentalStatus(RENTAL_STATUSES.get(rs.getString(rentalStatusColumn)));
+
+            rental.setEquipmentDetails(rs.getString(equipmentDetailsColumn));
+            rental.setCustomerName(rs.getString(customerNameColumn));
+            rental.setBranchName(rs.getString(branchNameColumn));
+
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                rental.setCreatedAt(ts.toLocalDateTime());
+            }
+            return rental;
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.gearrentpro;
 
+import com.gearrentpro.service.OverdueRentalService;
+import com.gearrentpro.util.AsyncLoader;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.SchemaMigrator;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -8,6 +11,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 public class Main extends Application {
     
@@ -19,6 +23,18 @@ public class Main extends Application {
             System.err.println("Please ensure MySQL is running and database is created.");
             System.exit(1);
         }
+
+        // Bring the schema up to date and verify the hot queries use indexes
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Database migration failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        // Flip rentals to OVERDUE at each day rollover
+        OverdueRentalService.getInstance().start();
         
         // Load login screen
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Login.fxml"));
@@ -31,6 +47,13 @@ public class Main extends Application {
         primaryStage.show();
     }
     
+    @Override
+    public void stop() {
+        OverdueRentalService.getInstance().shutdown();
+        AsyncLoader.shutdown();
+        DatabaseConfig.shutdown();
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
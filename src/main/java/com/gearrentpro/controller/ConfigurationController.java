@@ -2,6 +2,8 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.service.MembershipService;
 import com.gearrentpro.entity.Customer;
+import com.gearrentpro.util.ReferenceDataCache;
+import com.gearrentpro.util.StripedLock;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
@@ -33,12 +35,16 @@ public class ConfigurationController {
     @FXML
     private TextField goldDiscountField;
     
+    @FXML
+    private Label cacheStatsLabel;
+    
     private MembershipService membershipService;
     
     @FXML
     public void initialize() {
         membershipService = MembershipService.getInstance();
         loadCurrentSettings();
+        loadCacheStats();
     }
     
     /**
@@ -134,6 +140,36 @@ public class ConfigurationController {
         }
     }
     
+    /**
+     * Show hit/miss statistics for the reference data caches and booking lock waits
+     */
+    private void loadCacheStats() {
+        StringBuilder stats = new StringBuilder();
+        for (ReferenceDataCache<?, ?> cache : ReferenceDataCache.getCaches()) {
+            stats.append(cache).append("\n");
+        }
+        stats.append("Booking locks: ").append(StripedLock.forBookings().getStats());
+        cacheStatsLabel.setText(stats.toString());
+    }
+    
+    /**
+     * Handle refresh cache statistics button
+     */
+    @FXML
+    private void handleRefreshCacheStats() {
+        loadCacheStats();
+    }
+    
+    /**
+     * Handle clear cache button
+     */
+    @FXML
+    private void handleClearCache() {
+        ReferenceDataCache.invalidateAllCaches();
+        loadCacheStats();
+        showAlert(Alert.AlertType.INFORMATION, "Success", "Reference data will be reloaded from the database.");
+    }
+    
     /**
      * Show alert dialog
      */
@@ -2,16 +2,15 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.*;
 import com.gearrentpro.service.*;
-import com.gearrentpro.dao.ReservationDAO;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
 
 public class CreateRentalController {
     
@@ -48,8 +47,9 @@ public class CreateRentalController {
     private CategoryService categoryService;
     private PricingCalculationService pricingService;
     private AuthenticationService authService;
-    private ReservationDAO reservationDAO;
     private ReservationService reservationService;
+    private AsyncLoader loader;
+    private Task<List<Equipment>> pendingEquipmentLoad;
 
     @FXML
     public void initialize() {
@@ -59,15 +59,21 @@ public class CreateRentalController {
         categoryService = CategoryService.getInstance();
         pricingService = PricingCalculationService.getInstance();
         authService = AuthenticationService.getInstance();
-        reservationDAO = new ReservationDAO();
         reservationService = ReservationService.getInstance();
+        loader = new AsyncLoader(customerCombo.getParent());
         
         loadCustomers();
         loadCategories();
         
         // Add listeners for date and selection changes
-        startDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> calculatePricing());
-        endDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> calculatePricing());
+        startDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> {
+            loadEquipment();
+            calculatePricing();
+        });
+        endDatePicker.valueProperty().addListener((obs, oldVal, newVal) -> {
+            loadEquipment();
+            calculatePricing();
+        });
         categoryCombo.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) loadEquipment();
             calculatePricing();
@@ -80,42 +86,51 @@ public class CreateRentalController {
      * Load customers
      */
     private void loadCustomers() {
-        try {
-            List<Customer> customers = customerService.getAllCustomers();
-            customerCombo.setItems(FXCollections.observableArrayList(customers));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load customers: " + e.getMessage());
-        }
+        loader.run("customers", customerService::getAllCustomers,
+                customers -> customerCombo.setItems(FXCollections.observableArrayList(customers)),
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load customers: " + e.getMessage()));
     }
     
     /**
      * Load categories
      */
     private void loadCategories() {
-        try {
-            List<Category> categories = categoryService.getAllCategories();
-            categoryCombo.setItems(FXCollections.observableArrayList(categories));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load categories: " + e.getMessage());
-        }
+        loader.run("categories", categoryService::getAllCategories,
+                categories -> categoryCombo.setItems(FXCollections.observableArrayList(categories)),
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load categories: " + e.getMessage()));
     }
     
     /**
-     * Load equipment by selected category
+     * Load equipment by selected category, limited to items free for the chosen dates
      */
     private void loadEquipment() {
-        try {
-            Category category = categoryCombo.getValue();
-            if (category == null) return;
-            
-            Integer branchId = authService.getCurrentUserBranchId();
-            if (branchId == null) branchId = 1; // Default to first branch for admin
-            
-            List<Equipment> equipment = equipmentService.getAvailableEquipment(branchId, category.getCategoryId());
-            equipmentCombo.setItems(FXCollections.observableArrayList(equipment));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load equipment: " + e.getMessage());
+        Category category = categoryCombo.getValue();
+        if (category == null) return;
+        
+        Integer currentBranchId = authService.getCurrentUserBranchId();
+        int branchId = currentBranchId != null ? currentBranchId : 1; // Default to first branch for admin
+        
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
+        boolean datesValid = startDate != null && endDate != null && !endDate.isBefore(startDate);
+
+        // Only the latest selection matters; drop a lookup still running for an older one
+        if (pendingEquipmentLoad != null) {
+            pendingEquipmentLoad.cancel(true);
         }
+        pendingEquipmentLoad = loader.run("availableEquipment", () -> datesValid
+                ? equipmentService.findAvailable(branchId, category.getCategoryId(), startDate, endDate)
+                : equipmentService.getAvailableEquipment(branchId, category.getCategoryId()), equipment -> {
+            // Keep the current choice if it is still free
+            Equipment selected = equipmentCombo.getValue();
+            equipmentCombo.setItems(FXCollections.observableArrayList(equipment));
+            if (selected != null) {
+                equipment.stream()
+                        .filter(e -> e.getEquipmentId() == selected.getEquipmentId())
+                        .findFirst()
+                        .ifPresent(equipmentCombo::setValue);
+            }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load equipment: " + e.getMessage()));
     }
     
     /**
@@ -172,69 +187,76 @@ public class CreateRentalController {
      */
     @FXML
     private void handleCreateRental() {
-        try {
-            // Validation
-            Equipment equipment = equipmentCombo.getValue();
-            Category category = categoryCombo.getValue();
-            Customer customer = customerCombo.getValue();
-            LocalDate startDate = startDatePicker.getValue();
-            LocalDate endDate = endDatePicker.getValue();
+        // Validation
+        Equipment equipment = equipmentCombo.getValue();
+        Category category = categoryCombo.getValue();
+        Customer customer = customerCombo.getValue();
+        LocalDate startDate = startDatePicker.getValue();
+        LocalDate endDate = endDatePicker.getValue();
 
-            if (equipment == null || category == null || customer == null || startDate == null || endDate == null) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "Please fill all fields!");
-                return;
-            }
+        if (equipment == null || category == null || customer == null || startDate == null || endDate == null) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please fill all fields!");
+            return;
+        }
 
-            // Validate dates
-            if (endDate.isBefore(startDate)) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
-                return;
-            }
+        // Validate dates
+        if (endDate.isBefore(startDate)) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
+            return;
+        }
 
-            int rentalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
-            if (rentalDays > 30) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "Rental duration cannot exceed 30 days!");
-                return;
-            }
+        int rentalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (rentalDays > 30) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Rental duration cannot exceed 30 days!");
+            return;
+        }
+
+        // Create reservation only (no rental)
+        Reservation reservation = new Reservation();
+        reservation.setEquipmentId(equipment.getEquipmentId());
+        reservation.setCustomerId(customer.getCustomerId());
+        reservation.setBranchId(authService.getCurrentUserBranchId() != null ? authService.getCurrentUserBranchId() : 1);
+        reservation.setStartDate(startDate);
+        reservation.setEndDate(endDate);
+        reservation.setStatus(Reservation.ReservationStatus.PENDING);
 
-            // Equipment availability check
-            if (!equipmentService.isEquipmentAvailable(equipment.getEquipmentId(), startDate, endDate)) {
+        // Equipment availability check
+        loader.run("equipmentAvailability",
+                () -> equipmentService.isEquipmentAvailable(equipment.getEquipmentId(), startDate, endDate), available -> {
+            if (!available) {
                 showAlert(Alert.AlertType.WARNING, "Equipment Unavailable", "The selected equipment is not available for the chosen dates.");
                 return;
             }
 
-            // Create reservation only (no rental)
-            Reservation reservation = new Reservation();
-            reservation.setReservationCode("RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-            reservation.setEquipmentId(equipment.getEquipmentId());
-            reservation.setCustomerId(customer.getCustomerId());
-            reservation.setBranchId(authService.getCurrentUserBranchId() != null ? authService.getCurrentUserBranchId() : 1);
-            reservation.setStartDate(startDate);
-            reservation.setEndDate(endDate);
-            reservation.setStatus(Reservation.ReservationStatus.PENDING);
-
-            int reservationId = reservationDAO.createReservation(reservation);
-            if (reservationId > 0) {
-                showAlert(Alert.AlertType.INFORMATION, "Success",
-                        "Reservation created successfully!\n" +
-                        "For covert this to a rental or cancel, go to the reservations\n\n" +
-                        "Reservation Code: " + reservation.getReservationCode() + "\n" +
-                        "Customer: " + customer.getCustomerName() + "\n" +
-                        "Equipment: " + equipment.getBrand() + " " + equipment.getModel() + "\n" +
-                        "Dates: " + startDate + " to " + endDate);
-                clearForm();
-                loadCategories();
-                loadCustomers();
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to create reservation.");
-            }
-
-        } catch (IllegalArgumentException e) {
+            loader.submit("createReservation", () -> reservationService.createReservation(reservation, customer.getCustomerId()), created -> {
+                if (created) {
+                    showAlert(Alert.AlertType.INFORMATION, "Success",
+                            "Reservation created successfully!\n" +
+                            "For covert this to a rental or cancel, go to the reservations\n\n" +
+                            "Reservation Code: " + reservation.getReservationCode() + "\n" +
+                            "Customer: " + customer.getCustomerName() + "\n" +
+                            "Equipment: " + equipment.getBrand() + " " + equipment.getModel() + "\n" +
+                            "Dates: " + startDate + " to " + endDate);
+                    clearForm();
+                    loadCategories();
+                    loadCustomers();
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to create reservation.");
+                }
+            }, this::showCreateError);
+        }, this::showCreateError);
+    }
+    
+    /**
+     * Report a failed availability check or reservation insert
+     */
+    private void showCreateError(Throwable e) {
+        if (e instanceof IllegalArgumentException) {
             showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-        } catch (SQLException e) {
+        } else if (e instanceof java.sql.SQLException) {
             showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to create reservation: " + e.getMessage());
             e.printStackTrace();
-        } catch (Exception e) {
+        } else {
             showAlert(Alert.AlertType.ERROR, "Error", "Unexpected error: " + e.getMessage());
             e.printStackTrace();
         }
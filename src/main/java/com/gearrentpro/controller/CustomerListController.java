@@ -2,16 +2,14 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Customer;
 import com.gearrentpro.service.CustomerService;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.TablePager;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 
-import java.sql.SQLException;
-import java.util.List;
-
 public class CustomerListController {
     
     @FXML
@@ -39,11 +37,16 @@ public class CustomerListController {
     private HBox actionButtonsBox;
     
     private CustomerService customerService;
-    private List<Customer> allCustomers;
+    private TablePager<Customer> pager;
+    private AsyncLoader loader;
+    private static final int PAGE_SIZE = 100;
     
     @FXML
     public void initialize() {
         customerService = CustomerService.getInstance();
+        pager = new TablePager<>(customerTable, PAGE_SIZE, e ->
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load customers: " + e.getMessage()));
+        loader = new AsyncLoader(customerTable);
         setupTableColumns();
         loadCustomers();
         
@@ -63,32 +66,26 @@ public class CustomerListController {
     }
     
     private void loadCustomers() {
-        try {
-            allCustomers = customerService.getAllCustomers();
-            ObservableList<Customer> observableList = FXCollections.observableArrayList(allCustomers);
-            customerTable.setItems(observableList);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load customers: " + e.getMessage());
-        }
+        loadCustomers(null);
+    }
+    
+    /**
+     * Load customers page by page, optionally matching name, code or phone
+     */
+    private void loadCustomers(String searchText) {
+        pager.load((after, limit) -> customerService.getCustomersPage(searchText, after, limit));
     }
     
     @FXML
     private void handleSearch() {
-        String searchText = searchField.getText().toLowerCase();
+        String searchText = searchField.getText().trim();
         
         if (searchText.isEmpty()) {
             loadCustomers();
             return;
         }
         
-        List<Customer> filtered = allCustomers.stream()
-            .filter(c -> c.getCustomerName().toLowerCase().contains(searchText) ||
-                        c.getCustomerCode().toLowerCase().contains(searchText) ||
-                        c.getContactNumber().contains(searchText))
-            .collect(java.util.stream.Collectors.toList());
-        
-        ObservableList<Customer> observableList = FXCollections.observableArrayList(filtered);
-        customerTable.setItems(observableList);
+        loadCustomers(searchText);
     }
     
     @FXML
@@ -148,18 +145,19 @@ public class CustomerListController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(customer -> {
-            try {
-                if (customerService.createCustomer(customer)) {
+        dialog.showAndWait().ifPresent(customer ->
+            loader.submit("createCustomer", () -> customerService.createCustomer(customer), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Customer added successfully!");
                     loadCustomers();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add customer: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to add customer: " + e.getMessage());
+                }
+            }));
     }
     
     @FXML
@@ -229,18 +227,19 @@ public class CustomerListController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(customer -> {
-            try {
-                if (customerService.updateCustomer(customer)) {
+        dialog.showAndWait().ifPresent(customer ->
+            loader.submit("updateCustomer", () -> customerService.updateCustomer(customer), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Customer updated successfully!");
                     loadCustomers();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to update customer: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to update customer: " + e.getMessage());
+                }
+            }));
     }
     
     @FXML
@@ -3,7 +3,7 @@ package com.gearrentpro.controller;
 import com.gearrentpro.entity.User;
 import com.gearrentpro.service.AuthenticationService;
 import com.gearrentpro.dao.BranchDAO;
-import com.gearrentpro.entity.Branch;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -43,17 +43,15 @@ public class DashboardController {
             roleLabel.setText("Role: " + currentUser.getRole().toString());
             // Show branch name if user is not ADMIN and has a branchId
             if (currentUser.getRole() != User.UserRole.ADMIN && currentUser.getBranchId() != null) {
-                try {
-                    BranchDAO branchDAO = new BranchDAO();
-                    Branch branch = branchDAO.getBranchById(currentUser.getBranchId());
+                BranchDAO branchDAO = new BranchDAO();
+                Integer branchId = currentUser.getBranchId();
+                new AsyncLoader(branchLabel).run("dashboardBranch", () -> branchDAO.getBranchById(branchId), branch -> {
                     if (branch != null) {
                         branchLabel.setText("Branch: " + branch.getBranchName());
                     } else {
                         branchLabel.setText("Branch: N/A");
                     }
-                } catch (Exception e) {
-                    branchLabel.setText("Branch: Error");
-                }
+                }, e -> branchLabel.setText("Branch: Error"));
             } else {
                 branchLabel.setText("");
             }
@@ -5,14 +5,17 @@ import com.gearrentpro.entity.Category;
 import com.gearrentpro.service.EquipmentService;
 import com.gearrentpro.service.CategoryService;
 import com.gearrentpro.service.AuthenticationService;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.LazyPagedList;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Objects;
 
 public class EquipmentListController {
     
@@ -46,13 +49,23 @@ public class EquipmentListController {
     private EquipmentService equipmentService;
     private CategoryService categoryService;
     private AuthenticationService authService;
-    private List<Equipment> allEquipment;
+    private AsyncLoader loader;
+    private Task<LazyPagedList<Equipment>> pendingLoad;
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 10;
+    /** Shown in place of rows whose page is still loading */
+    private static final Equipment LOADING_ROW = new Equipment();
+    
+    static {
+        LOADING_ROW.setEquipmentCode("Loading...");
+    }
     
     @FXML
     public void initialize() {
         equipmentService = EquipmentService.getInstance();
         categoryService = CategoryService.getInstance();
         authService = AuthenticationService.getInstance();
+        loader = new AsyncLoader(equipmentTable);
         setupTableColumns();
         setupStatusFilter();
         loadEquipment();
@@ -71,9 +84,10 @@ public class EquipmentListController {
         modelColumn.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(cellData.getValue().getModel()));
         priceColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().getDailyBasePrice()));
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getDailyBasePrice() != null
+                    ? "LKR " + cellData.getValue().getDailyBasePrice() : ""));
         statusColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getStatus().toString()));
+            new javafx.beans.property.SimpleStringProperty(Objects.toString(cellData.getValue().getStatus(), "")));
     }
     
     /**
@@ -92,43 +106,53 @@ public class EquipmentListController {
     }
     
     /**
-     * Load all equipment
+     * Load equipment matching the current status filter and search text
      */
     private void loadEquipment() {
-        try {
-            Integer branchId = authService.getCurrentUserBranchId();
+        String status = statusFilter.getValue();
+        String searchText = searchField.getText() != null ? searchField.getText().trim() : "";
+        loadEquipment(status == null || "ALL".equals(status) ? null : Equipment.EquipmentStatus.valueOf(status),
+                searchText.isEmpty() ? null : searchText);
+    }
+    
+    /**
+     * Load equipment; rows are fetched page by page as they scroll into view
+     */
+    private void loadEquipment(Equipment.EquipmentStatus status, String searchText) {
+        Integer branchId = authService.getCurrentUserBranchId();
+        // Branch manager/staff sees only their branch equipment, admin sees all
+        Integer branchFilter = branchId != null && !authService.isAdmin() ? branchId : null;
+        
+        // The constructor runs the count query, so the list is built in the background
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+        }
+        pendingLoad = loader.run("equipment", () -> new LazyPagedList<>(new LazyPagedList.PageSource<Equipment>() {
+            @Override
+            public int count() throws SQLException {
+                return equipmentService.countEquipment(branchFilter, status, searchText);
+            }
             
-            if (branchId != null && !authService.isAdmin()) {
-                // Branch manager/staff sees only their branch equipment
-                allEquipment = equipmentService.getEquipmentByBranch(branchId);
-            } else {
-                // Admin sees all equipment
-                allEquipment = equipmentService.getAllEquipment();
+            @Override
+            public List<Equipment> fetchAfter(Equipment after, int limit) throws SQLException {
+                return equipmentService.getEquipmentPage(branchFilter, status, searchText, after, limit);
             }
             
-            ObservableList<Equipment> observableList = FXCollections.observableArrayList(allEquipment);
-            equipmentTable.setItems(observableList);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load equipment: " + e.getMessage());
-        }
+            @Override
+            public List<Equipment> fetchAt(int offset, int limit) throws SQLException {
+                return equipmentService.getEquipmentAt(branchFilter, status, searchText, offset, limit);
+            }
+        }, PAGE_SIZE, CACHED_PAGES, LOADING_ROW, e ->
+            System.err.println("Failed to load equipment: " + e.getMessage())),
+            equipmentTable::setItems,
+            e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load equipment: " + e.getMessage()));
     }
     
     /**
      * Filter equipment by status
      */
     private void filterByStatus(String status) {
-        if ("ALL".equals(status)) {
-            ObservableList<Equipment> observableList = FXCollections.observableArrayList(allEquipment);
-            equipmentTable.setItems(observableList);
-            return;
-        }
-        
-        List<Equipment> filtered = allEquipment.stream()
-            .filter(e -> e.getStatus().toString().equals(status))
-            .collect(java.util.stream.Collectors.toList());
-        
-        ObservableList<Equipment> observableList = FXCollections.observableArrayList(filtered);
-        equipmentTable.setItems(observableList);
+        loadEquipment();
     }
     
     /**
@@ -136,21 +160,7 @@ public class EquipmentListController {
      */
     @FXML
     private void handleSearch() {
-        String searchText = searchField.getText().toLowerCase();
-        
-        if (searchText.isEmpty()) {
-            loadEquipment();
-            return;
-        }
-        
-        List<Equipment> filtered = allEquipment.stream()
-            .filter(e -> e.getEquipmentCode().toLowerCase().contains(searchText) ||
-                        e.getBrand().toLowerCase().contains(searchText) ||
-                        e.getModel().toLowerCase().contains(searchText))
-            .collect(java.util.stream.Collectors.toList());
-        
-        ObservableList<Equipment> observableList = FXCollections.observableArrayList(filtered);
-        equipmentTable.setItems(observableList);
+        loadEquipment();
     }
     
     /**
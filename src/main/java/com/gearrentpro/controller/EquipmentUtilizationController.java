@@ -1,20 +1,24 @@
 package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Branch;
-import com.gearrentpro.entity.Equipment;
-import com.gearrentpro.entity.Rental;
 import com.gearrentpro.entity.User;
 import com.gearrentpro.service.AuthenticationService;
 import com.gearrentpro.service.BranchService;
-import com.gearrentpro.service.EquipmentService;
-import com.gearrentpro.service.RentalService;
+import com.gearrentpro.service.ReportService;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.CsvWriter;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.io.IOException;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 public class EquipmentUtilizationController {
@@ -47,14 +51,18 @@ public class EquipmentUtilizationController {
     private TableColumn<UtilizationRow, String> utilizationPercentColumn;
     
     private BranchService branchService;
-    private EquipmentService equipmentService;
-    private RentalService rentalService;
+    private ReportService reportService;
+    private AsyncLoader loader;
+    // Branch and period of the report on screen, which the export re-reads
+    private Integer reportBranchId;
+    private LocalDate reportFromDate;
+    private LocalDate reportToDate;
     
     @FXML
     public void initialize() {
         branchService = BranchService.getInstance();
-        equipmentService = EquipmentService.getInstance();
-        rentalService = RentalService.getInstance();
+        reportService = ReportService.getInstance();
+        loader = new AsyncLoader(utilizationTable);
 
         // Show branch name for branch manager
         AuthenticationService authService = AuthenticationService.getInstance();
@@ -62,14 +70,13 @@ public class EquipmentUtilizationController {
         if (currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER) {
             Integer branchId = currentUser.getBranchId();
             if (branchId != null) {
-                try {
-                    Branch branch = branchService.getBranchById(branchId);
+                loader.run("reportBranch", () -> branchService.getBranchById(branchId), branch -> {
                     if (branch != null && branchNameLabel != null) {
                         branchNameLabel.setText(branch.getBranchName());
                     }
-                } catch (Exception e) {
+                }, e -> {
                     if (branchNameLabel != null) branchNameLabel.setText("Branch: Unknown");
-                }
+                });
             }
         }
         
@@ -104,61 +111,93 @@ public class EquipmentUtilizationController {
      */
     @FXML
     private void handleGenerateReport() {
-        try {
-            // Get branch for current branch manager
-            AuthenticationService authService = AuthenticationService.getInstance();
-            User currentUser = authService.getCurrentUser();
-            Branch selectedBranch = null;
-            if (currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER) {
-                Integer branchId = currentUser.getBranchId();
-                if (branchId != null) {
-                    selectedBranch = branchService.getBranchById(branchId);
-                }
-            }
-            LocalDate fromDate = fromDatePicker.getValue();
-            LocalDate toDate = toDatePicker.getValue();
-
-            if (selectedBranch == null || fromDate == null || toDate == null) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "Please fill all fields!");
-                return;
-            }
-
-            if (toDate.isBefore(fromDate)) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
-                return;
-            }
-
-            // Get equipment for branch
-            List<Equipment> equipmentList = equipmentService.getEquipmentByBranch(selectedBranch.getBranchId());
-            List<Rental> allRentals = rentalService.getAllRentals();
-
-            List<UtilizationRow> rows = equipmentList.stream().map(equip -> {
-                // Calculate rented days for this equipment in date range
-                long rentedDays = allRentals.stream()
-                    .filter(r -> r.getEquipmentId() == equip.getEquipmentId() &&
-                               r.getStartDate().isBefore(toDate) &&
-                               r.getEndDate().isAfter(fromDate))
-                    .mapToLong(r -> ChronoUnit.DAYS.between(r.getStartDate(), r.getEndDate()))
-                    .sum();
+        // Get branch for current branch manager
+        AuthenticationService authService = AuthenticationService.getInstance();
+        User currentUser = authService.getCurrentUser();
+        Integer branchId = currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER
+                ? currentUser.getBranchId() : null;
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
 
-                long totalDays = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
-                double utilizationPercent = (rentedDays * 100.0) / totalDays;
+        if (branchId == null) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select a branch!");
+            return;
+        }
 
-                UtilizationRow row = new UtilizationRow();
-                row.equipmentCode = equip.getEquipmentCode();
-                row.category = equip.getCategoryName();
-                row.rentedDays = (int) rentedDays;
-                row.availableDays = (int) (totalDays - rentedDays);
-                row.utilizationPercent = utilizationPercent;
+        if (fromDate == null || toDate == null) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select a date range!");
+            return;
+        }
 
-                return row;
-            }).collect(java.util.stream.Collectors.toList());
+        if (toDate.isBefore(fromDate)) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
+            return;
+        }
 
+        loader.run("utilizationReport", () -> buildRows(branchId, fromDate, toDate), rows -> {
+            if (rows == null) {
+                showAlert(Alert.AlertType.WARNING, "Validation Error", "Branch not found!");
+                return;
+            }
+            reportBranchId = branchId;
+            reportFromDate = fromDate;
+            reportToDate = toDate;
             utilizationTable.setItems(FXCollections.observableArrayList(rows));
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate report: " + e.getMessage()));
+    }
+    
+    /**
+     * Build report rows in the background (null when the branch no longer exists)
+     */
+    private List<UtilizationRow> buildRows(int branchId, LocalDate fromDate, LocalDate toDate)
+            throws SQLException, IOException {
+        Branch selectedBranch = branchService.getBranchById(branchId);
+        if (selectedBranch == null) {
+            return null;
+        }
 
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate report: " + e.getMessage());
+        long totalDays = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        List<UtilizationRow> rows = new ArrayList<>();
+        reportService.forEachEquipmentUtilization(branchId, fromDate, toDate,
+                rs -> rows.add(UtilizationRow.from(rs, totalDays)));
+        return rows;
+    }
+    
+    /**
+     * Export the report to CSV, streaming its rows from the database straight to disk
+     */
+    @FXML
+    private void handleExportReport() {
+        if (utilizationTable.getItems().isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "No Data", "Generate report first!");
+            return;
+        }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Utilization Report");
+        chooser.setInitialFileName("utilization_" + reportFromDate + "_" + reportToDate + ".csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(utilizationTable.getScene().getWindow());
+        if (file == null) {
+            return;
         }
+        
+        int branchId = reportBranchId;
+        LocalDate fromDate = reportFromDate;
+        LocalDate toDate = reportToDate;
+        long totalDays = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        loader.run("utilizationExport", () -> {
+            try (CsvWriter csv = CsvWriter.open(file.toPath())) {
+                csv.writeRecord("Equipment", "Category", "Rented Days", "Available Days", "Utilization %");
+                return reportService.forEachEquipmentUtilization(branchId, fromDate, toDate, rs -> {
+                    UtilizationRow row = UtilizationRow.from(rs, totalDays);
+                    csv.writeRecord(row.equipmentCode, row.category, row.rentedDays, row.availableDays,
+                            String.format("%.2f", row.utilizationPercent));
+                });
+            }
+        }, count -> showAlert(Alert.AlertType.INFORMATION, "Export",
+                "Exported " + count + " equipment row(s) to " + file.getName()),
+           e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to export report: " + e.getMessage()));
     }
     
     /**
@@ -181,5 +220,18 @@ public class EquipmentUtilizationController {
         public int rentedDays;
         public int availableDays;
         public double utilizationPercent;
+        
+        /**
+         * Row of ReportService.forEachEquipmentUtilization (read by position) over a period of totalDays days
+         */
+        static UtilizationRow from(ResultSet rs, long totalDays) throws SQLException {
+            UtilizationRow row = new UtilizationRow();
+            row.equipmentCode = rs.getString(1);
+            row.category = rs.getString(2);
+            row.rentedDays = rs.getInt(3);
+            row.availableDays = (int) (totalDays - row.rentedDays);
+            row.utilizationPercent = (row.rentedDays * 100.0) / totalDays;
+            return row;
+        }
     }
 }
\ No newline at end of file
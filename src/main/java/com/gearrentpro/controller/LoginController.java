@@ -1,6 +1,7 @@
 package com.gearrentpro.controller;
 
 import com.gearrentpro.service.AuthenticationService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -11,7 +12,6 @@ import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.sql.SQLException;
 
 public class LoginController {
     
@@ -22,10 +22,12 @@ public class LoginController {
     private PasswordField passwordField;
     
     private AuthenticationService authService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
         authService = AuthenticationService.getInstance();
+        loader = new AsyncLoader(usernameField.getParent());
     }
     
     /**
@@ -42,18 +44,21 @@ public class LoginController {
             return;
         }
         
-        try {
-            // Attempt login
-            if (authService.login(username, password)) {
+        // Ignore repeated clicks while a login attempt is running
+        if (loader.isBusy()) {
+            return;
+        }
+        
+        // Attempt login
+        loader.run("login", () -> authService.login(username, password), success -> {
+            if (success) {
                 // Login successful, load dashboard
                 loadDashboard();
             } else {
                 showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password!");
                 passwordField.clear();
             }
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to database: " + e.getMessage());
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to database: " + e.getMessage()));
     }
     
     /**
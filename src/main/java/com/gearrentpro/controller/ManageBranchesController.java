@@ -2,14 +2,12 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Branch;
 import com.gearrentpro.service.BranchService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 
-import java.sql.SQLException;
-import java.util.List;
-
 public class ManageBranchesController {
     
     @FXML
@@ -31,10 +29,12 @@ public class ManageBranchesController {
     private TableColumn<Branch, String> emailColumn;
     
     private BranchService branchService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
         branchService = BranchService.getInstance();
+        loader = new AsyncLoader(branchTable);
         setupTableColumns();
         loadBranches();
     }
@@ -59,12 +59,9 @@ public class ManageBranchesController {
      * Load all branches
      */
     private void loadBranches() {
-        try {
-            List<Branch> branches = branchService.getAllBranches();
-            branchTable.setItems(FXCollections.observableArrayList(branches));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load branches: " + e.getMessage());
-        }
+        loader.run("branches", branchService::getAllBranches,
+                branches -> branchTable.setItems(FXCollections.observableArrayList(branches)),
+                e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load branches: " + e.getMessage()));
     }
     
     /**
@@ -114,18 +111,19 @@ public class ManageBranchesController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(branch -> {
-            try {
-                if (branchService.createBranch(branch)) {
+        dialog.showAndWait().ifPresent(branch ->
+            loader.submit("createBranch", () -> branchService.createBranch(branch), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Branch added successfully!");
                     loadBranches();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add branch: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to add branch: " + e.getMessage());
+                }
+            }));
     }
     
     /**
@@ -186,16 +184,13 @@ public class ManageBranchesController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(branch -> {
-            try {
-                if (branchService.updateBranch(branch)) {
+        dialog.showAndWait().ifPresent(branch ->
+            loader.submit("updateBranch", () -> branchService.updateBranch(branch), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Branch updated successfully!");
                     loadBranches();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to update branch: " + e.getMessage());
-            }
-        });
+            }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to update branch: " + e.getMessage())));
     }
     
     /**
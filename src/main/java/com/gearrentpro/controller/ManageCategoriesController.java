@@ -2,14 +2,13 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Category;
 import com.gearrentpro.service.CategoryService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 
 import java.math.BigDecimal;
-import java.sql.SQLException;
-import java.util.List;
 
 public class ManageCategoriesController {
     
@@ -35,10 +34,12 @@ public class ManageCategoriesController {
     private TableColumn<Category, String> statusColumn;
     
     private CategoryService categoryService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
         categoryService = CategoryService.getInstance();
+        loader = new AsyncLoader(categoryTable);
         setupTableColumns();
         loadCategories();
     }
@@ -65,12 +66,9 @@ public class ManageCategoriesController {
      * Load all categories
      */
     private void loadCategories() {
-        try {
-            List<Category> categories = categoryService.getAllCategories();
-            categoryTable.setItems(FXCollections.observableArrayList(categories));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load categories: " + e.getMessage());
-        }
+        loader.run("categories", categoryService::getAllCategories,
+                categories -> categoryTable.setItems(FXCollections.observableArrayList(categories)),
+                e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load categories: " + e.getMessage()));
     }
     
     /**
@@ -131,18 +129,19 @@ public class ManageCategoriesController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(category -> {
-            try {
-                if (categoryService.createCategory(category)) {
+        dialog.showAndWait().ifPresent(category ->
+            loader.submit("createCategory", () -> categoryService.createCategory(category), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Category added successfully!");
                     loadCategories();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add category: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to add category: " + e.getMessage());
+                }
+            }));
     }
     
     /**
@@ -207,18 +206,19 @@ public class ManageCategoriesController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(category -> {
-            try {
-                if (categoryService.updateCategory(category)) {
+        dialog.showAndWait().ifPresent(category ->
+            loader.submit("updateCategory", () -> categoryService.updateCategory(category), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Category updated successfully!");
                     loadCategories();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to update category: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to update category: " + e.getMessage());
+                }
+            }));
     }
     
     /**
@@ -7,14 +7,17 @@ import com.gearrentpro.service.EquipmentService;
 import com.gearrentpro.service.CategoryService;
 import com.gearrentpro.service.BranchService;
 import com.gearrentpro.service.AuthenticationService;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.BatchResult;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.util.List;
 
 public class ManageEquipmentController {
@@ -47,6 +50,7 @@ public class ManageEquipmentController {
     private CategoryService categoryService;
     private BranchService branchService;
     private AuthenticationService authService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
@@ -54,6 +58,7 @@ public class ManageEquipmentController {
         categoryService = CategoryService.getInstance();
         branchService = BranchService.getInstance();
         authService = AuthenticationService.getInstance();
+        loader = new AsyncLoader(equipmentTable);
         
         setupTableColumns();
         loadEquipment();
@@ -87,12 +92,9 @@ public class ManageEquipmentController {
      * Load all equipment
      */
     private void loadEquipment() {
-        try {
-            List<Equipment> equipment = equipmentService.getAllEquipment();
-            equipmentTable.setItems(FXCollections.observableArrayList(equipment));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load equipment: " + e.getMessage());
-        }
+        loader.run("equipment", equipmentService::getAllEquipment,
+                equipment -> equipmentTable.setItems(FXCollections.observableArrayList(equipment)),
+                e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load equipment: " + e.getMessage()));
     }
     
     /**
@@ -121,18 +123,16 @@ public class ManageEquipmentController {
         ComboBox<Branch> branchCombo = new ComboBox<>();
         ComboBox<Equipment.EquipmentStatus> statusCombo = new ComboBox<>();
         
-        try {
-            List<Category> categories = categoryService.getAllCategories();
+        statusCombo.setItems(FXCollections.observableArrayList(Equipment.EquipmentStatus.values()));
+        statusCombo.setValue(Equipment.EquipmentStatus.AVAILABLE);
+        
+        // Choices fill in while the dialog is already open
+        loader.run("categories", categoryService::getAllCategories, categories -> {
             categoryCombo.setItems(FXCollections.observableArrayList(categories));
-            
-            List<Branch> branches = branchService.getAllBranches();
-            branchCombo.setItems(FXCollections.observableArrayList(branches));
-            
-            statusCombo.setItems(FXCollections.observableArrayList(Equipment.EquipmentStatus.values()));
-            statusCombo.setValue(Equipment.EquipmentStatus.AVAILABLE);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load data!");
-        }
+            loader.run("branches", branchService::getAllBranches,
+                    branches -> branchCombo.setItems(FXCollections.observableArrayList(branches)),
+                    e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load data!"));
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load data!"));
         
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -183,18 +183,19 @@ public class ManageEquipmentController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(equip -> {
-            try {
-                if (equipmentService.createEquipment(equip)) {
+        dialog.showAndWait().ifPresent(equip ->
+            loader.submit("createEquipment", () -> equipmentService.createEquipment(equip), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Equipment added successfully!");
                     loadEquipment();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add equipment: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to add equipment: " + e.getMessage());
+                }
+            }));
     }
     
     /**
@@ -272,18 +273,19 @@ public class ManageEquipmentController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(equip -> {
-            try {
-                if (equipmentService.updateEquipment(equip)) {
+        dialog.showAndWait().ifPresent(equip ->
+            loader.submit("updateEquipment", () -> equipmentService.updateEquipment(equip), saved -> {
+                if (saved) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Equipment updated successfully!");
                     loadEquipment();
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to update equipment: " + e.getMessage());
-            } catch (IllegalArgumentException e) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
-            }
-        });
+            }, e -> {
+                if (e instanceof IllegalArgumentException) {
+                    showAlert(Alert.AlertType.WARNING, "Validation Error", e.getMessage());
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Failed to update equipment: " + e.getMessage());
+                }
+            }));
     }
     
     /**
@@ -314,6 +316,42 @@ public class ManageEquipmentController {
         }
     }
     
+    /**
+     * Handle bulk import of equipment from a CSV file
+     */
+    @FXML
+    private void handleImportEquipment() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Equipment");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(equipmentTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        loader.submit("importEquipment", () -> equipmentService.importEquipmentCsv(file.toPath()), result -> {
+            StringBuilder message = new StringBuilder();
+            message.append(result.getSucceeded()).append(" equipment item(s) imported, ")
+                   .append(result.getFailed()).append(" row(s) rejected.");
+            List<BatchResult.RowError> errors = result.getErrors();
+            for (int i = 0; i < Math.min(errors.size(), 10); i++) {
+                message.append("\nLine ").append(errors.get(i).getRow()).append(": ").append(errors.get(i).getMessage());
+            }
+            if (errors.size() > 10) {
+                message.append("\n... and ").append(errors.size() - 10).append(" more");
+            }
+            showAlert(result.hasErrors() ? Alert.AlertType.WARNING : Alert.AlertType.INFORMATION,
+                    "Import Finished", message.toString());
+            loadEquipment();
+        }, e -> {
+            if (e instanceof IllegalArgumentException) {
+                showAlert(Alert.AlertType.WARNING, "Invalid File", e.getMessage());
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Error", "Failed to import equipment: " + e.getMessage());
+            }
+        });
+    }
+    
     /**
      * Show alert dialog
      */
@@ -4,13 +4,14 @@ import com.gearrentpro.entity.User;
 import com.gearrentpro.entity.Branch;
 import com.gearrentpro.service.BranchService;
 import com.gearrentpro.dao.UserDAO;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 
-import java.sql.SQLException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 public class ManageUsersController {
 
@@ -37,11 +38,15 @@ public class ManageUsersController {
 
     private UserDAO userDAO;
     private BranchService branchService;
+    private AsyncLoader loader;
+    // Branch names by id, loaded with the users so the branch column never queries
+    private volatile Map<Integer, String> branchNames = new HashMap<>();
 
     @FXML
     public void initialize() {
         userDAO = new UserDAO();
         branchService = BranchService.getInstance();
+        loader = new AsyncLoader(userTable);
         setupTableColumns();
         loadUsers();
     }
@@ -61,13 +66,7 @@ public class ManageUsersController {
         branchColumn.setCellValueFactory(cellData -> {
             Integer branchId = cellData.getValue().getBranchId();
             if (branchId != null) {
-                try {
-                    Branch branch = branchService.getBranchById(branchId);
-                    return new javafx.beans.property.SimpleStringProperty(
-                            branch != null ? branch.getBranchName() : "N/A");
-                } catch (SQLException e) {
-                    return new javafx.beans.property.SimpleStringProperty("N/A");
-                }
+                return new javafx.beans.property.SimpleStringProperty(branchNames.getOrDefault(branchId, "N/A"));
             }
             return new javafx.beans.property.SimpleStringProperty("N/A");
         });
@@ -79,16 +78,20 @@ public class ManageUsersController {
      * Load all users from database
      */
     private void loadUsers() {
-        try {
-            List<User> users = userDAO.getAllUsers();
+        loader.run("users", () -> {
+            Map<Integer, String> names = new HashMap<>();
+            for (Branch branch : branchService.getAllBranches()) {
+                names.put(branch.getBranchId(), branch.getBranchName());
+            }
+            branchNames = names;
+            return userDAO.getAllUsers();
+        }, users -> {
             userTable.setItems(FXCollections.observableArrayList(users));
 
             if (users.isEmpty()) {
                 showAlert(Alert.AlertType.INFORMATION, "Info", "No users found. Click 'Add New User' to create users.");
             }
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load users: " + e.getMessage());
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load users: " + e.getMessage()));
     }
 
     /**
@@ -114,15 +117,13 @@ public class ManageUsersController {
         roleCombo.setValue(User.UserRole.STAFF);
 
         ComboBox<Branch> branchCombo = new ComboBox<>();
-        try {
-            List<Branch> branches = branchService.getAllBranches();
+        // Branches fill in while the dialog is already open
+        loader.run("branches", branchService::getAllBranches, branches -> {
             branchCombo.setItems(FXCollections.observableArrayList(branches));
             if (!branches.isEmpty()) {
                 branchCombo.setValue(branches.get(0));
             }
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load branches!");
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load branches!"));
 
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -165,16 +166,12 @@ public class ManageUsersController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(user -> {
-            try {
-                int userId = userDAO.createUser(user);
+        dialog.showAndWait().ifPresent(user ->
+            loader.submit("createUser", () -> userDAO.createUser(user), userId -> {
                 if (userId > 0) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "User added successfully!");
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Error", "Failed to add user: " + e.getMessage());
-            }
-        });
+            }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to add user: " + e.getMessage())));
     }
 
     /**
@@ -210,21 +207,19 @@ public class ManageUsersController {
         roleCombo.setValue(selected.getRole());
 
         ComboBox<Branch> branchCombo = new ComboBox<>();
-        try {
-            List<Branch> branches = branchService.getAllBranches();
+        // Branches fill in while the dialog is already open
+        loader.run("branches", branchService::getAllBranches, branches -> {
             branchCombo.setItems(FXCollections.observableArrayList(branches));
 
             if (selected.getBranchId() != null) {
-                Branch currentBranch = branchService.getBranchById(selected.getBranchId());
-                if (currentBranch != null) {
-                    branchCombo.setValue(currentBranch);
-                }
+                branches.stream()
+                        .filter(branch -> branch.getBranchId() == selected.getBranchId())
+                        .findFirst()
+                        .ifPresent(branchCombo::setValue);
             } else if (!branches.isEmpty()) {
                 branchCombo.setValue(branches.get(0));
             }
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load branches!");
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load branches!"));
 
         // Disable branch combo for ADMIN role
         if (selected.getRole() == User.UserRole.ADMIN) {
@@ -305,18 +300,15 @@ public class ManageUsersController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(user -> {
-            try {
-                if (userDAO.updateUser(user)) {
+        dialog.showAndWait().ifPresent(user ->
+            loader.submit("updateUser", () -> userDAO.updateUser(user), updated -> {
+                if (updated) {
                     showAlert(Alert.AlertType.INFORMATION, "Success", "User updated successfully!");
                     loadUsers();
                 } else {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to update user!");
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update user: " + e.getMessage());
-            }
-        });
+            }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update user: " + e.getMessage())));
     }
 
     /**
@@ -344,20 +336,18 @@ public class ManageUsersController {
                 "\n\nThis action cannot be undone!");
 
         if (confirmDialog.showAndWait().get() == ButtonType.OK) {
-            try {
-                // Update user status to INACTIVE instead of deleting
-                selected.setStatus(User.UserStatus.INACTIVE);
+            // Update user status to INACTIVE instead of deleting
+            selected.setStatus(User.UserStatus.INACTIVE);
 
-                if (userDAO.updateUser(selected)) {
+            loader.submit("deactivateUser", () -> userDAO.updateUser(selected), updated -> {
+                if (updated) {
                     showAlert(Alert.AlertType.INFORMATION, "Success",
                             "User '" + selected.getFullName() + "' has been deactivated successfully!");
                     loadUsers();
                 } else {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete user!");
                 }
-            } catch (SQLException e) {
-                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete user: " + e.getMessage());
-            }
+            }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete user: " + e.getMessage()));
         }
     }
 
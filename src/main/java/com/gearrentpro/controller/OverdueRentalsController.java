@@ -1,45 +1,46 @@
 package com.gearrentpro.controller;
 
-import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.RentalListRow;
 import com.gearrentpro.service.RentalService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 public class OverdueRentalsController {
     
     @FXML
-    private TableView<Rental> overdueTable;
+    private TableView<RentalListRow> overdueTable;
     
     @FXML
-    private TableColumn<Rental, String> rentalCodeColumn;
+    private TableColumn<RentalListRow, String> rentalCodeColumn;
     
     @FXML
-    private TableColumn<Rental, String> customerColumn;
+    private TableColumn<RentalListRow, String> customerColumn;
     
     @FXML
-    private TableColumn<Rental, String> equipmentColumn;
+    private TableColumn<RentalListRow, String> equipmentColumn;
     
     @FXML
-    private TableColumn<Rental, String> dueDateColumn;
+    private TableColumn<RentalListRow, String> dueDateColumn;
     
     @FXML
-    private TableColumn<Rental, String> daysOverdueColumn;
+    private TableColumn<RentalListRow, String> daysOverdueColumn;
     
     @FXML
-    private TableColumn<Rental, String> phoneColumn;
+    private TableColumn<RentalListRow, String> phoneColumn;
     
     private RentalService rentalService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
         rentalService = RentalService.getInstance();
+        loader = new AsyncLoader(overdueTable);
         setupTableColumns();
         loadOverdueRentals();
     }
@@ -68,13 +69,10 @@ public class OverdueRentalsController {
      * Load overdue rentals
      */
     private void loadOverdueRentals() {
-        try {
-            List<Rental> overdueRentals = rentalService.getOverdueRentals();
-            ObservableList<Rental> observableList = FXCollections.observableArrayList(overdueRentals);
+        loader.run("overdueRentals", rentalService::getOverdueRentalRows, overdueRentals -> {
+            ObservableList<RentalListRow> observableList = FXCollections.observableArrayList(overdueRentals);
             overdueTable.setItems(observableList);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load overdue rentals: " + e.getMessage());
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load overdue rentals: " + e.getMessage()));
     }
     
     /**
@@ -82,7 +80,7 @@ public class OverdueRentalsController {
      */
     @FXML
     private void handleContactCustomer() {
-        Rental selected = overdueTable.getSelectionModel().getSelectedItem();
+        RentalListRow selected = overdueTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert(Alert.AlertType.WARNING, "Selection Required", "Please select a rental!");
             return;
@@ -1,21 +1,21 @@
 package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.RentalListRow;
 import com.gearrentpro.entity.ReturnDetails;
 import com.gearrentpro.service.RentalService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.List;
 
 public class ProcessReturnController {
 
     @FXML
-    private ComboBox<Rental> rentalCombo;
+    private ComboBox<RentalListRow> rentalCombo;
 
     @FXML
     private Label rentalDetailsLabel;
@@ -39,15 +39,20 @@ public class ProcessReturnController {
     private Label refundLabel;
 
     private RentalService rentalService;
+    private AsyncLoader loader;
+    // Full record of the selected rental (deposit and amounts), loaded on selection
+    private Rental selectedRental;
 
     @FXML
     public void initialize() {
         rentalService = RentalService.getInstance();
+        loader = new AsyncLoader(rentalCombo.getParent());
         loadActiveRentals();
 
         rentalCombo.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            selectedRental = null;
             if (newVal != null) {
-                showRentalDetails(newVal);
+                loadRentalDetails(newVal);
             }
         });
 
@@ -56,21 +61,30 @@ public class ProcessReturnController {
     }
 
     /**
-     * Load active rentals
+     * Load the ACTIVE and OVERDUE rentals as list rows
      */
     private void loadActiveRentals() {
-        try {
-            // Get all rentals and filter for active ones
-            List<Rental> allRentals = rentalService.getAllRentals();
-            List<Rental> activeRentals = allRentals.stream()
-                    .filter(r -> r.getRentalStatus() == Rental.RentalStatus.ACTIVE ||
-                            r.getRentalStatus() == Rental.RentalStatus.OVERDUE)
-                    .collect(java.util.stream.Collectors.toList());
-
-            rentalCombo.setItems(FXCollections.observableArrayList(activeRentals));
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to load rentals: " + e.getMessage());
-        }
+        loader.run("activeRentals", rentalService::getOpenRentalRows,
+                activeRentals -> rentalCombo.setItems(FXCollections.observableArrayList(activeRentals)),
+                e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load rentals: " + e.getMessage()));
+    }
+
+    /**
+     * Load the selected rental's full record, which the charge calculation needs
+     */
+    private void loadRentalDetails(RentalListRow selected) {
+        loader.run("rentalDetails", () -> rentalService.getRentalById(selected.getRentalId()), rental -> {
+            if (rentalCombo.getValue() != selected) {
+                // The selection changed while loading
+                return;
+            }
+            if (rental == null) {
+                showAlert(Alert.AlertType.WARNING, "Not Found", "This rental no longer exists.");
+                return;
+            }
+            selectedRental = rental;
+            showRentalDetails(rental);
+        }, e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to load rental details: " + e.getMessage()));
     }
 
     /**
@@ -96,7 +110,7 @@ public class ProcessReturnController {
      */
     private void calculateCharges() {
         try {
-            Rental rental = rentalCombo.getValue();
+            Rental rental = selectedRental;
             LocalDate returnDate = returnDatePicker.getValue();
 
             if (rental == null || returnDate == null) {
@@ -151,6 +165,7 @@ public class ProcessReturnController {
     @FXML
     private void clearForm() {
         rentalCombo.setValue(null);
+        selectedRental = null;
         returnDatePicker.setValue(null);
         damageDescriptionArea.clear();
         damageChargeField.clear();
@@ -163,36 +178,43 @@ public class ProcessReturnController {
      */
     @FXML
     private void handleProcessReturn() {
-        try {
-            Rental rental = rentalCombo.getValue();
-            LocalDate returnDate = returnDatePicker.getValue();
+        Rental rental = selectedRental;
+        LocalDate returnDate = returnDatePicker.getValue();
 
-            if (rental == null || returnDate == null) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select rental and return date!");
+        if (rental == null || returnDate == null) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select rental and return date!");
+            return;
+        }
+
+        BigDecimal damageCharge = BigDecimal.ZERO;
+        if (!damageChargeField.getText().isEmpty()) {
+            try {
+                damageCharge = new BigDecimal(damageChargeField.getText());
+            } catch (NumberFormatException e) {
+                showAlert(Alert.AlertType.WARNING, "Validation Error", "Invalid damage charge amount!");
                 return;
             }
+        }
 
-            BigDecimal damageCharge = BigDecimal.ZERO;
-            if (!damageChargeField.getText().isEmpty()) {
-                try {
-                    damageCharge = new BigDecimal(damageChargeField.getText());
-                } catch (NumberFormatException e) {
-                    showAlert(Alert.AlertType.WARNING, "Validation Error", "Invalid damage charge amount!");
-                    return;
-                }
-            }
+        // Ignore repeated clicks while the return is being saved
+        if (loader.isBusy()) {
+            return;
+        }
 
-            String damageDesc = damageDescriptionArea.getText();
+        String damageDesc = damageDescriptionArea.getText();
+        BigDecimal charge = damageCharge;
 
-            // Process return
+        // Process return
+        loader.submit("processReturn", () -> {
             ReturnDetails returnDetails = rentalService.processReturn(
                     rental.getRentalId(),
                     returnDate,
                     damageDesc,
-                    damageCharge);
+                    charge);
 
             rentalService.updatePaymentStatus(rental.getRentalId(), Rental.PaymentStatus.PAID);
-
+            return returnDetails;
+        }, returnDetails -> {
             String message = "Return processed successfully!\n\n" +
                     "Late Fee: LKR " + returnDetails.getLateFee() + "\n" +
                     "Damage Charge: LKR " + returnDetails.getDamageCharge() + "\n" +
@@ -203,10 +225,7 @@ public class ProcessReturnController {
             showAlert(Alert.AlertType.INFORMATION, "Success", message);
             clearForm();
             loadActiveRentals();
-
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to process return: " + e.getMessage());
-        }
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to process return: " + e.getMessage()));
     }
 
 
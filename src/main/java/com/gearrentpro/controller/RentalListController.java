@@ -1,51 +1,64 @@
 package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.RentalListRow;
 import com.gearrentpro.service.AuthenticationService;
 import com.gearrentpro.service.RentalService;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.LazyPagedList;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
 import java.sql.SQLException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 public class RentalListController {
     
     @FXML
-    private TableView<Rental> rentalTable;
+    private TableView<RentalListRow> rentalTable;
     
     @FXML
-    private TableColumn<Rental, String> codeColumn;
+    private TableColumn<RentalListRow, String> codeColumn;
     
     @FXML
-    private TableColumn<Rental, String> equipmentColumn;
+    private TableColumn<RentalListRow, String> equipmentColumn;
     
     @FXML
-    private TableColumn<Rental, String> customerColumn;
+    private TableColumn<RentalListRow, String> customerColumn;
     
     @FXML
-    private TableColumn<Rental, String> statusColumn;
+    private TableColumn<RentalListRow, String> statusColumn;
     
     @FXML
-    private TableColumn<Rental, String> startDateColumn;
+    private TableColumn<RentalListRow, String> startDateColumn;
     
     @FXML
-    private TableColumn<Rental, String> endDateColumn;
+    private TableColumn<RentalListRow, String> endDateColumn;
     
     @FXML
     private ComboBox<Rental.RentalStatus> statusFilter;
     
     private RentalService rentalService;
     private AuthenticationService authService;
-    private List<Rental> allRentals;
+    private AsyncLoader loader;
+    private Task<LazyPagedList<RentalListRow>> pendingLoad;
+    private static final int PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 10;
+    /** Shown in place of rows whose page is still loading */
+    private static final RentalListRow LOADING_ROW = new RentalListRow();
+    
+    static {
+        LOADING_ROW.setRentalCode("Loading...");
+    }
     
     @FXML
     public void initialize() {
         rentalService = RentalService.getInstance();
         authService = AuthenticationService.getInstance();
+        loader = new AsyncLoader(rentalTable);
         setupTableColumns();
         setupStatusFilter();
         loadRentals();
@@ -62,11 +75,11 @@ public class RentalListController {
         customerColumn.setCellValueFactory(cellData -> 
             new javafx.beans.property.SimpleStringProperty(cellData.getValue().getCustomerName()));
         statusColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getRentalStatus().toString()));
+            new javafx.beans.property.SimpleStringProperty(Objects.toString(cellData.getValue().getRentalStatus(), "")));
         startDateColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getStartDate().toString()));
+            new javafx.beans.property.SimpleStringProperty(Objects.toString(cellData.getValue().getStartDate(), "")));
         endDateColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getEndDate().toString()));
+            new javafx.beans.property.SimpleStringProperty(Objects.toString(cellData.getValue().getEndDate(), "")));
     }
     
     /**
@@ -82,61 +95,79 @@ public class RentalListController {
     }
     
     /**
-     * Load all rentals
+     * Load rentals newest first; rows are fetched page by page as they scroll into view
      */
     private void loadRentals() {
-        try {
-            Integer branchId = authService.getCurrentUserBranchId();
-            if (branchId != null) {
-                // Branch user, load rentals for the specific branch
-                allRentals = rentalService.getRentalsByBranch(branchId);
-            } else {
-                // Admin user, load all rentals
-                allRentals = rentalService.getAllRentals();
-            }
-            ObservableList<Rental> observableList = FXCollections.observableArrayList(allRentals);
-            rentalTable.setItems(observableList);
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load rentals: " + e.getMessage());
+        loadRentals(null);
+    }
+    
+    /**
+     * Load rentals with the given status (null for all), branch users only see their branch
+     */
+    private void loadRentals(Rental.RentalStatus status) {
+        Integer branchId = authService.getCurrentUserBranchId();
+        // The constructor runs the count query, so the list is built in the background
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
         }
+        pendingLoad = loader.run("rentals", () -> new LazyPagedList<>(new LazyPagedList.PageSource<RentalListRow>() {
+            @Override
+            public int count() throws SQLException {
+                return rentalService.countRentals(branchId, status);
+            }
+            
+            @Override
+            public List<RentalListRow> fetchAfter(RentalListRow after, int limit) throws SQLException {
+                return rentalService.getRentalsPage(branchId, status, after, limit);
+            }
+            
+            @Override
+            public List<RentalListRow> fetchAt(int offset, int limit) throws SQLException {
+                return rentalService.getRentalsAt(branchId, status, offset, limit);
+            }
+        }, PAGE_SIZE, CACHED_PAGES, LOADING_ROW, e ->
+            System.err.println("Failed to load rentals: " + e.getMessage())),
+            rentalTable::setItems,
+            e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load rentals: " + e.getMessage()));
     }
     
     /**
      * Filter rentals by status
      */
     private void filterByStatus(Rental.RentalStatus status) {
-        List<Rental> filtered = allRentals.stream()
-            .filter(r -> r.getRentalStatus() == status)
-            .collect(Collectors.toList());
-        
-        ObservableList<Rental> observableList = FXCollections.observableArrayList(filtered);
-        rentalTable.setItems(observableList);
+        loadRentals(status);
     }
     
     /**
-     * Handle view rental details
+     * Handle view rental details; the list rows carry no amounts, so load the rental
      */
     @FXML
     private void handleViewDetails() {
-        Rental selected = rentalTable.getSelectionModel().getSelectedItem();
-        if (selected == null) {
+        RentalListRow selected = rentalTable.getSelectionModel().getSelectedItem();
+        if (selected == null || selected == LOADING_ROW) {
             showAlert(Alert.AlertType.WARNING, "Selection Required", "Please select a rental!");
             return;
         }
         
-        String details = "Rental Code: " + selected.getRentalCode() + "\n" +
-                        "Equipment: " + selected.getEquipmentDetails() + "\n" +
-                        "Customer: " + selected.getCustomerName() + "\n" +
-                        "Start Date: " + selected.getStartDate() + "\n" +
-                        "End Date: " + selected.getEndDate() + "\n" +
-                        "Daily Rate: " + selected.getDailyRate() + "\n" +
-                        "Rental Amount: " + selected.getRentalAmount() + "\n" +
-                        "Security Deposit: " + selected.getSecurityDeposit() + "\n" +
-                        "Final Payable: " + selected.getFinalPayableAmount() + "\n" +
-                        "Status: " + selected.getRentalStatus() + "\n" +
-                        "Payment Status: " + selected.getPaymentStatus();
-        
-        showAlert(Alert.AlertType.INFORMATION, "Rental Details", details);
+        loader.run("rentalDetails", () -> rentalService.getRentalById(selected.getRentalId()), rental -> {
+            if (rental == null) {
+                showAlert(Alert.AlertType.WARNING, "Not Found", "This rental no longer exists.");
+                return;
+            }
+            String details = "Rental Code: " + rental.getRentalCode() + "\n" +
+                            "Equipment: " + rental.getEquipmentDetails() + "\n" +
+                            "Customer: " + rental.getCustomerName() + "\n" +
+                            "Start Date: " + rental.getStartDate() + "\n" +
+                            "End Date: " + rental.getEndDate() + "\n" +
+                            "Daily Rate: " + rental.getDailyRate() + "\n" +
+                            "Rental Amount: " + rental.getRentalAmount() + "\n" +
+                            "Security Deposit: " + rental.getSecurityDeposit() + "\n" +
+                            "Final Payable: " + rental.getFinalPayableAmount() + "\n" +
+                            "Status: " + rental.getRentalStatus() + "\n" +
+                            "Payment Status: " + rental.getPaymentStatus();
+            
+            showAlert(Alert.AlertType.INFORMATION, "Rental Details", details);
+        }, e -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load rental: " + e.getMessage()));
     }
     
     /**
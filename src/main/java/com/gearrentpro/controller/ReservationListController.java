@@ -2,13 +2,12 @@ package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Rental;
 import com.gearrentpro.entity.Reservation;
+import com.gearrentpro.entity.ReservationListRow;
 import com.gearrentpro.service.AuthenticationService;
 import com.gearrentpro.service.RentalService;
 import com.gearrentpro.service.ReservationService;
-import java.sql.SQLException;
-import java.util.List;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.gearrentpro.util.AsyncLoader;
+import com.gearrentpro.util.TablePager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
@@ -18,31 +17,33 @@ import javafx.scene.control.TextField;
 
 public class ReservationListController {
 
-  private List<Reservation> allReservations;
+  private static final int PAGE_SIZE = 100;
   private AuthenticationService authService;
+  private TablePager<ReservationListRow> pager;
+  private AsyncLoader loader;
 
-  @FXML private TableColumn<Reservation, String> codeColumn;
+  @FXML private TableColumn<ReservationListRow, String> codeColumn;
 
-  @FXML private TableColumn<Reservation, String> customerColumn;
+  @FXML private TableColumn<ReservationListRow, String> customerColumn;
 
-  @FXML private TableColumn<Reservation, String> endDateColumn;
+  @FXML private TableColumn<ReservationListRow, String> endDateColumn;
 
-  @FXML private TableColumn<Reservation, String> equipmentColumn;
+  @FXML private TableColumn<ReservationListRow, String> equipmentColumn;
 
   private RentalService rentalService;
   private ReservationService reservationService;
 
-  @FXML private TableView<Reservation> reservationTable;
+  @FXML private TableView<ReservationListRow> reservationTable;
 
   @FXML private TextField searchField;
 
-  @FXML private TableColumn<Reservation, String> startDateColumn;
+  @FXML private TableColumn<ReservationListRow, String> startDateColumn;
 
-  @FXML private TableColumn<Reservation, String> statusColumn;
+  @FXML private TableColumn<ReservationListRow, String> statusColumn;
 
   @FXML
   private void handleCancelReservation() {
-    Reservation selected = reservationTable.getSelectionModel().getSelectedItem();
+    ReservationListRow selected = reservationTable.getSelectionModel().getSelectedItem();
     if (selected == null) {
       showAlert(Alert.AlertType.WARNING, "Selection Required", "Please select a reservation!");
       return;
@@ -58,35 +59,40 @@ public class ReservationListController {
             + selected.getCustomerName());
 
     if (confirmDialog.showAndWait().get() == ButtonType.OK) {
-      try {
-        // Update reservation status to CANCELLED
-        boolean reservationCancelled =
-            reservationService.updateReservationStatus(
-                selected.getReservationId(), Reservation.ReservationStatus.CANCELLED);
-
-        // Check if there is an associated rental and cancel it as well
-        Rental rental = rentalService.getRentalByReservationId(selected.getReservationId());
-        if (rental != null) {
-          rentalService.updateRentalStatus(rental.getRentalId(), Rental.RentalStatus.CANCELLED);
-        }
-
-        if (reservationCancelled) {
-          showAlert(Alert.AlertType.INFORMATION, "Success", "Booking cancelled successfully!");
-          loadReservations();
-        } else {
-          showAlert(Alert.AlertType.ERROR, "Error", "Failed to cancel booking!");
-        }
-      } catch (SQLException e) {
-        showAlert(
-            Alert.AlertType.ERROR, "Database Error", "Failed to cancel booking: " + e.getMessage());
-        e.printStackTrace();
-      }
+      loader.submit(
+          "cancelReservation",
+          () -> {
+            // Update reservation status to CANCELLED
+            boolean reservationCancelled =
+                reservationService.updateReservationStatus(
+                    selected.getReservationId(), Reservation.ReservationStatus.CANCELLED);
+
+            // Check if there is an associated rental and cancel it as well
+            Rental rental = rentalService.getRentalByReservationId(selected.getReservationId());
+            if (rental != null) {
+              rentalService.updateRentalStatus(rental.getRentalId(), Rental.RentalStatus.CANCELLED);
+            }
+            return reservationCancelled;
+          },
+          reservationCancelled -> {
+            if (reservationCancelled) {
+              showAlert(Alert.AlertType.INFORMATION, "Success", "Booking cancelled successfully!");
+              loadReservations();
+            } else {
+              showAlert(Alert.AlertType.ERROR, "Error", "Failed to cancel booking!");
+            }
+          },
+          e -> {
+            showAlert(
+                Alert.AlertType.ERROR, "Database Error", "Failed to cancel booking: " + e.getMessage());
+            e.printStackTrace();
+          });
     }
   }
 
   @FXML
   private void handleConvertToRental() {
-    Reservation selected = reservationTable.getSelectionModel().getSelectedItem();
+    ReservationListRow selected = reservationTable.getSelectionModel().getSelectedItem();
     if (selected == null) {
       showAlert(Alert.AlertType.WARNING, "Selection Required", "Please select a reservation!");
       return;
@@ -110,62 +116,47 @@ public class ReservationListController {
             + selected.getCustomerName());
 
     if (confirmDialog.showAndWait().get() == ButtonType.OK) {
-      try {
-        if (reservationService.convertToRental(selected.getReservationId())) {
-          showAlert(
-              Alert.AlertType.INFORMATION, "Success", "Reservation converted to rental successfully!");
-          loadReservations();
-        } else {
-          showAlert(Alert.AlertType.ERROR, "Error", "Failed to convert reservation to rental!");
-        }
-      } catch (Exception e) {
-        showAlert(
-            Alert.AlertType.ERROR,
-            "Error",
-            "Failed to convert reservation to rental: " + e.getMessage());
-        e.printStackTrace();
-      }
+      loader.submit(
+          "convertToRental",
+          () -> reservationService.convertToRental(selected.getReservationId()),
+          converted -> {
+            if (converted) {
+              showAlert(
+                  Alert.AlertType.INFORMATION,
+                  "Success",
+                  "Reservation converted to rental successfully!");
+              loadReservations();
+            } else {
+              showAlert(Alert.AlertType.ERROR, "Error", "Failed to convert reservation to rental!");
+            }
+          },
+          e -> {
+            showAlert(
+                Alert.AlertType.ERROR,
+                "Error",
+                "Failed to convert reservation to rental: " + e.getMessage());
+            e.printStackTrace();
+          });
     }
   }
 
   @FXML
   private void handleSearch() {
-    String searchText = searchField.getText().toLowerCase().trim();
+    String searchText = searchField.getText().trim();
 
     if (searchText.isEmpty()) {
       loadReservations();
       return;
     }
 
-    try {
-      List<Reservation> filtered =
-          allReservations.stream()
-              .filter(
-                  r -> {
-                    boolean codeMatch =
-                        r.getReservationCode() != null
-                            && r.getReservationCode().toLowerCase().contains(searchText);
-                    boolean customerMatch =
-                        r.getCustomerName() != null
-                            && r.getCustomerName().toLowerCase().contains(searchText);
-                    boolean equipmentMatch =
-                        r.getEquipmentDetails() != null
-                            && r.getEquipmentDetails().toLowerCase().contains(searchText);
-                    return codeMatch || customerMatch || equipmentMatch;
-                  })
-              .collect(java.util.stream.Collectors.toList());
-
-      if (filtered.isEmpty()) {
-        showAlert(
-            Alert.AlertType.INFORMATION, "Info", "No reservations found matching: " + searchText);
-      }
-
-      ObservableList<Reservation> observableList = FXCollections.observableArrayList(filtered);
-      reservationTable.setItems(observableList);
-
-    } catch (Exception e) {
-      showAlert(Alert.AlertType.ERROR, "Error", "Search failed: " + e.getMessage());
-    }
+    loadReservations(
+        searchText,
+        () -> {
+          if (pager.getItems().isEmpty()) {
+            showAlert(
+                Alert.AlertType.INFORMATION, "Info", "No reservations found matching: " + searchText);
+          }
+        });
   }
 
   @FXML
@@ -173,41 +164,37 @@ public class ReservationListController {
     reservationService = ReservationService.getInstance();
     rentalService = RentalService.getInstance();
     authService = AuthenticationService.getInstance();
+    pager =
+        new TablePager<>(
+            reservationTable,
+            PAGE_SIZE,
+            e ->
+                showAlert(
+                    Alert.AlertType.ERROR,
+                    "Database Error",
+                    "Failed to load reservations: " + e.getMessage()));
+    loader = new AsyncLoader(reservationTable);
     setupTableColumns();
     loadReservations();
   }
 
   private void loadReservations() {
-    try {
-      Integer branchId = authService.getCurrentUserBranchId();
-      if (branchId != null) {
-        // Branch user, load reservations for the specific branch
-        allReservations = reservationService.getReservationsByBranch(branchId);
-      } else {
-        // Admin user, load all reservations
-        allReservations = reservationService.getAllReservations();
-      }
-
-      if (allReservations == null || allReservations.isEmpty()) {
-        showAlert(Alert.AlertType.INFORMATION, "Info", "No reservations found!");
-        reservationTable.setItems(FXCollections.observableArrayList());
-        return;
-      }
-
-      // Display in table
-      ObservableList<Reservation> observableList = FXCollections.observableArrayList(allReservations);
-      reservationTable.setItems(observableList);
-
-      System.out.println("Loaded " + allReservations.size() + " reservations");
-
-    } catch (SQLException e) {
-      showAlert(
-          Alert.AlertType.ERROR, "Database Error", "Failed to load reservations: " + e.getMessage());
-      e.printStackTrace();
-    } catch (Exception e) {
-      showAlert(Alert.AlertType.ERROR, "Error", "Unexpected error: " + e.getMessage());
-      e.printStackTrace();
-    }
+    loadReservations(
+        null,
+        () -> {
+          if (pager.getItems().isEmpty()) {
+            showAlert(Alert.AlertType.INFORMATION, "Info", "No reservations found!");
+          }
+        });
+  }
+
+  /** Load reservations page by page, optionally matching code, customer or equipment */
+  private void loadReservations(String searchText, Runnable onLoaded) {
+    // Branch users only see their branch's reservations; admin sees all
+    Integer branchId = authService.getCurrentUserBranchId();
+    pager.load(
+        (after, limit) -> reservationService.getReservationsPage(branchId, searchText, after, limit),
+        onLoaded);
   }
 
   private void setupTableColumns() {
@@ -1,17 +1,20 @@
 package com.gearrentpro.controller;
 
 import com.gearrentpro.entity.Branch;
-import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.BranchRevenue;
 import com.gearrentpro.entity.User;
 import com.gearrentpro.service.AuthenticationService;
 import com.gearrentpro.service.BranchService;
 import com.gearrentpro.service.RentalService;
+import com.gearrentpro.service.RevenueReportService;
+import com.gearrentpro.util.AsyncLoader;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -29,33 +32,40 @@ public class RevenueReportController {
     private DatePicker toDatePicker;
     
     @FXML
-    private TableView<RevenueRow> reportTable;
+    private TableView<BranchRevenue> reportTable;
     
     @FXML
-    private TableColumn<RevenueRow, String> branchNameColumn;
+    private TableColumn<BranchRevenue, String> branchNameColumn;
     
     @FXML
-    private TableColumn<RevenueRow, String> totalRentalsColumn;
+    private TableColumn<BranchRevenue, String> totalRentalsColumn;
     
     @FXML
-    private TableColumn<RevenueRow, String> totalIncomeColumn;
+    private TableColumn<BranchRevenue, String> totalIncomeColumn;
     
     @FXML
-    private TableColumn<RevenueRow, String> totalDepositColumn;
+    private TableColumn<BranchRevenue, String> totalDepositColumn;
     
     @FXML
-    private TableColumn<RevenueRow, String> totalLateFeesColumn;
+    private TableColumn<BranchRevenue, String> totalLateFeesColumn;
+    
+    @FXML
+    private TableColumn<BranchRevenue, String> totalDamageChargesColumn;
     
     @FXML
     private Label totalRevenueLabel;
     
     private BranchService branchService;
     private RentalService rentalService;
+    private RevenueReportService revenueReportService;
+    private AsyncLoader loader;
     
     @FXML
     public void initialize() {
         branchService = BranchService.getInstance();
         rentalService = RentalService.getInstance();
+        revenueReportService = RevenueReportService.getInstance();
+        loader = new AsyncLoader(reportTable);
 
         // Show branch name for branch manager
         AuthenticationService authService = AuthenticationService.getInstance();
@@ -63,14 +73,13 @@ public class RevenueReportController {
         if (currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER) {
             Integer branchId = currentUser.getBranchId();
             if (branchId != null) {
-                try {
-                    Branch branch = branchService.getBranchById(branchId);
+                loader.run("reportBranch", () -> branchService.getBranchById(branchId), branch -> {
                     if (branch != null && branchNameLabel != null) {
                         branchNameLabel.setText(branch.getBranchName());
                     }
-                } catch (Exception e) {
+                }, e -> {
                     if (branchNameLabel != null) branchNameLabel.setText("Branch: Unknown");
-                }
+                });
             }
         }
 
@@ -88,15 +97,17 @@ public class RevenueReportController {
      */
     private void setupTableColumns() {
         branchNameColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().branchName));
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getBranchName()));
         totalRentalsColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(String.valueOf(cellData.getValue().totalRentals)));
+            new javafx.beans.property.SimpleStringProperty(String.valueOf(cellData.getValue().getRentalCount())));
         totalIncomeColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().totalIncome));
+            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().getTotalIncome()));
         totalDepositColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().totalDeposits));
+            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().getTotalDeposits()));
         totalLateFeesColumn.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().totalLateFees));
+            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().getTotalLateFees()));
+        totalDamageChargesColumn.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty("LKR " + cellData.getValue().getTotalDamageCharges()));
     }
     
     /**
@@ -104,71 +115,50 @@ public class RevenueReportController {
      */
     @FXML
     private void handleGenerateReport() {
-        try {
-            LocalDate fromDate = fromDatePicker.getValue();
-            LocalDate toDate = toDatePicker.getValue();
-            
-            if (fromDate == null || toDate == null) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select date range!");
-                return;
-            }
-            
-            if (toDate.isBefore(fromDate)) {
-                showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
-                return;
-            }
-            
-            // Get rentals for current branch
-            AuthenticationService authService = AuthenticationService.getInstance();
-            User currentUser = authService.getCurrentUser();
-            List<Rental> allRentals;
-            
-            if (currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER) {
-                Integer branchId = currentUser.getBranchId();
-                allRentals = (branchId != null) ? rentalService.getRentalsByBranch(branchId) : rentalService.getAllRentals();
-            } else {
-                allRentals = rentalService.getAllRentals();
-            }
-            
-            // Filter by date range and status
-            List<Rental> filteredRentals = allRentals.stream()
-                .filter(r -> !r.getStartDate().isBefore(fromDate) && !r.getStartDate().isAfter(toDate) &&
-                           (r.getRentalStatus() == Rental.RentalStatus.RETURNED || 
-                            r.getRentalStatus() == Rental.RentalStatus.ACTIVE))
-                .collect(java.util.stream.Collectors.toList());
-            
-            if (filteredRentals.isEmpty()) {
-                showAlert(Alert.AlertType.INFORMATION, "No Data", "No rentals found for selected date range!");
-                return;
-            }
-            
-            // Calculate totals
-            BigDecimal totalIncome = filteredRentals.stream()
-                .map(Rental::getFinalPayableAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            BigDecimal totalDeposits = filteredRentals.stream()
-                .map(Rental::getSecurityDeposit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Create report row
-            RevenueRow row = new RevenueRow();
-            row.branchName =  branchNameLabel.getText();
-            row.totalRentals = filteredRentals.size();
-            row.totalIncome = totalIncome.toString();
-            row.totalDeposits = totalDeposits.toString();
-            row.totalLateFees = "0.00"; // Would need return details to calculate
-            
-            reportTable.setItems(FXCollections.observableArrayList(row));
-            totalRevenueLabel.setText("Total Revenue: LKR " + totalIncome);
-            
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate report: " + e.getMessage());
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        
+        if (fromDate == null || toDate == null) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select date range!");
+            return;
+        }
+        
+        if (toDate.isBefore(fromDate)) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "End date must be after start date!");
+            return;
+        }
+        
+        // Branch managers see their own branch only
+        AuthenticationService authService = AuthenticationService.getInstance();
+        User currentUser = authService.getCurrentUser();
+        Integer branchId = currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER
+                ? currentUser.getBranchId() : null;
+        
+        loader.run("revenueReport", () -> revenueReportService.getBranchRevenue(branchId, fromDate, toDate),
+            this::showReport,
+            e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to generate report: " + e.getMessage()));
+    }
+    
+    /**
+     * Show one row per branch and the overall revenue
+     */
+    private void showReport(List<BranchRevenue> revenues) {
+        reportTable.setItems(FXCollections.observableArrayList(revenues));
+        
+        if (revenues.isEmpty()) {
+            totalRevenueLabel.setText("Total Revenue: LKR 0.00");
+            showAlert(Alert.AlertType.INFORMATION, "No Data", "No rentals found for selected date range!");
+            return;
         }
+        
+        BigDecimal totalRevenue = revenues.stream()
+            .map(BranchRevenue::getTotalRevenue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        totalRevenueLabel.setText("Total Revenue: LKR " + totalRevenue);
     }
     
     /**
-     * Export report to CSV
+     * Export the rentals behind the report to CSV
      */
     @FXML
     private void handleExportReport() {
@@ -177,7 +167,31 @@ public class RevenueReportController {
             return;
         }
         
-        showAlert(Alert.AlertType.INFORMATION, "Export", "Report exported successfully!\n(CSV file saved)");
+        LocalDate fromDate = fromDatePicker.getValue();
+        LocalDate toDate = toDatePicker.getValue();
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            showAlert(Alert.AlertType.WARNING, "Validation Error", "Please select a valid date range!");
+            return;
+        }
+        
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Revenue Report");
+        chooser.setInitialFileName("revenue_" + fromDate + "_" + toDate + ".csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(reportTable.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        
+        AuthenticationService authService = AuthenticationService.getInstance();
+        User currentUser = authService.getCurrentUser();
+        Integer branchId = currentUser != null && currentUser.getRole() == User.UserRole.BRANCH_MANAGER
+                ? currentUser.getBranchId() : null;
+        
+        loader.run("revenueExport", () -> rentalService.exportRevenueCsv(branchId, fromDate, toDate, file.toPath()),
+            rows -> showAlert(Alert.AlertType.INFORMATION, "Export",
+                    "Exported " + rows + " rental(s) to " + file.getName()),
+            e -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to export report: " + e.getMessage()));
     }
     
     /**
@@ -190,15 +204,4 @@ public class RevenueReportController {
         alert.setContentText(message);
         alert.showAndWait();
     }
-    
-    /**
-     * Inner class for report row
-     */
-    public static class RevenueRow {
-        public String branchName;
-        public int totalRentals;
-        public String totalIncome;
-        public String totalDeposits;
-        public String totalLateFees;
-    }
-}
\ No newline at end of file
+}
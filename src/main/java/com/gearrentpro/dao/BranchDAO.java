@@ -2,17 +2,34 @@ package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.Branch;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.ReferenceDataCache;
+import com.gearrentpro.util.RowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class BranchDAO {
     
+    private static final RowMapper<Branch> BRANCH_MAPPER = RowMapper.of(BranchDAO::branchReader);
+    
+    // Branches change a few times a year; shared by every BranchDAO instance
+    private static final ReferenceDataCache<Integer, Branch> BRANCHES_BY_ID = ReferenceDataCache.create("Branches");
+    private static final ReferenceDataCache<String, List<Branch>> BRANCH_LISTS = ReferenceDataCache.create("Branch lists");
+    
     /**
      * Get all branches
      */
     public List<Branch> getAllBranches() throws SQLException {
+        List<Branch> branches = new ArrayList<>();
+        for (Branch branch : BRANCH_LISTS.get("all", this::queryAllBranches)) {
+            branches.add(copyOf(branch));
+        }
+        return branches;
+    }
+    
+    private List<Branch> queryAllBranches() throws SQLException {
         String sql = "SELECT * FROM branches ORDER BY branch_name";
         List<Branch> branches = new ArrayList<>();
         
@@ -20,17 +37,31 @@ public class BranchDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            RowMapper.RowReader<Branch> reader = BRANCH_MAPPER.bind(rs);
             while (rs.next()) {
-                branches.add(mapResultSetToBranch(rs));
+                branches.add(reader.read(rs));
             }
         }
-        return branches;
+        return Collections.unmodifiableList(branches);
     }
     
     /**
      * Get branch by ID
      */
     public Branch getBranchById(int branchId) throws SQLException {
+        return copyOf(BRANCHES_BY_ID.get(branchId, () -> queryBranchById(branchId)));
+    }
+    
+    /**
+     * Code of the branch with the given ID, or null if there is none; reads the cache
+     * without copying the branch
+     */
+    public String getBranchCode(int branchId) throws SQLException {
+        Branch cached = BRANCHES_BY_ID.get(branchId, () -> queryBranchById(branchId));
+        return cached != null ? cached.getBranchCode() : null;
+    }
+
+    private Branch queryBranchById(int branchId) throws SQLException {
         String sql = "SELECT * FROM branches WHERE branch_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -40,7 +71,7 @@ public class BranchDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToBranch(rs);
+                    return BRANCH_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -60,7 +91,7 @@ public class BranchDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToBranch(rs);
+                    return BRANCH_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -84,6 +115,7 @@ public class BranchDAO {
             stmt.setString(5, branch.getEmail());
             
             int affectedRows = stmt.executeUpdate();
+            BRANCH_LISTS.invalidateAll();
             
             if (affectedRows > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
@@ -114,26 +146,53 @@ public class BranchDAO {
             stmt.setInt(6, branch.getBranchId());
             
             return stmt.executeUpdate() > 0;
+        } finally {
+            BRANCHES_BY_ID.invalidate(branch.getBranchId());
+            BRANCH_LISTS.invalidateAll();
         }
     }
     
     /**
-     * Helper method to map ResultSet to Branch object
+     * Copy a cached branch so callers can edit it without touching the cache
      */
-    private Branch mapResultSetToBranch(ResultSet rs) throws SQLException {
-        Branch branch = new Branch();
-        branch.setBranchId(rs.getInt("branch_id"));
-        branch.setBranchCode(rs.getString("branch_code"));
-        branch.setBranchName(rs.getString("branch_name"));
-        branch.setAddress(rs.getString("address"));
-        branch.setContactNumber(rs.getString("contact_number"));
-        branch.setEmail(rs.getString("email"));
-        
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            branch.setCreatedAt(ts.toLocalDateTime());
+    private static Branch copyOf(Branch cached) {
+        if (cached == null) {
+            return null;
         }
-        
+        Branch branch = new Branch(cached.getBranchCode(), cached.getBranchName(), cached.getAddress(),
+                                   cached.getContactNumber(), cached.getEmail());
+        branch.setBranchId(cached.getBranchId());
+        branch.setCreatedAt(cached.getCreatedAt());
         return branch;
     }
+    
+    /**
+     * Resolve the Branch columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<Branch> branchReader(RowMapper.Columns columns) throws SQLException {
+        int branchIdColumn = columns.get("branch_id");
+        int branchCodeColumn = columns.get("branch_code");
+        int branchNameColumn = columns.get("branch_name");
+        int addressColumn = columns.get("address");
+        int contactNumberColumn = columns.get("contact_number");
+        int emailColumn = columns.get("email");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Branch branch = new Branch();
+            branch.setBranchId(rs.getInt(branchIdColumn));
+            branch.setBranchCode(rs.getString(branchCodeColumn));
+            branch.setBranchName(rs.getString(branchNameColumn));
+            branch.setAddress(rs.getString(addressColumn));
+            branch.setContactNumber(rs.getString(contactNumberColumn));
+            branch.setEmail(rs.getString(emailColumn));
+        
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                branch.setCreatedAt(ts.toLocalDateTime());
+            }
+        
+            return branch;
+        };
+    }
 }
\ No newline at end of file
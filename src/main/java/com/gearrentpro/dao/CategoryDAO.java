@@ -2,19 +2,38 @@ package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.Category;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.ReferenceDataCache;
+import com.gearrentpro.util.RowMapper;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
 public class CategoryDAO {
     
+    private static final EnumLookup<Category.CategoryStatus> CATEGORY_STATUSES = EnumLookup.of(Category.CategoryStatus.class);
+    private static final RowMapper<Category> CATEGORY_MAPPER = RowMapper.of(CategoryDAO::categoryReader);
+    
+    // Categories change a few times a year and are read on every pricing call
+    private static final ReferenceDataCache<Integer, Category> CATEGORIES_BY_ID = ReferenceDataCache.create("Categories");
+    private static final ReferenceDataCache<String, List<Category>> CATEGORY_LISTS = ReferenceDataCache.create("Category lists");
+    
     /**
      * Get all active categories
      */
     public List<Category> getAllCategories() throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        for (Category category : CATEGORY_LISTS.get("active", this::queryAllCategories)) {
+            categories.add(copyOf(category));
+        }
+        return categories;
+    }
+    
+    private List<Category> queryAllCategories() throws SQLException {
         String sql = "SELECT * FROM categories WHERE status = 'ACTIVE' ORDER BY category_name";
         List<Category> categories = new ArrayList<>();
         
@@ -22,17 +41,22 @@ public class CategoryDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            RowMapper.RowReader<Category> reader = CATEGORY_MAPPER.bind(rs);
             while (rs.next()) {
-                categories.add(mapResultSetToCategory(rs));
+                categories.add(reader.read(rs));
             }
         }
-        return categories;
+        return Collections.unmodifiableList(categories);
     }
     
     /**
      * Get category by ID
      */
     public Category getCategoryById(int categoryId) throws SQLException {
+        return copyOf(CATEGORIES_BY_ID.get(categoryId, () -> queryCategoryById(categoryId)));
+    }
+    
+    private Category queryCategoryById(int categoryId) throws SQLException {
         String sql = "SELECT * FROM categories WHERE category_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -42,7 +66,7 @@ public class CategoryDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCategory(rs);
+                    return CATEGORY_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -62,7 +86,7 @@ public class CategoryDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCategory(rs);
+                    return CATEGORY_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -87,6 +111,7 @@ public class CategoryDAO {
             stmt.setString(6, category.getStatus().toString());
             
             int affectedRows = stmt.executeUpdate();
+            CATEGORY_LISTS.invalidateAll();
             
             if (affectedRows > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
@@ -118,27 +143,60 @@ public class CategoryDAO {
             stmt.setInt(7, category.getCategoryId());
             
             return stmt.executeUpdate() > 0;
+        } finally {
+            CATEGORIES_BY_ID.invalidate(category.getCategoryId());
+            CATEGORY_LISTS.invalidateAll();
         }
     }
     
     /**
-     * Helper method to map ResultSet to Category object
+     * Copy a cached category so callers can edit it without touching the cache
      */
-    private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
+    private static Category copyOf(Category cached) {
+        if (cached == null) {
+            return null;
+        }
         Category category = new Category();
-        category.setCategoryId(rs.getInt("category_id"));
-        category.setCategoryName(rs.getString("category_name"));
-        category.setDescription(rs.getString("description"));
-        category.setBasePriceFactor(rs.getBigDecimal("base_price_factor"));
-        category.setWeekendMultiplier(rs.getBigDecimal("weekend_multiplier"));
-        category.setDefaultLateFee(rs.getBigDecimal("default_late_fee"));
-        category.setStatus(Category.CategoryStatus.valueOf(rs.getString("status")));
+        category.setCategoryId(cached.getCategoryId());
+        category.setCategoryName(cached.getCategoryName());
+        category.setDescription(cached.getDescription());
+        category.setBasePriceFactor(cached.getBasePriceFactor());
+        category.setWeekendMultiplier(cached.getWeekendMultiplier());
+        category.setDefaultLateFee(cached.getDefaultLateFee());
+        category.setStatus(cached.getStatus());
+        category.setCreatedAt(cached.getCreatedAt());
+        return category;
+    }
+    
+    /**
+     * Resolve the Category columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<Category> categoryReader(RowMapper.Columns columns) throws SQLException {
+        int categoryIdColumn = columns.get("category_id");
+        int categoryNameColumn = columns.get("category_name");
+        int descriptionColumn = columns.get("description");
+        int basePriceFactorColumn = columns.get("base_price_factor");
+        int weekendMultiplierColumn = columns.get("weekend_multiplier");
+        int defaultLateFeeColumn = columns.get("default_late_fee");
+        int statusColumn = columns.get("status");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Category category = new Category();
+            category.setCategoryId(rs.getInt(categoryIdColumn));
+            category.setCategoryName(rs.getString(categoryNameColumn));
+            category.setDescription(rs.getString(descriptionColumn));
+            category.setBasePriceFactor(rs.getBigDecimal(basePriceFactorColumn));
+            category.setWeekendMultiplier(rs.getBigDecimal(weekendMultiplierColumn));
+            category.setDefaultLateFee(rs.getBigDecimal(defaultLateFeeColumn));
+            category.setStatus(CATEGORY_STATUSES.get(rs.getString(statusColumn)));
         
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            category.setCreatedAt(ts.toLocalDateTime());
-        }
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                category.setCreatedAt(ts.toLocalDateTime());
+            }
         
-        return category;
+            return category;
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.gearrentpro.dao;
+
+import com.gearrentpro.util.DatabaseConfig;
+
+import java.sql.*;
+
+/**
+ * Number blocks for the hi/lo code allocator, one row per sequence in code_sequences
+ */
+public class CodeSequenceDAO {
+
+    /**
+     * Reserve the next blockSize numbers of the sequence (created on first use, starting
+     * at 1) and return the first of them. Runs in its own transaction on its own pooled
+     * connection, even inside Transaction.inTransaction, so a booking that rolls back
+     * cannot return the block to the table while this process still hands it out.
+     */
+    public long reserveBlock(String sequenceName, int blockSize) throws SQLException {
+        String upsert = "INSERT INTO code_sequences (sequence_name, next_value) VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE next_value = next_value + ?";
+        String select = "SELECT next_value FROM code_sequences WHERE sequence_name = ?";
+
+        try (Connection conn = DatabaseConfig.getPool().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(upsert)) {
+                    stmt.setString(1, sequenceName);
+                    stmt.setLong(2, 1L + blockSize);
+                    stmt.setInt(3, blockSize);
+                    stmt.executeUpdate();
+                }
+
+                long end;
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setString(1, sequenceName);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Sequence " + sequenceName + " vanished while reserving a block");
+                        }
+                        end = rs.getLong(1);
+                    }
+                }
+                conn.commit();
+                return end - blockSize;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
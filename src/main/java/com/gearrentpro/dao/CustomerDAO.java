@@ -1,14 +1,39 @@
 package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.Customer;
+import com.gearrentpro.util.BatchResult;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.JdbcBatch;
+import com.gearrentpro.util.ReferenceDataCache;
+import com.gearrentpro.util.RowMapper;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CustomerDAO {
     
+    private static final EnumLookup<Customer.MembershipLevel> MEMBERSHIP_LEVELS = EnumLookup.of(Customer.MembershipLevel.class);
+    private static final EnumLookup<Customer.CustomerStatus> CUSTOMER_STATUSES = EnumLookup.of(Customer.CustomerStatus.class);
+    private static final RowMapper<Customer> CUSTOMER_MAPPER = RowMapper.of(CustomerDAO::customerReader);
+
+    // Deposit limit minus outstanding deposit; dropped whenever this DAO changes either
+    private static final ReferenceDataCache<Integer, BigDecimal> DEPOSIT_HEADROOM = new ReferenceDataCache<>("Deposit headroom",
+            DatabaseConfig.getIntProperty("cache.deposits.ttlSeconds", 30),
+            DatabaseConfig.getIntProperty("cache.deposits.maxEntries", 5000));
+    
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO customers (customer_code, customer_name, nic_passport, contact_number, " +
+            "email, address, membership_level, deposit_limit, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_CUSTOMER =
+            "UPDATE customers SET customer_code = ?, customer_name = ?, nic_passport = ?, " +
+            "contact_number = ?, email = ?, address = ?, membership_level = ?, " +
+            "deposit_limit = ?, status = ? WHERE customer_id = ?";
+    
     /**
      * Get all active customers
      */
@@ -20,8 +45,51 @@ public class CustomerDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
+            RowMapper.RowReader<Customer> reader = CUSTOMER_MAPPER.bind(rs);
             while (rs.next()) {
-                customers.add(mapResultSetToCustomer(rs));
+                customers.add(reader.read(rs));
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * Get one page of active customers ordered by (customer_name, customer_id)
+     * using keyset pagination. Pass the last customer of the previous page as
+     * after, or null for the first page. search optionally matches name, code or phone.
+     */
+    public List<Customer> getCustomersPage(String search, Customer after, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM customers WHERE status = 'ACTIVE' ");
+        List<Object> params = new ArrayList<>();
+        if (search != null && !search.trim().isEmpty()) {
+            String pattern = "%" + search.trim().toLowerCase() + "%";
+            sql.append("AND (LOWER(customer_name) LIKE ? OR LOWER(customer_code) LIKE ? OR contact_number LIKE ?) ");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+        if (after != null) {
+            sql.append("AND (customer_name > ? OR (customer_name = ? AND customer_id > ?)) ");
+            params.add(after.getCustomerName());
+            params.add(after.getCustomerName());
+            params.add(after.getCustomerId());
+        }
+        sql.append("ORDER BY customer_name, customer_id LIMIT ?");
+        params.add(limit);
+
+        List<Customer> customers = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Customer> reader = CUSTOMER_MAPPER.bind(rs);
+                while (rs.next()) {
+                    customers.add(reader.read(rs));
+                }
             }
         }
         return customers;
@@ -40,7 +108,7 @@ public class CustomerDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
+                    return CUSTOMER_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -60,7 +128,7 @@ public class CustomerDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
+                    return CUSTOMER_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -80,7 +148,7 @@ public class CustomerDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCustomer(rs);
+                    return CUSTOMER_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -91,22 +159,10 @@ public class CustomerDAO {
      * Create new customer
      */
     public int createCustomer(Customer customer) throws SQLException {
-        String sql = "INSERT INTO customers (customer_code, customer_name, nic_passport, contact_number, " +
-                     "email, address, membership_level, deposit_limit, status) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_CUSTOMER, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(1, customer.getCustomerCode());
-            stmt.setString(2, customer.getCustomerName());
-            stmt.setString(3, customer.getNicPassport());
-            stmt.setString(4, customer.getContactNumber());
-            stmt.setString(5, customer.getEmail());
-            stmt.setString(6, customer.getAddress());
-            stmt.setString(7, customer.getMembershipLevel().toString());
-            stmt.setBigDecimal(8, customer.getDepositLimit());
-            stmt.setString(9, customer.getStatus().toString());
+            setCustomerParameters(stmt, customer);
             
             int affectedRows = stmt.executeUpdate();
             
@@ -121,53 +177,159 @@ public class CustomerDAO {
         return -1;
     }
     
+    /**
+     * Insert many customers with batched statements. Row numbers in the result are
+     * list positions; see JdbcBatch for chunking and error handling.
+     */
+    public BatchResult createCustomerBatch(List<Customer> customers) throws SQLException {
+        return JdbcBatch.execute(INSERT_CUSTOMER, customers, CustomerDAO::setCustomerParameters,
+                "Customer was not inserted");
+    }
+    
     /**
      * Update customer
      */
     public boolean updateCustomer(Customer customer) throws SQLException {
-        String sql = "UPDATE customers SET customer_code = ?, customer_name = ?, nic_passport = ?, " +
-                     "contact_number = ?, email = ?, address = ?, membership_level = ?, " +
-                     "deposit_limit = ?, status = ? WHERE customer_id = ?";
-        
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_CUSTOMER)) {
             
-            stmt.setString(1, customer.getCustomerCode());
-            stmt.setString(2, customer.getCustomerName());
-            stmt.setString(3, customer.getNicPassport());
-            stmt.setString(4, customer.getContactNumber());
-            stmt.setString(5, customer.getEmail());
-            stmt.setString(6, customer.getAddress());
-            stmt.setString(7, customer.getMembershipLevel().toString());
-            stmt.setBigDecimal(8, customer.getDepositLimit());
-            stmt.setString(9, customer.getStatus().toString());
+            setCustomerParameters(stmt, customer);
             stmt.setInt(10, customer.getCustomerId());
             
+            boolean updated = stmt.executeUpdate() > 0;
+            DEPOSIT_HEADROOM.invalidate(customer.getCustomerId());
+            return updated;
+        }
+    }
+    
+    /**
+     * Update many customers with batched statements
+     */
+    public BatchResult updateCustomerBatch(List<Customer> customers) throws SQLException {
+        BatchResult result = JdbcBatch.execute(UPDATE_CUSTOMER, customers, (stmt, customer) -> {
+            setCustomerParameters(stmt, customer);
+            stmt.setInt(10, customer.getCustomerId());
+        }, "Customer not found");
+        DEPOSIT_HEADROOM.invalidateAll();
+        return result;
+    }
+
+    /**
+     * How much more deposit the customer may owe: deposit limit minus the deposits held
+     * for open rentals. Null when the customer has no limit or does not exist.
+     */
+    public BigDecimal getDepositHeadroom(int customerId) throws SQLException {
+        return DEPOSIT_HEADROOM.get(customerId, () -> {
+            String sql = "SELECT deposit_limit - outstanding_deposit FROM customers WHERE customer_id = ?";
+
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, customerId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getBigDecimal(1) : null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Add a deposit to the customer's outstanding total if it stays within the deposit
+     * limit; the check and the write are one statement, so concurrent rentals cannot
+     * both slip under the limit. Returns false if the limit would be exceeded.
+     * Call invalidateDepositHeadroom once the transaction has committed.
+     */
+    public boolean holdDeposit(int customerId, BigDecimal amount) throws SQLException {
+        String sql = "UPDATE customers SET outstanding_deposit = outstanding_deposit + ? " +
+                     "WHERE customer_id = ? AND (deposit_limit IS NULL OR outstanding_deposit + ? <= deposit_limit)";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBigDecimal(1, amount);
+            stmt.setInt(2, customerId);
+            stmt.setBigDecimal(3, amount);
+
             return stmt.executeUpdate() > 0;
         }
     }
+
+    /**
+     * Change the customer's outstanding deposit without a limit check (negative to release).
+     * Call invalidateDepositHeadroom once the transaction has committed.
+     */
+    public boolean adjustOutstandingDeposit(int customerId, BigDecimal delta) throws SQLException {
+        String sql = "UPDATE customers SET outstanding_deposit = outstanding_deposit + ? WHERE customer_id = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBigDecimal(1, delta);
+            stmt.setInt(2, customerId);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Drop the cached deposit headroom after a transaction that holds or releases
+     * deposits ends; dropping it earlier lets another thread cache the uncommitted value
+     */
+    public void invalidateDepositHeadroom(int customerId) {
+        DEPOSIT_HEADROOM.invalidate(customerId);
+    }
     
     /**
-     * Helper method to map ResultSet to Customer object
+     * Bind the nine columns shared by INSERT_CUSTOMER and UPDATE_CUSTOMER
      */
-    private Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
-        Customer customer = new Customer();
-        customer.setCustomerId(rs.getInt("customer_id"));
-        customer.setCustomerCode(rs.getString("customer_code"));
-        customer.setCustomerName(rs.getString("customer_name"));
-        customer.setNicPassport(rs.getString("nic_passport"));
-        customer.setContactNumber(rs.getString("contact_number"));
-        customer.setEmail(rs.getString("email"));
-        customer.setAddress(rs.getString("address"));
-        customer.setMembershipLevel(Customer.MembershipLevel.valueOf(rs.getString("membership_level")));
-        customer.setDepositLimit(rs.getBigDecimal("deposit_limit"));
-        customer.setStatus(Customer.CustomerStatus.valueOf(rs.getString("status")));
+    private static void setCustomerParameters(PreparedStatement stmt, Customer customer) throws SQLException {
+        stmt.setString(1, customer.getCustomerCode());
+        stmt.setString(2, customer.getCustomerName());
+        stmt.setString(3, customer.getNicPassport());
+        stmt.setString(4, customer.getContactNumber());
+        stmt.setString(5, customer.getEmail());
+        stmt.setString(6, customer.getAddress());
+        stmt.setString(7, customer.getMembershipLevel().toString());
+        stmt.setBigDecimal(8, customer.getDepositLimit());
+        stmt.setString(9, customer.getStatus().toString());
+    }
+    
+    /**
+     * Resolve the Customer columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<Customer> customerReader(RowMapper.Columns columns) throws SQLException {
+        int customerIdColumn = columns.get("customer_id");
+        int customerCodeColumn = columns.get("customer_code");
+        int customerNameColumn = columns.get("customer_name");
+        int nicPassportColumn = columns.get("nic_passport");
+        int contactNumberColumn = columns.get("contact_number");
+        int emailColumn = columns.get("email");
+        int addressColumn = columns.get("address");
+        int membershipLevelColumn = columns.get("membership_level");
+        int depositLimitColumn = columns.get("deposit_limit");
+        int statusColumn = columns.get("status");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Customer customer = new Customer();
+            customer.setCustomerId(rs.getInt(customerIdColumn));
+            customer.setCustomerCode(rs.getString(customerCodeColumn));
+            customer.setCustomerName(rs.getString(customerNameColumn));
+            customer.setNicPassport(rs.getString(nicPassportColumn));
+            customer.setContactNumber(rs.getString(contactNumberColumn));
+            customer.setEmail(rs.getString(emailColumn));
+            customer.setAddress(rs.getString(addressColumn));
+            customer.setMembershipLevel(MEMBERSHIP_LEVELS.get(rs.getString(membershipLevelColumn)));
+            customer.setDepositLimit(rs.getBigDecimal(depositLimitColumn));
+            customer.setStatus(CUSTOMER_STATUSES.get(rs.getString(statusColumn)));
         
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            customer.setCreatedAt(ts.toLocalDateTime());
-        }
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                customer.setCreatedAt(ts.toLocalDateTime());
+            }
         
-        return customer;
+            return customer;
+        };
     }
 }
\ No newline at end of file
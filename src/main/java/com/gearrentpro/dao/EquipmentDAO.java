@@ -1,29 +1,65 @@
 package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.Equipment;
+import com.gearrentpro.util.BatchResult;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.JdbcBatch;
+import com.gearrentpro.util.ReferenceDataCache;
+import com.gearrentpro.util.RowMapper;
+import com.gearrentpro.util.Transaction;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class EquipmentDAO {
     
+    private static final EnumLookup<Equipment.EquipmentStatus> EQUIPMENT_STATUSES = EnumLookup.of(Equipment.EquipmentStatus.class);
+    private static final RowMapper<Equipment> EQUIPMENT_MAPPER = RowMapper.of(EquipmentDAO::equipmentReader);
+    
+    private static final String SELECT_EQUIPMENT =
+            "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
+            "JOIN categories c ON e.category_id = c.category_id " +
+            "JOIN branches b ON e.branch_id = b.branch_id ";
+    
+    private static final String INSERT_EQUIPMENT =
+            "INSERT INTO equipment (equipment_code, category_id, brand, model, purchase_year, " +
+            "daily_base_price, security_deposit, status, branch_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_EQUIPMENT =
+            "UPDATE equipment SET equipment_code = ?, category_id = ?, brand = ?, model = ?, " +
+            "purchase_year = ?, daily_base_price = ?, security_deposit = ?, status = ?, " +
+            "branch_id = ?, version = version + 1 WHERE equipment_id = ? AND version = ?";
+    
+    /** Largest IN list sent in one query by getEquipmentByIds */
+    private static final int MAX_IDS_PER_QUERY = 500;
+    
+    // Shared by all DAO instances; entries are dropped whenever this DAO updates the row
+    private static final ReferenceDataCache<Integer, Equipment> EQUIPMENT_BY_ID = new ReferenceDataCache<>("Equipment",
+            DatabaseConfig.getIntProperty("cache.equipment.ttlSeconds", 60),
+            DatabaseConfig.getIntProperty("cache.equipment.maxEntries", 5000));
+    
     /**
      * Get all equipment
      */
     public List<Equipment> getAllEquipment() throws SQLException {
-        String sql = "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN branches b ON e.branch_id = b.branch_id ORDER BY e.equipment_code";
+        String sql = SELECT_EQUIPMENT + "ORDER BY e.equipment_code";
         List<Equipment> equipmentList = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
             while (rs.next()) {
-                equipmentList.add(mapResultSetToEquipment(rs));
+                equipmentList.add(reader.read(rs));
             }
         }
         return equipmentList;
@@ -33,9 +69,23 @@ public class EquipmentDAO {
      * Get equipment by ID
      */
     public Equipment getEquipmentById(int equipmentId) throws SQLException {
-        String sql = "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN branches b ON e.branch_id = b.branch_id WHERE e.equipment_id = ?";
+        return copyOf(EQUIPMENT_BY_ID.get(equipmentId, () -> queryEquipmentById(equipmentId)));
+    }
+    
+    /**
+     * Get equipment for several IDs, keyed by ID in the given order. Cache misses
+     * are loaded together with IN queries; unknown IDs are left out.
+     */
+    public Map<Integer, Equipment> getEquipmentByIds(Collection<Integer> equipmentIds) throws SQLException {
+        Map<Integer, Equipment> equipmentById = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Equipment> entry : EQUIPMENT_BY_ID.getAll(equipmentIds, this::queryEquipmentByIds).entrySet()) {
+            equipmentById.put(entry.getKey(), copyOf(entry.getValue()));
+        }
+        return equipmentById;
+    }
+    
+    private Equipment queryEquipmentById(int equipmentId) throws SQLException {
+        String sql = SELECT_EQUIPMENT + "WHERE e.equipment_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -44,7 +94,7 @@ public class EquipmentDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToEquipment(rs);
+                    return EQUIPMENT_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -55,10 +105,7 @@ public class EquipmentDAO {
      * Get equipment by branch ID
      */
     public List<Equipment> getEquipmentByBranch(int branchId) throws SQLException {
-        String sql = "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN branches b ON e.branch_id = b.branch_id " +
-                     "WHERE e.branch_id = ? ORDER BY e.equipment_code";
+        String sql = SELECT_EQUIPMENT + "WHERE e.branch_id = ? ORDER BY e.equipment_code";
         List<Equipment> equipmentList = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -67,8 +114,9 @@ public class EquipmentDAO {
             stmt.setInt(1, branchId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
                 while (rs.next()) {
-                    equipmentList.add(mapResultSetToEquipment(rs));
+                    equipmentList.add(reader.read(rs));
                 }
             }
         }
@@ -79,10 +127,7 @@ public class EquipmentDAO {
      * Get equipment by category and branch
      */
     public List<Equipment> getEquipmentByBranchAndCategory(int branchId, int categoryId) throws SQLException {
-        String sql = "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN branches b ON e.branch_id = b.branch_id " +
-                     "WHERE e.branch_id = ? AND e.category_id = ? ORDER BY e.equipment_code";
+        String sql = SELECT_EQUIPMENT + "WHERE e.branch_id = ? AND e.category_id = ? ORDER BY e.equipment_code";
         List<Equipment> equipmentList = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
@@ -92,8 +137,9 @@ public class EquipmentDAO {
             stmt.setInt(2, categoryId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
                 while (rs.next()) {
-                    equipmentList.add(mapResultSetToEquipment(rs));
+                    equipmentList.add(reader.read(rs));
                 }
             }
         }
@@ -104,10 +150,7 @@ public class EquipmentDAO {
      * Get available equipment by branch and category
      */
     public List<Equipment> getAvailableEquipment(int branchId, int categoryId) throws SQLException {
-        String sql = "SELECT e.*, c.category_name, b.branch_name FROM equipment e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN branches b ON e.branch_id = b.branch_id " +
-                     "WHERE e.branch_id = ? AND e.category_id = ? AND e.status = 'AVAILABLE' " +
+        String sql = SELECT_EQUIPMENT + "WHERE e.branch_id = ? AND e.category_id = ? AND e.status = 'AVAILABLE' " +
                      "ORDER BY e.equipment_code";
         List<Equipment> equipmentList = new ArrayList<>();
         
@@ -118,89 +161,165 @@ public class EquipmentDAO {
             stmt.setInt(2, categoryId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
                 while (rs.next()) {
-                    equipmentList.add(mapResultSetToEquipment(rs));
+                    equipmentList.add(reader.read(rs));
                 }
             }
         }
         return equipmentList;
     }
 
-    public boolean isEquipmentAvailable(int equipmentId, java.time.LocalDate startDate, java.time.LocalDate endDate) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM rentals WHERE equipment_id = ? AND rental_status = 'ACTIVE' AND " +
-                     "((start_date <= ? AND end_date >= ?) OR " +
-                     "(start_date <= ? AND end_date >= ?) OR " +
-                     "(start_date >= ? AND end_date <= ?))";
+    /**
+     * Get one page of equipment ordered by equipment code using keyset pagination.
+     * Pass the last item of the previous page as after, or null for the first page.
+     * branchId, status and search (code, brand or model) are optional filters.
+     */
+    public List<Equipment> getEquipmentPage(Integer branchId, Equipment.EquipmentStatus status, String search,
+                                            Equipment after, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_EQUIPMENT);
+        List<Object> params = new ArrayList<>();
+        appendEquipmentFilters(sql, params, branchId, status, search);
+        if (after != null) {
+            sql.append("AND e.equipment_code > ? ");
+            params.add(after.getEquipmentCode());
+        }
+        sql.append("ORDER BY e.equipment_code LIMIT ?");
+        params.add(limit);
+        return queryEquipment(sql.toString(), params);
+    }
+
+    /**
+     * Get equipment by position in the getEquipmentPage order
+     */
+    public List<Equipment> getEquipmentAt(Integer branchId, Equipment.EquipmentStatus status, String search,
+                                          int offset, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_EQUIPMENT);
+        List<Object> params = new ArrayList<>();
+        appendEquipmentFilters(sql, params, branchId, status, search);
+        sql.append("ORDER BY e.equipment_code LIMIT ? OFFSET ?");
+        params.add(limit);
+        params.add(offset);
+        return queryEquipment(sql.toString(), params);
+    }
+
+    /**
+     * Count equipment matching the getEquipmentPage filters
+     */
+    public int countEquipment(Integer branchId, Equipment.EquipmentStatus status, String search) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM equipment e ");
+        List<Object> params = new ArrayList<>();
+        appendEquipmentFilters(sql, params, branchId, status, search);
 
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void appendEquipmentFilters(StringBuilder sql, List<Object> params, Integer branchId,
+                                        Equipment.EquipmentStatus status, String search) {
+        sql.append("WHERE 1 = 1 ");
+        if (branchId != null) {
+            sql.append("AND e.branch_id = ? ");
+            params.add(branchId);
+        }
+        if (status != null) {
+            sql.append("AND e.status = ? ");
+            params.add(status.name());
+        }
+        if (search != null && !search.trim().isEmpty()) {
+            String pattern = "%" + search.trim().toLowerCase() + "%";
+            sql.append("AND (LOWER(e.equipment_code) LIKE ? OR LOWER(e.brand) LIKE ? OR LOWER(e.model) LIKE ?) ");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+    }
+
+    private Map<Integer, Equipment> queryEquipmentByIds(Collection<Integer> equipmentIds) throws SQLException {
+        Map<Integer, Equipment> equipmentById = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(equipmentIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Object> params = new ArrayList<>(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())));
+            String sql = SELECT_EQUIPMENT + "WHERE e.equipment_id IN (" +
+                         String.join(", ", Collections.nCopies(params.size(), "?")) + ")";
+            for (Equipment equipment : queryEquipment(sql, params)) {
+                equipmentById.put(equipment.getEquipmentId(), equipment);
+            }
+        }
+        return equipmentById;
+    }
+
+    private List<Equipment> queryEquipment(String sql, List<Object> params) throws SQLException {
+        List<Equipment> equipmentList = new ArrayList<>();
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, equipmentId);
-            stmt.setDate(2, java.sql.Date.valueOf(endDate));
-            stmt.setDate(3, java.sql.Date.valueOf(startDate));
-            stmt.setDate(4, java.sql.Date.valueOf(endDate));
-            stmt.setDate(5, java.sql.Date.valueOf(startDate));
-            stmt.setDate(6, java.sql.Date.valueOf(startDate));
-            stmt.setDate(7, java.sql.Date.valueOf(endDate));
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    if (rs.getInt(1) > 0) {
-                        return false; // The equipment is rented
-                    }
+                RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
+                while (rs.next()) {
+                    equipmentList.add(reader.read(rs));
                 }
             }
         }
+        return equipmentList;
+    }
 
-        // Now check reservations
-        String reservationSql = "SELECT COUNT(*) FROM reservations WHERE equipment_id = ? AND status = 'CONFIRMED' AND " +
-                                "((start_date <= ? AND end_date >= ?) OR " +
-                                "(start_date <= ? AND end_date >= ?) OR " +
-                                "(start_date >= ? AND end_date <= ?))";
+    /**
+     * Get equipment in a branch/category with no blocking rental or reservation
+     * overlapping the date range, resolved in a single anti-join query
+     */
+    public List<Equipment> findAvailable(int branchId, int categoryId,
+                                         java.time.LocalDate startDate, java.time.LocalDate endDate) throws SQLException {
+        String sql = SELECT_EQUIPMENT + "WHERE e.branch_id = ? AND e.category_id = ? " +
+                     "AND e.status <> 'UNDER_MAINTENANCE' " +
+                     "AND NOT EXISTS (SELECT 1 FROM rentals r WHERE r.equipment_id = e.equipment_id " +
+                     "AND r.rental_status IN ('ACTIVE', 'OVERDUE') AND r.start_date <= ? AND r.end_date >= ?) " +
+                     "AND NOT EXISTS (SELECT 1 FROM reservations rs WHERE rs.equipment_id = e.equipment_id " +
+                     "AND rs.status IN ('PENDING', 'CONFIRMED') AND rs.start_date <= ? AND rs.end_date >= ?) " +
+                     "ORDER BY e.equipment_code";
+        List<Equipment> equipmentList = new ArrayList<>();
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(reservationSql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, equipmentId);
-            stmt.setDate(2, java.sql.Date.valueOf(endDate));
-            stmt.setDate(3, java.sql.Date.valueOf(startDate));
-            stmt.setDate(4, java.sql.Date.valueOf(endDate));
-            stmt.setDate(5, java.sql.Date.valueOf(startDate));
+            stmt.setInt(1, branchId);
+            stmt.setInt(2, categoryId);
+            stmt.setDate(3, java.sql.Date.valueOf(endDate));
+            stmt.setDate(4, java.sql.Date.valueOf(startDate));
+            stmt.setDate(5, java.sql.Date.valueOf(endDate));
             stmt.setDate(6, java.sql.Date.valueOf(startDate));
-            stmt.setDate(7, java.sql.Date.valueOf(endDate));
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    if (rs.getInt(1) > 0) {
-                        return false; // The equipment is reserved
-                    }
+                RowMapper.RowReader<Equipment> reader = EQUIPMENT_MAPPER.bind(rs);
+                while (rs.next()) {
+                    equipmentList.add(reader.read(rs));
                 }
             }
         }
-
-        return true; // The equipment is available
+        return equipmentList;
     }
     
     /**
      * Create new equipment
      */
     public int createEquipment(Equipment equipment) throws SQLException {
-        String sql = "INSERT INTO equipment (equipment_code, category_id, brand, model, purchase_year, " +
-                     "daily_base_price, security_deposit, status, branch_id) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_EQUIPMENT, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(1, equipment.getEquipmentCode());
-            stmt.setInt(2, equipment.getCategoryId());
-            stmt.setString(3, equipment.getBrand());
-            stmt.setString(4, equipment.getModel());
-            stmt.setInt(5, equipment.getPurchaseYear());
-            stmt.setBigDecimal(6, equipment.getDailyBasePrice());
-            stmt.setBigDecimal(7, equipment.getSecurityDeposit());
-            stmt.setString(8, equipment.getStatus().toString());
-            stmt.setInt(9, equipment.getBranchId());
+            setInsertParameters(stmt, equipment);
             
             int affectedRows = stmt.executeUpdate();
             
@@ -216,36 +335,82 @@ public class EquipmentDAO {
     }
     
     /**
-     * Update equipment
+     * Insert many equipment rows with batched statements. Row numbers in the result
+     * are list positions; see JdbcBatch for chunking and error handling.
+     */
+    public BatchResult createEquipmentBatch(List<Equipment> equipmentList) throws SQLException {
+        return JdbcBatch.execute(INSERT_EQUIPMENT, equipmentList, EquipmentDAO::setInsertParameters,
+                "Equipment was not inserted");
+    }
+    
+    /**
+     * Update equipment. Returns false when the row is missing or was changed since
+     * the given equipment was read (its version is stale).
      */
     public boolean updateEquipment(Equipment equipment) throws SQLException {
-        String sql = "UPDATE equipment SET equipment_code = ?, category_id = ?, brand = ?, model = ?, " +
-                     "purchase_year = ?, daily_base_price = ?, security_deposit = ?, status = ?, " +
-                     "branch_id = ? WHERE equipment_id = ?";
-        
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_EQUIPMENT)) {
             
-            stmt.setString(1, equipment.getEquipmentCode());
-            stmt.setInt(2, equipment.getCategoryId());
-            stmt.setString(3, equipment.getBrand());
-            stmt.setString(4, equipment.getModel());
-            stmt.setInt(5, equipment.getPurchaseYear());
-            stmt.setBigDecimal(6, equipment.getDailyBasePrice());
-            stmt.setBigDecimal(7, equipment.getSecurityDeposit());
-            stmt.setString(8, equipment.getStatus().toString());
-            stmt.setInt(9, equipment.getBranchId());
-            stmt.setInt(10, equipment.getEquipmentId());
+            setUpdateParameters(stmt, equipment);
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            equipment.setVersion(equipment.getVersion() + 1);
+            return true;
+        } finally {
+            // Also evicts a stale entry after a version conflict
+            EQUIPMENT_BY_ID.invalidate(equipment.getEquipmentId());
+        }
+    }
+    
+    /**
+     * Update many equipment rows with batched statements, with the same version check
+     * as updateEquipment. Versions of the passed objects are not advanced, so reload
+     * them before editing again.
+     */
+    public BatchResult updateEquipmentBatch(List<Equipment> equipmentList) throws SQLException {
+        try {
+            return JdbcBatch.execute(UPDATE_EQUIPMENT, equipmentList, EquipmentDAO::setUpdateParameters,
+                    "Equipment not found or changed by someone else");
+        } finally {
+            for (Equipment equipment : equipmentList) {
+                EQUIPMENT_BY_ID.invalidate(equipment.getEquipmentId());
+            }
         }
     }
     
+    private static void setInsertParameters(PreparedStatement stmt, Equipment equipment) throws SQLException {
+        stmt.setString(1, equipment.getEquipmentCode());
+        stmt.setInt(2, equipment.getCategoryId());
+        stmt.setString(3, equipment.getBrand());
+        stmt.setString(4, equipment.getModel());
+        stmt.setInt(5, equipment.getPurchaseYear());
+        stmt.setBigDecimal(6, equipment.getDailyBasePrice());
+        stmt.setBigDecimal(7, equipment.getSecurityDeposit());
+        stmt.setString(8, equipment.getStatus().toString());
+        stmt.setInt(9, equipment.getBranchId());
+    }
+    
+    private static void setUpdateParameters(PreparedStatement stmt, Equipment equipment) throws SQLException {
+        stmt.setString(1, equipment.getEquipmentCode());
+        stmt.setInt(2, equipment.getCategoryId());
+        stmt.setString(3, equipment.getBrand());
+        stmt.setString(4, equipment.getModel());
+        stmt.setInt(5, equipment.getPurchaseYear());
+        stmt.setBigDecimal(6, equipment.getDailyBasePrice());
+        stmt.setBigDecimal(7, equipment.getSecurityDeposit());
+        stmt.setString(8, equipment.getStatus().toString());
+        stmt.setInt(9, equipment.getBranchId());
+        stmt.setInt(10, equipment.getEquipmentId());
+        stmt.setInt(11, equipment.getVersion());
+    }
+    
     /**
      * Update equipment status
      */
     public boolean updateEquipmentStatus(int equipmentId, Equipment.EquipmentStatus status) throws SQLException {
-        String sql = "UPDATE equipment SET status = ? WHERE equipment_id = ?";
+        String sql = "UPDATE equipment SET status = ?, version = version + 1 WHERE equipment_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -254,32 +419,92 @@ public class EquipmentDAO {
             stmt.setInt(2, equipmentId);
             
             return stmt.executeUpdate() > 0;
+        } finally {
+            EQUIPMENT_BY_ID.invalidate(equipmentId);
         }
     }
     
     /**
-     * Helper method to map ResultSet to Equipment object
+     * Lock the equipment row until the current transaction ends, serialising bookings
+     * of this item across counters. Returns false if the equipment does not exist.
      */
-    private Equipment mapResultSetToEquipment(ResultSet rs) throws SQLException {
-        Equipment equipment = new Equipment();
-        equipment.setEquipmentId(rs.getInt("equipment_id"));
-        equipment.setEquipmentCode(rs.getString("equipment_code"));
-        equipment.setCategoryId(rs.getInt("category_id"));
-        equipment.setCategoryName(rs.getString("category_name"));
-        equipment.setBrand(rs.getString("brand"));
-        equipment.setModel(rs.getString("model"));
-        equipment.setPurchaseYear(rs.getInt("purchase_year"));
-        equipment.setDailyBasePrice(rs.getBigDecimal("daily_base_price"));
-        equipment.setSecurityDeposit(rs.getBigDecimal("security_deposit"));
-        equipment.setStatus(Equipment.EquipmentStatus.valueOf(rs.getString("status")));
-        equipment.setBranchId(rs.getInt("branch_id"));
-        equipment.setBranchName(rs.getString("branch_name"));
-        
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            equipment.setCreatedAt(ts.toLocalDateTime());
+    public boolean lockEquipment(int equipmentId) throws SQLException {
+        if (!Transaction.isActive()) {
+            throw new IllegalStateException("lockEquipment must be called inside Transaction.inTransaction");
         }
+        String sql = "SELECT equipment_id FROM equipment WHERE equipment_id = ? FOR UPDATE";
         
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, equipmentId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Copy cached equipment so callers can edit it without touching the cache
+     */
+    private static Equipment copyOf(Equipment cached) {
+        if (cached == null) {
+            return null;
+        }
+        Equipment equipment = new Equipment(cached.getEquipmentCode(), cached.getCategoryId(), cached.getBrand(),
+                                            cached.getModel(), cached.getPurchaseYear(), cached.getDailyBasePrice(),
+                                            cached.getSecurityDeposit(), cached.getBranchId());
+        equipment.setEquipmentId(cached.getEquipmentId());
+        equipment.setCategoryName(cached.getCategoryName());
+        equipment.setStatus(cached.getStatus());
+        equipment.setBranchName(cached.getBranchName());
+        equipment.setCreatedAt(cached.getCreatedAt());
+        equipment.setVersion(cached.getVersion());
         return equipment;
     }
+    
+    /**
+     * Resolve the Equipment columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<Equipment> equipmentReader(RowMapper.Columns columns) throws SQLException {
+        int equipmentIdColumn = columns.get("equipment_id");
+        int equipmentCodeColumn = columns.get("equipment_code");
+        int categoryIdColumn = columns.get("category_id");
+        int categoryNameColumn = columns.get("category_name");
+        int brandColumn = columns.get("brand");
+        int modelColumn = columns.get("model");
+        int purchaseYearColumn = columns.get("purchase_year");
+        int dailyBasePriceColumn = columns.get("daily_base_price");
+        int securityDepositColumn = columns.get("security_deposit");
+        int statusColumn = columns.get("status");
+        int branchIdColumn = columns.get("branch_id");
+        int branchNameColumn = columns.get("branch_name");
+        int versionColumn = columns.get("version");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Equipment equipment = new Equipment();
+            equipment.setEquipmentId(rs.getInt(equipmentIdColumn));
+            equipment.setEquipmentCode(rs.getString(equipmentCodeColumn));
+            equipment.setCategoryId(rs.getInt(categoryIdColumn));
+            equipment.setCategoryName(rs.getString(categoryNameColumn));
+            equipment.setBrand(rs.getString(brandColumn));
+            equipment.setModel(rs.getString(modelColumn));
+            equipment.setPurchaseYear(rs.getInt(purchaseYearColumn));
+            equipment.setDailyBasePrice(rs.getBigDecimal(dailyBasePriceColumn));
+            equipment.setSecurityDeposit(rs.getBigDecimal(securityDepositColumn));
+            equipment.setStatus(EQUIPMENT_STATUSES.get(rs.getString(statusColumn)));
+            equipment.setBranchId(rs.getInt(branchIdColumn));
+            equipment.setBranchName(rs.getString(branchNameColumn));
+            equipment.setVersion(rs.getInt(versionColumn));
+        
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                equipment.setCreatedAt(ts.toLocalDateTime());
+            }
+        
+            return equipment;
+        };
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.gearrentpro.dao;
 
+import com.gearrentpro.entity.BookingRange;
 import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.RentalListRow;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.RowMapper;
+import com.gearrentpro.util.StreamingQuery;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -10,25 +16,41 @@ import java.util.List;
 
 public class RentalDAO {
     
+    private static final EnumLookup<Rental.PaymentStatus> PAYMENT_STATUSES = EnumLookup.of(Rental.PaymentStatus.class);
+    private static final EnumLookup<Rental.RentalStatus> RENTAL_STATUSES = EnumLookup.of(Rental.RentalStatus.class);
+    private static final RowMapper<Rental> RENTAL_MAPPER = RowMapper.of(RentalDAO::rentalReader);
+    private static final RowMapper<BookingRange> RENTAL_RANGE_MAPPER = RowMapper.of(RentalDAO::rentalRangeReader);
+    private static final RowMapper<RentalListRow> RENTAL_LIST_ROW_MAPPER = RowMapper.of(RentalDAO::rentalListRowReader);
+    
+    private static final String SELECT_RENTAL =
+            "SELECT r.*, e.equipment_code, CONCAT_WS(' ', e.brand, e.model) AS equipment_details, " +
+            "c.category_name, cus.customer_name, b.branch_name FROM rentals r " +
+            "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+            "JOIN categories c ON e.category_id = c.category_id " +
+            "JOIN customers cus ON r.customer_id = cus.customer_id " +
+            "JOIN branches b ON r.branch_id = b.branch_id ";
+
+    // Only what the list screens show: no amounts, category or branch
+    private static final String SELECT_RENTAL_LIST_ROW =
+            "SELECT r.rental_id, r.rental_code, CONCAT_WS(' ', e.brand, e.model) AS equipment_details, " +
+            "cus.customer_name, r.start_date, r.end_date, r.rental_status FROM rentals r " +
+            "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+            "JOIN customers cus ON r.customer_id = cus.customer_id ";
+    
     /**
      * Get all active rentals
      */
     public List<Rental> getAllRentals() throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "ORDER BY r.start_date DESC";
+        String sql = SELECT_RENTAL + "ORDER BY r.start_date DESC";
         List<Rental> rentals = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper.RowReader<Rental> reader = RENTAL_MAPPER.bind(rs);
             while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
+                rentals.add(reader.read(rs));
             }
         }
         return rentals;
@@ -38,13 +60,7 @@ public class RentalDAO {
      * Get rentals by branch
      */
     public List<Rental> getRentalsByBranch(int branchId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.branch_id = ? ORDER BY r.start_date DESC";
+        String sql = SELECT_RENTAL + "WHERE r.branch_id = ? ORDER BY r.start_date DESC";
         List<Rental> rentals = new ArrayList<>();
 
         try (Connection conn = DatabaseConfig.getConnection();
@@ -53,25 +69,109 @@ public class RentalDAO {
             stmt.setInt(1, branchId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Rental> reader = RENTAL_MAPPER.bind(rs);
                 while (rs.next()) {
-                    rentals.add(mapResultSetToRental(rs));
+                    rentals.add(reader.read(rs));
                 }
             }
         }
         return rentals;
     }
+
+    /**
+     * Get one page of rental list rows, newest first, using keyset pagination on
+     * (start_date, rental_id). Pass the last row of the previous page as after,
+     * or null for the first page. branchId and status are optional filters.
+     */
+    public List<RentalListRow> getRentalsPage(Integer branchId, Rental.RentalStatus status,
+                                              RentalListRow after, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_RENTAL_LIST_ROW);
+        List<Object> params = new ArrayList<>();
+        appendRentalFilters(sql, params, branchId, status);
+        if (after != null) {
+            sql.append("AND (r.start_date < ? OR (r.start_date = ? AND r.rental_id < ?)) ");
+            params.add(Date.valueOf(after.getStartDate()));
+            params.add(Date.valueOf(after.getStartDate()));
+            params.add(after.getRentalId());
+        }
+        sql.append("ORDER BY r.start_date DESC, r.rental_id DESC LIMIT ?");
+        params.add(limit);
+        return queryRentalListRows(sql.toString(), params);
+    }
+
+    /**
+     * Get rental list rows by position in the getRentalsPage order, for jumping into
+     * the middle of a list without walking every page before it
+     */
+    public List<RentalListRow> getRentalsAt(Integer branchId, Rental.RentalStatus status,
+                                            int offset, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_RENTAL_LIST_ROW);
+        List<Object> params = new ArrayList<>();
+        appendRentalFilters(sql, params, branchId, status);
+        sql.append("ORDER BY r.start_date DESC, r.rental_id DESC LIMIT ? OFFSET ?");
+        params.add(limit);
+        params.add(offset);
+        return queryRentalListRows(sql.toString(), params);
+    }
+
+    /**
+     * Count rentals matching the getRentalsPage filters
+     */
+    public int countRentals(Integer branchId, Rental.RentalStatus status) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM rentals r ");
+        List<Object> params = new ArrayList<>();
+        appendRentalFilters(sql, params, branchId, status);
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void appendRentalFilters(StringBuilder sql, List<Object> params,
+                                     Integer branchId, Rental.RentalStatus status) {
+        sql.append("WHERE 1 = 1 ");
+        if (branchId != null) {
+            sql.append("AND r.branch_id = ? ");
+            params.add(branchId);
+        }
+        if (status != null) {
+            sql.append("AND r.rental_status = ? ");
+            params.add(status.name());
+        }
+    }
+
+    private List<RentalListRow> queryRentalListRows(String sql, List<Object> params) throws SQLException {
+        List<RentalListRow> rows = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<RentalListRow> reader = RENTAL_LIST_ROW_MAPPER.bind(rs);
+                while (rs.next()) {
+                    rows.add(reader.read(rs));
+                }
+            }
+        }
+        return rows;
+    }
     
     /**
      * Get rental by ID
      */
     public Rental getRentalById(int rentalId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.rental_id = ?";
+        String sql = SELECT_RENTAL + "WHERE r.rental_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -80,7 +180,7 @@ public class RentalDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToRental(rs);
+                    return RENTAL_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -88,13 +188,7 @@ public class RentalDAO {
     }
     
     public Rental getRentalByReservationId(int reservationId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.reservation_id = ?";
+        String sql = SELECT_RENTAL + "WHERE r.reservation_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -103,7 +197,7 @@ public class RentalDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToRental(rs);
+                    return RENTAL_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -111,16 +205,10 @@ public class RentalDAO {
     }
 
     /**
-     * Get active rentals by customer
+     * Get active and overdue rentals by customer (their deposits are still held)
      */
     public List<Rental> getActiveRentalsByCustomer(int customerId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.customer_id = ? AND r.rental_status = 'ACTIVE' " +
+        String sql = SELECT_RENTAL + "WHERE r.customer_id = ? AND r.rental_status IN ('ACTIVE', 'OVERDUE') " +
                      "ORDER BY r.start_date";
         List<Rental> rentals = new ArrayList<>();
         
@@ -130,8 +218,9 @@ public class RentalDAO {
             stmt.setInt(1, customerId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Rental> reader = RENTAL_MAPPER.bind(rs);
                 while (rs.next()) {
-                    rentals.add(mapResultSetToRental(rs));
+                    rentals.add(reader.read(rs));
                 }
             }
         }
@@ -139,30 +228,81 @@ public class RentalDAO {
     }
     
     /**
-     * Get overdue rentals
+     * Get overdue rentals, including ACTIVE ones past their end date that the overdue
+     * job has not flipped yet
      */
     public List<Rental> getOverdueRentals() throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.rental_status = 'ACTIVE' AND CURDATE() > r.end_date " +
+        String sql = SELECT_RENTAL + "WHERE r.rental_status IN ('ACTIVE', 'OVERDUE') AND CURDATE() > r.end_date " +
                      "ORDER BY r.end_date ASC";
         List<Rental> rentals = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper.RowReader<Rental> reader = RENTAL_MAPPER.bind(rs);
             while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
+                rentals.add(reader.read(rs));
             }
         }
         return rentals;
     }
     
+    /**
+     * Get ACTIVE and OVERDUE rentals as list rows, soonest due first, for the overdue
+     * job and the return screen
+     */
+    public List<RentalListRow> getOpenRentalRows() throws SQLException {
+        String sql = SELECT_RENTAL_LIST_ROW + "WHERE r.rental_status IN ('ACTIVE', 'OVERDUE') " +
+                     "ORDER BY r.end_date, r.rental_id";
+        return queryRentalListRows(sql, List.of());
+    }
+
+    /**
+     * Set every ACTIVE rental that ended before the given day to OVERDUE in one
+     * statement and return how many changed
+     */
+    public int markOverdue(LocalDate today) throws SQLException {
+        String sql = "UPDATE rentals SET rental_status = 'OVERDUE' WHERE rental_status = 'ACTIVE' AND end_date < ?";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(today));
+            return stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Stream the rentals counted in the revenue report (not cancelled, started in the
+     * date range, optionally one branch) with their return charges, oldest first. Columns:
+     * rental_code, branch_name, start_date, end_date, actual_return_date, customer_name,
+     * equipment_code, rental_status, payment_status, rental_amount, membership_discount,
+     * long_rental_discount, final_payable_amount, security_deposit, late_fee, damage_charge.
+     */
+    public long streamRevenueRows(Integer branchId, LocalDate fromDate, LocalDate toDate,
+                                  StreamingQuery.RowHandler handler) throws SQLException, IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.rental_code, b.branch_name, r.start_date, r.end_date, r.actual_return_date, " +
+                "cus.customer_name, e.equipment_code, r.rental_status, r.payment_status, r.rental_amount, " +
+                "r.membership_discount, r.long_rental_discount, r.final_payable_amount, r.security_deposit, " +
+                "rd.late_fee, rd.damage_charge FROM rentals r " +
+                "JOIN branches b ON r.branch_id = b.branch_id " +
+                "JOIN customers cus ON r.customer_id = cus.customer_id " +
+                "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+                "LEFT JOIN return_details rd ON rd.rental_id = r.rental_id " +
+                "WHERE r.start_date BETWEEN ? AND ? AND r.rental_status <> 'CANCELLED' ");
+        List<Object> params = new ArrayList<>();
+        params.add(java.sql.Date.valueOf(fromDate));
+        params.add(java.sql.Date.valueOf(toDate));
+        if (branchId != null) {
+            sql.append("AND r.branch_id = ? ");
+            params.add(branchId);
+        }
+        sql.append("ORDER BY r.start_date, r.rental_id");
+        return StreamingQuery.forEachRow(sql.toString(), params, handler);
+    }
+    
     /**
      * Check if equipment is rented in date range
      */
@@ -193,6 +333,29 @@ public class RentalDAO {
         return false;
     }
     
+    /**
+     * Get date ranges of rentals that block the equipment (ACTIVE or OVERDUE)
+     */
+    public List<BookingRange> getBlockingRentalRanges(int equipmentId) throws SQLException {
+        String sql = "SELECT rental_id, equipment_id, start_date, end_date FROM rentals " +
+                     "WHERE equipment_id = ? AND rental_status IN ('ACTIVE', 'OVERDUE')";
+        List<BookingRange> ranges = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, equipmentId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<BookingRange> reader = RENTAL_RANGE_MAPPER.bind(rs);
+                while (rs.next()) {
+                    ranges.add(reader.read(rs));
+                }
+            }
+        }
+        return ranges;
+    }
+    
     /**
      * Create new rental
      */
@@ -237,16 +400,20 @@ public class RentalDAO {
     }
     
     /**
-     * Update rental status
+     * Update rental status only if it is still the expected one. Call it through
+     * RentalService.updateRentalStatus, which also moves the held deposit and the
+     * revenue rollup in the same transaction.
      */
-    public boolean updateRentalStatus(int rentalId, Rental.RentalStatus status) throws SQLException {
-        String sql = "UPDATE rentals SET rental_status = ? WHERE rental_id = ?";
+    public boolean updateRentalStatus(int rentalId, Rental.RentalStatus expected,
+                                      Rental.RentalStatus status) throws SQLException {
+        String sql = "UPDATE rentals SET rental_status = ? WHERE rental_id = ? AND rental_status = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, status.toString());
             stmt.setInt(2, rentalId);
+            stmt.setString(3, expected.toString());
             
             return stmt.executeUpdate() > 0;
         }
@@ -279,11 +446,13 @@ public class RentalDAO {
     }
 
     /**
-     * Update rental with return information
+     * Update an open (ACTIVE or OVERDUE) rental with return information; false if the
+     * rental is missing or was already returned or cancelled
      */
     public boolean updateRentalReturn(int rentalId, LocalDate actualReturnDate, 
                                      Rental.RentalStatus status) throws SQLException {
-        String sql = "UPDATE rentals SET actual_return_date = ?, rental_status = ? WHERE rental_id = ?";
+        String sql = "UPDATE rentals SET actual_return_date = ?, rental_status = ? " +
+                     "WHERE rental_id = ? AND rental_status IN ('ACTIVE', 'OVERDUE')";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -297,47 +466,116 @@ public class RentalDAO {
     }
     
     /**
-     * Helper method to map ResultSet to Rental object
+     * Reader for the booking range queries (rental_id, equipment_id, start_date, end_date)
      */
-    private Rental mapResultSetToRental(ResultSet rs) throws SQLException {
-        Rental rental = new Rental();
-        rental.setRentalId(rs.getInt("rental_id"));
-        rental.setRentalCode(rs.getString("rental_code"));
-        rental.setEquipmentId(rs.getInt("equipment_id"));
-        rental.setCustomerId(rs.getInt("customer_id"));
-        rental.setBranchId(rs.getInt("branch_id"));
-        rental.setReservationId((Integer) rs.getObject("reservation_id"));
-        rental.setStartDate(rs.getDate("start_date").toLocalDate());
-        rental.setEndDate(rs.getDate("end_date").toLocalDate());
+    private static RowMapper.RowReader<BookingRange> rentalRangeReader(RowMapper.Columns columns) throws SQLException {
+        int rentalIdColumn = columns.get("rental_id");
+        int equipmentIdColumn = columns.get("equipment_id");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+
+        return rs -> new BookingRange(BookingRange.BookingType.RENTAL, rs.getInt(rentalIdColumn),
+                rs.getInt(equipmentIdColumn), rs.getDate(startDateColumn).toLocalDate(),
+                rs.getDate(endDateColumn).toLocalDate());
+    }
+    
+    /**
+     * Resolve the Rental columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<Rental> rentalReader(RowMapper.Columns columns) throws SQLException {
+        int rentalIdColumn = columns.get("rental_id");
+        int rentalCodeColumn = columns.get("rental_code");
+        int equipmentIdColumn = columns.get("equipment_id");
+        int customerIdColumn = columns.get("customer_id");
+        int branchIdColumn = columns.get("branch_id");
+        int reservationIdColumn = columns.get("reservation_id");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+        int actualReturnDateColumn = columns.get("actual_return_date");
+        int dailyRateColumn = columns.get("daily_rate");
+        int rentalAmountColumn = columns.get("rental_amount");
+        int securityDepositColumn = columns.get("security_deposit");
+        int membershipDiscountColumn = columns.get("membership_discount");
+        int longRentalDiscountColumn = columns.get("long_rental_discount");
+        int finalPayableAmountColumn = columns.get("final_payable_amount");
+        int paymentStatusColumn = columns.get("payment_status");
+        int rentalStatusColumn = columns.get("rental_status");
+        int equipmentDetailsColumn = columns.get("equipment_details");
+        int customerNameColumn = columns.get("customer_name");
+        int branchNameColumn = columns.get("branch_name");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Rental rental = new Rental();
+            rental.setRentalId(rs.getInt(rentalIdColumn));
+            rental.setRentalCode(rs.getString(rentalCodeColumn));
+            rental.setEquipmentId(rs.getInt(equipmentIdColumn));
+            rental.setCustomerId(rs.getInt(customerIdColumn));
+            rental.setBranchId(rs.getInt(branchIdColumn));
+            rental.setReservationId((Integer) rs.getObject(reservationIdColumn));
+            rental.setStartDate(rs.getDate(startDateColumn).toLocalDate());
+            rental.setEndDate(rs.getDate(endDateColumn).toLocalDate());
         
-        Date actualReturn = rs.getDate("actual_return_date");
-        if (actualReturn != null) {
-            rental.setActualReturnDate(actualReturn.toLocalDate());
-        }
+            Date actualReturn = rs.getDate(actualReturnDateColumn);
+            if (actualReturn != null) {
+                rental.setActualReturnDate(actualReturn.toLocalDate());
+            }
         
-        rental.setDailyRate(rs.getBigDecimal("daily_rate"));
-        rental.setRentalAmount(rs.getBigDecimal("rental_amount"));
-        rental.setSecurityDeposit(rs.getBigDecimal("security_deposit"));
-        rental.setMembershipDiscount(rs.getBigDecimal("membership_discount"));
-        rental.setLongRentalDiscount(rs.getBigDecimal("long_rental_discount"));
-        rental.setFinalPayableAmount(rs.getBigDecimal("final_payable_amount"));
-        rental.setPaymentStatus(Rental.PaymentStatus.valueOf(rs.getString("payment_status")));
-        rental.setRentalStatus(Rental.RentalStatus.valueOf(rs.getString("rental_status")));
+            rental.setDailyRate(rs.getBigDecimal(dailyRateColumn));
+            rental.setRentalAmount(rs.getBigDecimal(rentalAmountColumn));
+            rental.setSecurityDeposit(rs.getBigDecimal(securityDepositColumn));
+            rental.setMembershipDiscount(rs.getBigDecimal(membershipDiscountColumn));
+            rental.setLongRentalDiscount(rs.getBigDecimal(longRentalDiscountColumn));
+            rental.setFinalPayableAmount(rs.getBigDecimal(finalPayableAmountColumn));
+            rental.setPaymentStatus(PAYMENT_STATUSES.get(rs.getString(paymentStatusColumn)));
+            rental.setRentalStatus(RENTAL_STATUSES.get(rs.getString(rentalStatusColumn)));
         
-        // Join fields
-        rental.setEquipmentDetails(rs.getString("brand") + " " + rs.getString("model"));
-        rental.setCustomerName(rs.getString("customer_name"));
-        rental.setBranchName(rs.getString("branch_name"));
+            // Join fields
+            rental.setEquipmentDetails(rs.getString(equipmentDetailsColumn));
+            rental.setCustomerName(rs.getString(customerNameColumn));
+            rental.setBranchName(rs.getString(branchNameColumn));
         
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            rental.setCreatedAt(ts.toLocalDateTime());
-        }
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                rental.setCreatedAt(ts.toLocalDateTime());
+            }
         
-        return rental;
+            return rental;
+        };
+    }
+
+    /**
+     * Resolve the list row columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<RentalListRow> rentalListRowReader(RowMapper.Columns columns) throws SQLException {
+        int rentalIdColumn = columns.get("rental_id");
+        int rentalCodeColumn = columns.get("rental_code");
+        int equipmentDetailsColumn = columns.get("equipment_details");
+        int customerNameColumn = columns.get("customer_name");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+        int rentalStatusColumn = columns.get("rental_status");
+
+        return rs -> {
+            RentalListRow row = new RentalListRow();
+            row.setRentalId(rs.getInt(rentalIdColumn));
+            row.setRentalCode(rs.getString(rentalCodeColumn));
+            row.setEquipmentDetails(rs.getString(equipmentDetailsColumn));
+            row.setCustomerName(rs.getString(customerNameColumn));
+            row.setStartDate(rs.getDate(startDateColumn).toLocalDate());
+            row.setEndDate(rs.getDate(endDateColumn).toLocalDate());
+            row.setRentalStatus(RENTAL_STATUSES.get(rs.getString(rentalStatusColumn)));
+            return row;
+        };
     }
 
-    public ResultSet getBranchRevenueReport(LocalDate startDate, LocalDate endDate) throws SQLException {
+    /**
+     * Stream branch totals for rentals overlapping the period, one row per branch; cancelled
+     * rentals are left out, as in the revenue rollup. Columns: branch_name, total_rentals,
+     * total_revenue, total_late_fees, total_damage_charges.
+     */
+    public long streamBranchRevenueReport(LocalDate startDate, LocalDate endDate,
+                                          StreamingQuery.RowHandler handler) throws SQLException, IOException {
         String sql = "SELECT b.branch_name, " +
                      "COUNT(r.rental_id) as total_rentals, " +
                      "SUM(r.final_payable_amount) as total_revenue, " +
@@ -346,34 +584,31 @@ public class RentalDAO {
                      "FROM rentals r " +
                      "JOIN branches b ON r.branch_id = b.branch_id " +
                      "LEFT JOIN return_details rd ON r.rental_id = rd.rental_id " +
-                     "WHERE r.start_date <= ? AND r.end_date >= ? " +
-                     "GROUP BY b.branch_name";
-
-        Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        stmt.setDate(1, java.sql.Date.valueOf(startDate));
-        stmt.setDate(2, java.sql.Date.valueOf(endDate));
-
-        return stmt.executeQuery();
+                     "WHERE r.start_date <= ? AND r.end_date >= ? AND r.rental_status <> 'CANCELLED' " +
+                     "GROUP BY b.branch_id, b.branch_name";
+        
+        return StreamingQuery.forEachRow(sql,
+                List.of(java.sql.Date.valueOf(endDate), java.sql.Date.valueOf(startDate)), handler);
     }
-
-    public ResultSet getEquipmentUtilizationReport(int branchId, LocalDate startDate, LocalDate endDate) throws SQLException {
-        String sql = "SELECT e.equipment_code, e.brand, e.model, " +
-                     "SUM(DATEDIFF(r.end_date, r.start_date)) as days_rented, " +
-                     "DATEDIFF(?, ?) as total_days_in_period " +
-                     "FROM rentals r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "WHERE r.branch_id = ? AND r.start_date <= ? AND r.end_date >= ? " +
-                     "GROUP BY e.equipment_id";
-
-        Connection conn = DatabaseConfig.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        stmt.setDate(1, java.sql.Date.valueOf(endDate));
-        stmt.setDate(2, java.sql.Date.valueOf(startDate));
-        stmt.setInt(3, branchId);
-        stmt.setDate(4, java.sql.Date.valueOf(startDate));
-        stmt.setDate(5, java.sql.Date.valueOf(endDate));
-
-        return stmt.executeQuery();
+    
+    /**
+     * Stream rented days per equipment item of a branch, counting the non-cancelled rentals
+     * that overlap the period; items with no such rental have 0 days. Columns:
+     * equipment_code, category_name, days_rented, ordered by equipment code.
+     */
+    public long streamEquipmentUtilizationReport(int branchId, LocalDate startDate, LocalDate endDate,
+                                                 StreamingQuery.RowHandler handler) throws SQLException, IOException {
+        String sql = "SELECT e.equipment_code, c.category_name, " +
+                     "COALESCE(SUM(TIMESTAMPDIFF(DAY, r.start_date, r.end_date)), 0) as days_rented " +
+                     "FROM equipment e " +
+                     "JOIN categories c ON e.category_id = c.category_id " +
+                     "LEFT JOIN rentals r ON r.equipment_id = e.equipment_id " +
+                     "AND r.start_date <= ? AND r.end_date >= ? AND r.rental_status <> 'CANCELLED' " +
+                     "WHERE e.branch_id = ? " +
+                     "GROUP BY e.equipment_id, e.equipment_code, c.category_name " +
+                     "ORDER BY e.equipment_code";
+        
+        return StreamingQuery.forEachRow(sql,
+                List.of(java.sql.Date.valueOf(endDate), java.sql.Date.valueOf(startDate), branchId), handler);
     }
-}
\ No newline at end of file
+}
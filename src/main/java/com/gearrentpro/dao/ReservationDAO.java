@@ -1,7 +1,11 @@
 package com.gearrentpro.dao;
 
+import com.gearrentpro.entity.BookingRange;
 import com.gearrentpro.entity.Reservation;
+import com.gearrentpro.entity.ReservationListRow;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.RowMapper;
 
 import java.sql.*;
 import java.time.LocalDate;
@@ -10,25 +14,40 @@ import java.util.List;
 
 public class ReservationDAO {
     
+    private static final EnumLookup<Reservation.ReservationStatus> RESERVATION_STATUSES = EnumLookup.of(Reservation.ReservationStatus.class);
+    private static final RowMapper<Reservation> RESERVATION_MAPPER = RowMapper.of(ReservationDAO::reservationReader);
+    private static final RowMapper<BookingRange> RESERVATION_RANGE_MAPPER = RowMapper.of(ReservationDAO::reservationRangeReader);
+    private static final RowMapper<ReservationListRow> RESERVATION_LIST_ROW_MAPPER = RowMapper.of(ReservationDAO::reservationListRowReader);
+    
+    private static final String SELECT_RESERVATION =
+            "SELECT r.*, e.equipment_code, CONCAT_WS(' ', e.brand, e.model) AS equipment_details, " +
+            "c.category_name, cus.customer_name, b.branch_name FROM reservations r " +
+            "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+            "JOIN categories c ON e.category_id = c.category_id " +
+            "JOIN customers cus ON r.customer_id = cus.customer_id " +
+            "JOIN branches b ON r.branch_id = b.branch_id ";
+
+    // Only what the reservation list shows and acts on: no category, branch or notes
+    private static final String SELECT_RESERVATION_LIST_ROW =
+            "SELECT r.reservation_id, r.reservation_code, CONCAT_WS(' ', e.brand, e.model) AS equipment_details, " +
+            "cus.customer_name, r.start_date, r.end_date, r.status FROM reservations r " +
+            "JOIN equipment e ON r.equipment_id = e.equipment_id " +
+            "JOIN customers cus ON r.customer_id = cus.customer_id ";
+    
     /**
      * Get all active reservations
      */
     public List<Reservation> getAllReservations() throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM reservations r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.status IN ('PENDING', 'CONFIRMED', 'CANCELLED') ORDER BY r.start_date";
+        String sql = SELECT_RESERVATION + "WHERE r.status IN ('PENDING', 'CONFIRMED', 'CANCELLED') ORDER BY r.start_date";
         List<Reservation> reservations = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
             
+            RowMapper.RowReader<Reservation> reader = RESERVATION_MAPPER.bind(rs);
             while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
+                reservations.add(reader.read(rs));
             }
         }
         return reservations;
@@ -38,13 +57,7 @@ public class ReservationDAO {
      * Get reservations by branch
      */
     public List<Reservation> getReservationsByBranch(int branchId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM reservations r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.branch_id = ? AND r.status IN ('PENDING', 'CONFIRMED') ORDER BY r.start_date";
+        String sql = SELECT_RESERVATION + "WHERE r.branch_id = ? AND r.status IN ('PENDING', 'CONFIRMED') ORDER BY r.start_date";
         List<Reservation> reservations = new ArrayList<>();
 
         try (Connection conn = DatabaseConfig.getConnection();
@@ -53,8 +66,60 @@ public class ReservationDAO {
             stmt.setInt(1, branchId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Reservation> reader = RESERVATION_MAPPER.bind(rs);
                 while (rs.next()) {
-                    reservations.add(mapResultSetToReservation(rs));
+                    reservations.add(reader.read(rs));
+                }
+            }
+        }
+        return reservations;
+    }
+
+    /**
+     * Get one page of reservation list rows ordered by (start_date, reservation_id) using
+     * keyset pagination. Pass the last row of the previous page as after,
+     * or null for the first page. Branch users only see PENDING/CONFIRMED ones, as
+     * in getReservationsByBranch. search optionally matches code, customer or equipment.
+     */
+    public List<ReservationListRow> getReservationsPage(Integer branchId, String search,
+                                                        ReservationListRow after, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder(SELECT_RESERVATION_LIST_ROW);
+        List<Object> params = new ArrayList<>();
+        if (branchId != null) {
+            sql.append("WHERE r.branch_id = ? AND r.status IN ('PENDING', 'CONFIRMED') ");
+            params.add(branchId);
+        } else {
+            sql.append("WHERE r.status IN ('PENDING', 'CONFIRMED', 'CANCELLED') ");
+        }
+        if (search != null && !search.trim().isEmpty()) {
+            String pattern = "%" + search.trim().toLowerCase() + "%";
+            sql.append("AND (LOWER(r.reservation_code) LIKE ? OR LOWER(cus.customer_name) LIKE ? " +
+                       "OR LOWER(CONCAT(e.brand, ' ', e.model)) LIKE ?) ");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+        if (after != null) {
+            sql.append("AND (r.start_date > ? OR (r.start_date = ? AND r.reservation_id > ?)) ");
+            params.add(Date.valueOf(after.getStartDate()));
+            params.add(Date.valueOf(after.getStartDate()));
+            params.add(after.getReservationId());
+        }
+        sql.append("ORDER BY r.start_date, r.reservation_id LIMIT ?");
+        params.add(limit);
+
+        List<ReservationListRow> reservations = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<ReservationListRow> reader = RESERVATION_LIST_ROW_MAPPER.bind(rs);
+                while (rs.next()) {
+                    reservations.add(reader.read(rs));
                 }
             }
         }
@@ -65,13 +130,7 @@ public class ReservationDAO {
      * Get reservation by ID
      */
     public Reservation getReservationById(int reservationId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM reservations r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.reservation_id = ?";
+        String sql = SELECT_RESERVATION + "WHERE r.reservation_id = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -80,7 +139,7 @@ public class ReservationDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToReservation(rs);
+                    return RESERVATION_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -91,13 +150,7 @@ public class ReservationDAO {
      * Get reservations by equipment
      */
     public List<Reservation> getReservationsByEquipment(int equipmentId) throws SQLException {
-        String sql = "SELECT r.*, e.equipment_code, e.brand, e.model, c.category_name, " +
-                     "cus.customer_name, b.branch_name FROM reservations r " +
-                     "JOIN equipment e ON r.equipment_id = e.equipment_id " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "JOIN customers cus ON r.customer_id = cus.customer_id " +
-                     "JOIN branches b ON r.branch_id = b.branch_id " +
-                     "WHERE r.equipment_id = ? AND r.status IN ('PENDING', 'CONFIRMED') " +
+        String sql = SELECT_RESERVATION + "WHERE r.equipment_id = ? AND r.status IN ('PENDING', 'CONFIRMED') " +
                      "ORDER BY r.start_date";
         List<Reservation> reservations = new ArrayList<>();
         
@@ -107,8 +160,9 @@ public class ReservationDAO {
             stmt.setInt(1, equipmentId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<Reservation> reader = RESERVATION_MAPPER.bind(rs);
                 while (rs.next()) {
-                    reservations.add(mapResultSetToReservation(rs));
+                    reservations.add(reader.read(rs));
                 }
             }
         }
@@ -145,6 +199,29 @@ public class ReservationDAO {
         return false;
     }
     
+    /**
+     * Get date ranges of reservations that block the equipment (PENDING or CONFIRMED)
+     */
+    public List<BookingRange> getBlockingReservationRanges(int equipmentId) throws SQLException {
+        String sql = "SELECT reservation_id, equipment_id, start_date, end_date FROM reservations " +
+                     "WHERE equipment_id = ? AND status IN ('PENDING', 'CONFIRMED')";
+        List<BookingRange> ranges = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, equipmentId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<BookingRange> reader = RESERVATION_RANGE_MAPPER.bind(rs);
+                while (rs.next()) {
+                    ranges.add(reader.read(rs));
+                }
+            }
+        }
+        return ranges;
+    }
+    
     /**
      * Create new reservation
      */
@@ -194,29 +271,83 @@ public class ReservationDAO {
     }
     
     /**
-     * Helper method to map ResultSet to Reservation object
+     * Resolve the list row columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<ReservationListRow> reservationListRowReader(RowMapper.Columns columns) throws SQLException {
+        int reservationIdColumn = columns.get("reservation_id");
+        int reservationCodeColumn = columns.get("reservation_code");
+        int equipmentDetailsColumn = columns.get("equipment_details");
+        int customerNameColumn = columns.get("customer_name");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+        int statusColumn = columns.get("status");
+
+        return rs -> {
+            ReservationListRow row = new ReservationListRow();
+            row.setReservationId(rs.getInt(reservationIdColumn));
+            row.setReservationCode(rs.getString(reservationCodeColumn));
+            row.setEquipmentDetails(rs.getString(equipmentDetailsColumn));
+            row.setCustomerName(rs.getString(customerNameColumn));
+            row.setStartDate(rs.getDate(startDateColumn).toLocalDate());
+            row.setEndDate(rs.getDate(endDateColumn).toLocalDate());
+            row.setStatus(RESERVATION_STATUSES.get(rs.getString(statusColumn)));
+            return row;
+        };
+    }
+
+    /**
+     * Reader for the booking range queries (reservation_id, equipment_id, start_date, end_date)
+     */
+    private static RowMapper.RowReader<BookingRange> reservationRangeReader(RowMapper.Columns columns) throws SQLException {
+        int reservationIdColumn = columns.get("reservation_id");
+        int equipmentIdColumn = columns.get("equipment_id");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+
+        return rs -> new BookingRange(BookingRange.BookingType.RESERVATION, rs.getInt(reservationIdColumn),
+                rs.getInt(equipmentIdColumn), rs.getDate(startDateColumn).toLocalDate(),
+                rs.getDate(endDateColumn).toLocalDate());
+    }
+    
+    /**
+     * Resolve the Reservation columns once per result set; the reader maps each row by position
      */
-    private Reservation mapResultSetToReservation(ResultSet rs) throws SQLException {
-        Reservation reservation = new Reservation();
-        reservation.setReservationId(rs.getInt("reservation_id"));
-        reservation.setReservationCode(rs.getString("reservation_code"));
-        reservation.setEquipmentId(rs.getInt("equipment_id"));
-        reservation.setCustomerId(rs.getInt("customer_id"));
-        reservation.setBranchId(rs.getInt("branch_id"));
-        reservation.setStartDate(rs.getDate("start_date").toLocalDate());
-        reservation.setEndDate(rs.getDate("end_date").toLocalDate());
-        reservation.setStatus(Reservation.ReservationStatus.valueOf(rs.getString("status")));
+    private static RowMapper.RowReader<Reservation> reservationReader(RowMapper.Columns columns) throws SQLException {
+        int reservationIdColumn = columns.get("reservation_id");
+        int reservationCodeColumn = columns.get("reservation_code");
+        int equipmentIdColumn = columns.get("equipment_id");
+        int customerIdColumn = columns.get("customer_id");
+        int branchIdColumn = columns.get("branch_id");
+        int startDateColumn = columns.get("start_date");
+        int endDateColumn = columns.get("end_date");
+        int statusColumn = columns.get("status");
+        int equipmentDetailsColumn = columns.get("equipment_details");
+        int customerNameColumn = columns.get("customer_name");
+        int branchNameColumn = columns.get("branch_name");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            Reservation reservation = new Reservation();
+            reservation.setReservationId(rs.getInt(reservationIdColumn));
+            reservation.setReservationCode(rs.getString(reservationCodeColumn));
+            reservation.setEquipmentId(rs.getInt(equipmentIdColumn));
+            reservation.setCustomerId(rs.getInt(customerIdColumn));
+            reservation.setBranchId(rs.getInt(branchIdColumn));
+            reservation.setStartDate(rs.getDate(startDateColumn).toLocalDate());
+            reservation.setEndDate(rs.getDate(endDateColumn).toLocalDate());
+            reservation.setStatus(RESERVATION_STATUSES.get(rs.getString(statusColumn)));
         
-        // Join fields
-        reservation.setEquipmentDetails(rs.getString("brand") + " " + rs.getString("model"));
-        reservation.setCustomerName(rs.getString("customer_name"));
-        reservation.setBranchName(rs.getString("branch_name"));
+            // Join fields
+            reservation.setEquipmentDetails(rs.getString(equipmentDetailsColumn));
+            reservation.setCustomerName(rs.getString(customerNameColumn));
+            reservation.setBranchName(rs.getString(branchNameColumn));
         
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            reservation.setCreatedAt(ts.toLocalDateTime());
-        }
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                reservation.setCreatedAt(ts.toLocalDateTime());
+            }
         
-        return reservation;
+            return reservation;
+        };
     }
 }
\ No newline at end of file
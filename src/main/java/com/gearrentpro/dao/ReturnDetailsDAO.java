@@ -2,11 +2,14 @@ package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.ReturnDetails;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.RowMapper;
 
 import java.sql.*;
 
 public class ReturnDetailsDAO {
     
+    private static final RowMapper<ReturnDetails> RETURN_DETAILS_MAPPER = RowMapper.of(ReturnDetailsDAO::returnDetailsReader);
+    
     /**
      * Get return details by rental ID
      */
@@ -20,7 +23,7 @@ public class ReturnDetailsDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToReturnDetails(rs);
+                    return RETURN_DETAILS_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -83,24 +86,36 @@ public class ReturnDetailsDAO {
     }
     
     /**
-     * Helper method to map ResultSet to ReturnDetails object
+     * Resolve the ReturnDetails columns once per result set; the reader maps each row by position
      */
-    private ReturnDetails mapResultSetToReturnDetails(ResultSet rs) throws SQLException {
-        ReturnDetails returnDetails = new ReturnDetails();
-        returnDetails.setReturnId(rs.getInt("return_id"));
-        returnDetails.setRentalId(rs.getInt("rental_id"));
-        returnDetails.setDamageDescription(rs.getString("damage_description"));
-        returnDetails.setDamageCharge(rs.getBigDecimal("damage_charge"));
-        returnDetails.setLateFee(rs.getBigDecimal("late_fee"));
-        returnDetails.setTotalCharges(rs.getBigDecimal("total_charges"));
-        returnDetails.setRefundAmount(rs.getBigDecimal("refund_amount"));
-        returnDetails.setAdditionalPaymentRequired(rs.getBigDecimal("additional_payment_required"));
+    private static RowMapper.RowReader<ReturnDetails> returnDetailsReader(RowMapper.Columns columns) throws SQLException {
+        int returnIdColumn = columns.get("return_id");
+        int rentalIdColumn = columns.get("rental_id");
+        int damageDescriptionColumn = columns.get("damage_description");
+        int damageChargeColumn = columns.get("damage_charge");
+        int lateFeeColumn = columns.get("late_fee");
+        int totalChargesColumn = columns.get("total_charges");
+        int refundAmountColumn = columns.get("refund_amount");
+        int additionalPaymentRequiredColumn = columns.get("additional_payment_required");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            ReturnDetails returnDetails = new ReturnDetails();
+            returnDetails.setReturnId(rs.getInt(returnIdColumn));
+            returnDetails.setRentalId(rs.getInt(rentalIdColumn));
+            returnDetails.setDamageDescription(rs.getString(damageDescriptionColumn));
+            returnDetails.setDamageCharge(rs.getBigDecimal(damageChargeColumn));
+            returnDetails.setLateFee(rs.getBigDecimal(lateFeeColumn));
+            returnDetails.setTotalCharges(rs.getBigDecimal(totalChargesColumn));
+            returnDetails.setRefundAmount(rs.getBigDecimal(refundAmountColumn));
+            returnDetails.setAdditionalPaymentRequired(rs.getBigDecimal(additionalPaymentRequiredColumn));
         
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            returnDetails.setCreatedAt(ts.toLocalDateTime());
-        }
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                returnDetails.setCreatedAt(ts.toLocalDateTime());
+            }
         
-        return returnDetails;
+            return returnDetails;
+        };
     }
 }
\ No newline at end of file
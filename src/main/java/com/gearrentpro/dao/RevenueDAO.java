@@ -0,0 +1,115 @@
+package com.gearrentpro.dao;
+
+import com.gearrentpro.entity.BranchRevenue;
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and maintains the daily_branch_revenue rollup (one row per branch and rental start date)
+ */
+public class RevenueDAO {
+    
+    private static final RowMapper<BranchRevenue> BRANCH_REVENUE_MAPPER =
+            RowMapper.of(RevenueDAO::branchRevenueReader);
+    
+    private static final String ADJUST_DAILY_REVENUE =
+            "INSERT INTO daily_branch_revenue (branch_id, revenue_date, rental_count, total_income, " +
+            "total_deposits, total_late_fees, total_damage_charges) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE rental_count = rental_count + VALUES(rental_count), " +
+            "total_income = total_income + VALUES(total_income), " +
+            "total_deposits = total_deposits + VALUES(total_deposits), " +
+            "total_late_fees = total_late_fees + VALUES(total_late_fees), " +
+            "total_damage_charges = total_damage_charges + VALUES(total_damage_charges)";
+    
+    /**
+     * Add the given amounts (negative to subtract) to a branch's totals for one day,
+     * creating the day's row if needed. The row is locked until the transaction ends.
+     */
+    public void adjustDailyRevenue(int branchId, LocalDate revenueDate, int rentalCount,
+                                   BigDecimal income, BigDecimal deposits,
+                                   BigDecimal lateFees, BigDecimal damageCharges) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ADJUST_DAILY_REVENUE)) {
+            
+            stmt.setInt(1, branchId);
+            stmt.setDate(2, Date.valueOf(revenueDate));
+            stmt.setInt(3, rentalCount);
+            stmt.setBigDecimal(4, income);
+            stmt.setBigDecimal(5, deposits);
+            stmt.setBigDecimal(6, lateFees);
+            stmt.setBigDecimal(7, damageCharges);
+            stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Sum the rollup per branch over the date range (inclusive); null branchId means all branches
+     */
+    public List<BranchRevenue> getBranchRevenue(Integer branchId, LocalDate fromDate, LocalDate toDate)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.branch_id, b.branch_name, SUM(d.rental_count) AS rental_count, " +
+                "SUM(d.total_income) AS total_income, SUM(d.total_deposits) AS total_deposits, " +
+                "SUM(d.total_late_fees) AS total_late_fees, " +
+                "SUM(d.total_damage_charges) AS total_damage_charges " +
+                "FROM daily_branch_revenue d " +
+                "JOIN branches b ON d.branch_id = b.branch_id " +
+                "WHERE d.revenue_date BETWEEN ? AND ?");
+        if (branchId != null) {
+            sql.append(" AND d.branch_id = ?");
+        }
+        sql.append(" GROUP BY b.branch_id, b.branch_name HAVING SUM(d.rental_count) > 0 " +
+                   "ORDER BY b.branch_name");
+        
+        List<BranchRevenue> revenues = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            stmt.setDate(1, Date.valueOf(fromDate));
+            stmt.setDate(2, Date.valueOf(toDate));
+            if (branchId != null) {
+                stmt.setInt(3, branchId);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.RowReader<BranchRevenue> reader = BRANCH_REVENUE_MAPPER.bind(rs);
+                while (rs.next()) {
+                    revenues.add(reader.read(rs));
+                }
+            }
+        }
+        return revenues;
+    }
+    
+    /**
+     * Resolve the BranchRevenue columns once per result set; the reader maps each row by position
+     */
+    private static RowMapper.RowReader<BranchRevenue> branchRevenueReader(RowMapper.Columns columns)
+            throws SQLException {
+        int branchIdColumn = columns.get("branch_id");
+        int branchNameColumn = columns.get("branch_name");
+        int rentalCountColumn = columns.get("rental_count");
+        int totalIncomeColumn = columns.get("total_income");
+        int totalDepositsColumn = columns.get("total_deposits");
+        int totalLateFeesColumn = columns.get("total_late_fees");
+        int totalDamageChargesColumn = columns.get("total_damage_charges");
+
+        return rs -> {
+            BranchRevenue revenue = new BranchRevenue();
+            revenue.setBranchId(rs.getInt(branchIdColumn));
+            revenue.setBranchName(rs.getString(branchNameColumn));
+            revenue.setRentalCount(rs.getInt(rentalCountColumn));
+            revenue.setTotalIncome(rs.getBigDecimal(totalIncomeColumn));
+            revenue.setTotalDeposits(rs.getBigDecimal(totalDepositsColumn));
+            revenue.setTotalLateFees(rs.getBigDecimal(totalLateFeesColumn));
+            revenue.setTotalDamageCharges(rs.getBigDecimal(totalDamageChargesColumn));
+            return revenue;
+        };
+    }
+}
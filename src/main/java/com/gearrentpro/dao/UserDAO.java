@@ -2,6 +2,8 @@ package com.gearrentpro.dao;
 
 import com.gearrentpro.entity.User;
 import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.EnumLookup;
+import com.gearrentpro.util.RowMapper;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -10,6 +12,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class UserDAO {
+    
+    private static final EnumLookup<User.UserRole> USER_ROLES = EnumLookup.of(User.UserRole.class);
+    private static final EnumLookup<User.UserStatus> USER_STATUSES = EnumLookup.of(User.UserStatus.class);
+    private static final RowMapper<User> USER_MAPPER = RowMapper.of(UserDAO::userReader);
 
     /**
      * Authenticate user with username and password
@@ -25,7 +31,7 @@ public class UserDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return USER_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -45,7 +51,7 @@ public class UserDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return USER_MAPPER.bind(rs).read(rs);
                 }
             }
         }
@@ -63,8 +69,9 @@ public class UserDAO {
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
+            RowMapper.RowReader<User> reader = USER_MAPPER.bind(rs);
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(reader.read(rs));
             }
         }
         return users;
@@ -125,24 +132,36 @@ public class UserDAO {
     }
 
     /**
-     * Helper method to map ResultSet to User object
+     * Resolve the User columns once per result set; the reader maps each row by position
      */
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setUserId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setPassword(rs.getString("password"));
-        user.setRole(User.UserRole.valueOf(rs.getString("role")));
-        user.setBranchId((Integer) rs.getObject("branch_id"));
-        user.setFullName(rs.getString("full_name"));
-        user.setEmail(rs.getString("email"));
-        user.setStatus(User.UserStatus.valueOf(rs.getString("status")));
-
-        Timestamp ts = rs.getTimestamp("created_at");
-        if (ts != null) {
-            user.setCreatedAt(ts.toLocalDateTime());
-        }
+    private static RowMapper.RowReader<User> userReader(RowMapper.Columns columns) throws SQLException {
+        int userIdColumn = columns.get("user_id");
+        int usernameColumn = columns.get("username");
+        int passwordColumn = columns.get("password");
+        int roleColumn = columns.get("role");
+        int branchIdColumn = columns.get("branch_id");
+        int fullNameColumn = columns.get("full_name");
+        int emailColumn = columns.get("email");
+        int statusColumn = columns.get("status");
+        int createdAtColumn = columns.get("created_at");
+
+        return rs -> {
+            User user = new User();
+            user.setUserId(rs.getInt(userIdColumn));
+            user.setUsername(rs.getString(usernameColumn));
+            user.setPassword(rs.getString(passwordColumn));
+            user.setRole(USER_ROLES.get(rs.getString(roleColumn)));
+            user.setBranchId((Integer) rs.getObject(branchIdColumn));
+            user.setFullName(rs.getString(fullNameColumn));
+            user.setEmail(rs.getString(emailColumn));
+            user.setStatus(USER_STATUSES.get(rs.getString(statusColumn)));
+
+            Timestamp ts = rs.getTimestamp(createdAtColumn);
+            if (ts != null) {
+                user.setCreatedAt(ts.toLocalDateTime());
+            }
 
-        return user;
+            return user;
+        };
     }
 }
\ No newline at end of file
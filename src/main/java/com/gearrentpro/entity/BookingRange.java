@@ -0,0 +1,73 @@
+package com.gearrentpro.entity;
+
+import java.time.LocalDate;
+
+public class BookingRange {
+    private BookingType bookingType;
+    private int bookingId;
+    private int equipmentId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public enum BookingType {
+        RENTAL, RESERVATION
+    }
+
+    // Constructor
+    public BookingRange() {}
+
+    public BookingRange(BookingType bookingType, int bookingId, int equipmentId,
+                        LocalDate startDate, LocalDate endDate) {
+        this.bookingType = bookingType;
+        this.bookingId = bookingId;
+        this.equipmentId = equipmentId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public BookingType getBookingType() {
+        return bookingType;
+    }
+
+    public void setBookingType(BookingType bookingType) {
+        this.bookingType = bookingType;
+    }
+
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(int bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public int getEquipmentId() {
+        return equipmentId;
+    }
+
+    public void setEquipmentId(int equipmentId) {
+        this.equipmentId = equipmentId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    @Override
+    public String toString() {
+        return bookingType + "#" + bookingId + " [" + startDate + " - " + endDate + "]";
+    }
+}
@@ -0,0 +1,88 @@
+package com.gearrentpro.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Revenue totals of one branch over a date range, as shown on the revenue report
+ */
+public class BranchRevenue {
+    private int branchId;
+    private String branchName;
+    private int rentalCount;
+    private BigDecimal totalIncome;
+    private BigDecimal totalDeposits;
+    private BigDecimal totalLateFees;
+    private BigDecimal totalDamageCharges;
+    
+    // Constructor
+    public BranchRevenue() {
+        this.totalIncome = BigDecimal.ZERO;
+        this.totalDeposits = BigDecimal.ZERO;
+        this.totalLateFees = BigDecimal.ZERO;
+        this.totalDamageCharges = BigDecimal.ZERO;
+    }
+    
+    // Getters and Setters
+    public int getBranchId() {
+        return branchId;
+    }
+    
+    public void setBranchId(int branchId) {
+        this.branchId = branchId;
+    }
+    
+    public String getBranchName() {
+        return branchName;
+    }
+    
+    public void setBranchName(String branchName) {
+        this.branchName = branchName;
+    }
+    
+    public int getRentalCount() {
+        return rentalCount;
+    }
+    
+    public void setRentalCount(int rentalCount) {
+        this.rentalCount = rentalCount;
+    }
+    
+    public BigDecimal getTotalIncome() {
+        return totalIncome;
+    }
+    
+    public void setTotalIncome(BigDecimal totalIncome) {
+        this.totalIncome = totalIncome;
+    }
+    
+    public BigDecimal getTotalDeposits() {
+        return totalDeposits;
+    }
+    
+    public void setTotalDeposits(BigDecimal totalDeposits) {
+        this.totalDeposits = totalDeposits;
+    }
+    
+    public BigDecimal getTotalLateFees() {
+        return totalLateFees;
+    }
+    
+    public void setTotalLateFees(BigDecimal totalLateFees) {
+        this.totalLateFees = totalLateFees;
+    }
+    
+    public BigDecimal getTotalDamageCharges() {
+        return totalDamageCharges;
+    }
+    
+    public void setTotalDamageCharges(BigDecimal totalDamageCharges) {
+        this.totalDamageCharges = totalDamageCharges;
+    }
+    
+    /**
+     * Rental income plus late fees and damage charges (deposits are refundable and excluded)
+     */
+    public BigDecimal getTotalRevenue() {
+        return totalIncome.add(totalLateFees).add(totalDamageCharges);
+    }
+}
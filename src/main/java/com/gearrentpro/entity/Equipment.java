@@ -17,6 +17,7 @@ public class Equipment {
     private int branchId;
     private String branchName;
     private LocalDateTime createdAt;
+    private int version;
     
     public enum EquipmentStatus {
         AVAILABLE, RESERVED, RENTED, UNDER_MAINTENANCE
@@ -143,6 +144,14 @@ public class Equipment {
         this.createdAt = createdAt;
     }
     
+    public int getVersion() {
+        return version;
+    }
+    
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return equipmentCode + " - " + brand + " " + model + " (" + categoryName + ")";
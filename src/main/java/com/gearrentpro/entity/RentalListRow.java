@@ -0,0 +1,82 @@
+package com.gearrentpro.entity;
+
+import java.time.LocalDate;
+
+/**
+ * The columns the rental list and overdue screens show; load the full Rental by id when
+ * the amounts are needed
+ */
+public class RentalListRow {
+    private int rentalId;
+    private String rentalCode;
+    private String equipmentDetails;
+    private String customerName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Rental.RentalStatus rentalStatus;
+
+    // Constructor
+    public RentalListRow() {}
+
+    // Getters and Setters
+    public int getRentalId() {
+        return rentalId;
+    }
+
+    public void setRentalId(int rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    public String getRentalCode() {
+        return rentalCode;
+    }
+
+    public void setRentalCode(String rentalCode) {
+        this.rentalCode = rentalCode;
+    }
+
+    public String getEquipmentDetails() {
+        return equipmentDetails;
+    }
+
+    public void setEquipmentDetails(String equipmentDetails) {
+        this.equipmentDetails = equipmentDetails;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Rental.RentalStatus getRentalStatus() {
+        return rentalStatus;
+    }
+
+    public void setRentalStatus(Rental.RentalStatus rentalStatus) {
+        this.rentalStatus = rentalStatus;
+    }
+
+    @Override
+    public String toString() {
+        return rentalCode + " - " + customerName;
+    }
+}
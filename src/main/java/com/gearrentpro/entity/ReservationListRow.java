@@ -0,0 +1,81 @@
+package com.gearrentpro.entity;
+
+import java.time.LocalDate;
+
+/**
+ * The columns the reservation list shows and its cancel/convert actions need
+ */
+public class ReservationListRow {
+    private int reservationId;
+    private String reservationCode;
+    private String equipmentDetails;
+    private String customerName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Reservation.ReservationStatus status;
+
+    // Constructor
+    public ReservationListRow() {}
+
+    // Getters and Setters
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(int reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getReservationCode() {
+        return reservationCode;
+    }
+
+    public void setReservationCode(String reservationCode) {
+        this.reservationCode = reservationCode;
+    }
+
+    public String getEquipmentDetails() {
+        return equipmentDetails;
+    }
+
+    public void setEquipmentDetails(String equipmentDetails) {
+        this.equipmentDetails = equipmentDetails;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Reservation.ReservationStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return reservationCode + " - " + customerName;
+    }
+}
@@ -17,7 +17,7 @@ public class AuthenticationService {
     /**
      * Singleton pattern - get instance
      */
-    public static AuthenticationService getInstance() {
+    public static synchronized AuthenticationService getInstance() {
         if (instance == null) {
             instance = new AuthenticationService();
         }
@@ -0,0 +1,350 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.dao.RentalDAO;
+import com.gearrentpro.dao.ReservationDAO;
+import com.gearrentpro.entity.BookingRange;
+import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.Reservation;
+import com.gearrentpro.util.DatabaseConfig;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory availability index. Keeps, per equipment, the date ranges of
+ * blocking rentals (ACTIVE/OVERDUE) and reservations (PENDING/CONFIRMED)
+ * sorted by start day with a running maximum of end days, so an overlap
+ * check is a binary search instead of a COUNT(*) query.
+ *
+ * Timelines are loaded from the database on first use and reloaded after
+ * availability.index.ttlSeconds so bookings made from other terminals are
+ * picked up; bookings made in this process are applied immediately.
+ */
+public class AvailabilityService {
+
+    private static AvailabilityService instance;
+    private static final int LOCK_STRIPES = 64;
+
+    private final RentalDAO rentalDAO;
+    private final ReservationDAO reservationDAO;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Integer, EquipmentTimeline> timelines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> bookingEquipment = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private AvailabilityService() {
+        this.rentalDAO = new RentalDAO();
+        this.reservationDAO = new ReservationDAO();
+        this.ttlMillis = DatabaseConfig.getIntProperty("availability.index.ttlSeconds", 30) * 1000L;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public static synchronized AvailabilityService getInstance() {
+        if (instance == null) {
+            instance = new AvailabilityService();
+        }
+        return instance;
+    }
+
+    /**
+     * Check if equipment has an ACTIVE/OVERDUE rental overlapping the date range
+     */
+    public boolean isEquipmentRented(int equipmentId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        return getTimeline(equipmentId).rentals.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Check if equipment has a PENDING/CONFIRMED reservation overlapping the date range
+     */
+    public boolean hasOverlappingReservation(int equipmentId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        return getTimeline(equipmentId).reservations.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    /**
+     * Check if equipment is free of both rentals and reservations in the date range
+     */
+    public boolean isEquipmentAvailable(int equipmentId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        EquipmentTimeline timeline = getTimeline(equipmentId);
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        return !timeline.rentals.overlaps(start, end) && !timeline.reservations.overlaps(start, end);
+    }
+
+    /**
+     * Record a newly created rental
+     */
+    public void rentalCreated(Rental rental) {
+        addBooking(new BookingRange(BookingRange.BookingType.RENTAL, rental.getRentalId(),
+                rental.getEquipmentId(), rental.getStartDate(), rental.getEndDate()));
+    }
+
+    /**
+     * Record a newly created reservation
+     */
+    public void reservationCreated(Reservation reservation) {
+        addBooking(new BookingRange(BookingRange.BookingType.RESERVATION, reservation.getReservationId(),
+                reservation.getEquipmentId(), reservation.getStartDate(), reservation.getEndDate()));
+    }
+
+    /**
+     * Apply a rental status change; RETURNED and CANCELLED rentals stop blocking
+     */
+    public void rentalStatusChanged(int rentalId, Rental.RentalStatus status) {
+        boolean blocking = status == Rental.RentalStatus.ACTIVE || status == Rental.RentalStatus.OVERDUE;
+        statusChanged(BookingRange.BookingType.RENTAL, rentalId, blocking);
+    }
+
+    /**
+     * Apply a reservation status change; CANCELLED reservations stop blocking
+     */
+    public void reservationStatusChanged(int reservationId, Reservation.ReservationStatus status) {
+        boolean blocking = status != Reservation.ReservationStatus.CANCELLED;
+        statusChanged(BookingRange.BookingType.RESERVATION, reservationId, blocking);
+    }
+
+    /**
+     * Drop the cached timeline of one equipment
+     */
+    public void invalidate(int equipmentId) {
+        synchronized (lockFor(equipmentId)) {
+            timelines.remove(equipmentId);
+        }
+    }
+
+    /**
+     * Drop all cached timelines
+     */
+    public void invalidateAll() {
+        timelines.clear();
+        bookingEquipment.clear();
+    }
+
+    private void statusChanged(BookingRange.BookingType type, int bookingId, boolean blocking) {
+        Integer equipmentId = bookingEquipment.get(bookingKey(type, bookingId));
+        if (equipmentId == null) {
+            if (blocking) {
+                // Re-activated booking we never indexed; we cannot tell which equipment it belongs to
+                invalidateAll();
+            }
+            return;
+        }
+        if (!blocking) {
+            synchronized (lockFor(equipmentId)) {
+                EquipmentTimeline timeline = timelines.get(equipmentId);
+                if (timeline != null) {
+                    timelines.put(equipmentId, timeline.without(type, bookingId));
+                }
+                bookingEquipment.remove(bookingKey(type, bookingId));
+            }
+        }
+    }
+
+    private void addBooking(BookingRange booking) {
+        int equipmentId = booking.getEquipmentId();
+        synchronized (lockFor(equipmentId)) {
+            EquipmentTimeline timeline = timelines.get(equipmentId);
+            // Not loaded yet: the next load reads the committed row from the database
+            if (timeline != null) {
+                timelines.put(equipmentId, timeline.with(booking));
+                bookingEquipment.put(bookingKey(booking.getBookingType(), booking.getBookingId()), equipmentId);
+            }
+        }
+    }
+
+    private EquipmentTimeline getTimeline(int equipmentId) throws SQLException {
+        EquipmentTimeline timeline = timelines.get(equipmentId);
+        if (timeline != null && !timeline.isExpired(ttlMillis)) {
+            return timeline;
+        }
+
+        synchronized (lockFor(equipmentId)) {
+            timeline = timelines.get(equipmentId);
+            if (timeline != null && !timeline.isExpired(ttlMillis)) {
+                return timeline;
+            }
+
+            List<BookingRange> rentals = rentalDAO.getBlockingRentalRanges(equipmentId);
+            List<BookingRange> reservations = reservationDAO.getBlockingReservationRanges(equipmentId);
+            timeline = new EquipmentTimeline(IntervalSet.of(rentals), IntervalSet.of(reservations),
+                    System.currentTimeMillis());
+
+            if (ttlMillis > 0) {
+                timelines.put(equipmentId, timeline);
+                for (BookingRange range : rentals) {
+                    bookingEquipment.put(bookingKey(range.getBookingType(), range.getBookingId()), equipmentId);
+                }
+                for (BookingRange range : reservations) {
+                    bookingEquipment.put(bookingKey(range.getBookingType(), range.getBookingId()), equipmentId);
+                }
+            }
+            return timeline;
+        }
+    }
+
+    private Object lockFor(int equipmentId) {
+        return locks[Math.floorMod(equipmentId, LOCK_STRIPES)];
+    }
+
+    private static long bookingKey(BookingRange.BookingType type, int bookingId) {
+        return ((long) type.ordinal() << 32) | (bookingId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Immutable snapshot of one equipment's bookings
+     */
+    private static class EquipmentTimeline {
+        final IntervalSet rentals;
+        final IntervalSet reservations;
+        final long loadedAt;
+
+        EquipmentTimeline(IntervalSet rentals, IntervalSet reservations, long loadedAt) {
+            this.rentals = rentals;
+            this.reservations = reservations;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt >= ttlMillis;
+        }
+
+        EquipmentTimeline with(BookingRange booking) {
+            long start = booking.getStartDate().toEpochDay();
+            long end = booking.getEndDate().toEpochDay();
+            if (booking.getBookingType() == BookingRange.BookingType.RENTAL) {
+                return new EquipmentTimeline(rentals.with(booking.getBookingId(), start, end), reservations, loadedAt);
+            }
+            return new EquipmentTimeline(rentals, reservations.with(booking.getBookingId(), start, end), loadedAt);
+        }
+
+        EquipmentTimeline without(BookingRange.BookingType type, int bookingId) {
+            if (type == BookingRange.BookingType.RENTAL) {
+                return new EquipmentTimeline(rentals.without(bookingId), reservations, loadedAt);
+            }
+            return new EquipmentTimeline(rentals, reservations.without(bookingId), loadedAt);
+        }
+    }
+
+    /**
+     * Day ranges sorted by start, with prefix maximum of end days.
+     * A range [s, e] overlaps the query [qs, qe] when s <= qe and e >= qs, so the
+     * answer is whether max(end) over all ranges starting on or before qe reaches qs.
+     */
+    static class IntervalSet {
+        private static final IntervalSet EMPTY = new IntervalSet(new int[0], new long[0], new long[0]);
+
+        private final int[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private IntervalSet(int[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        static IntervalSet of(List<BookingRange> ranges) {
+            IntervalSet set = EMPTY;
+            BookingRange[] sorted = ranges.toArray(new BookingRange[0]);
+            Arrays.sort(sorted, (a, b) -> a.getStartDate().compareTo(b.getStartDate()));
+            int n = sorted.length;
+            if (n == 0) {
+                return set;
+            }
+            int[] ids = new int[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = sorted[i].getBookingId();
+                starts[i] = sorted[i].getStartDate().toEpochDay();
+                ends[i] = sorted[i].getEndDate().toEpochDay();
+            }
+            return new IntervalSet(ids, starts, ends);
+        }
+
+        boolean overlaps(long start, long end) {
+            int count = upperBound(starts, end);
+            return count > 0 && maxEnds[count - 1] >= start;
+        }
+
+        /**
+         * Add the range for id, replacing any range already held for it; a reload can read
+         * a booking that is then added again by its create hook
+         */
+        IntervalSet with(int id, long start, long end) {
+            IntervalSet base = without(id);
+            int n = base.starts.length;
+            int pos = upperBound(base.starts, start);
+            int[] newIds = new int[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            newIds[pos] = id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            return new IntervalSet(newIds, newStarts, newEnds);
+        }
+
+        /**
+         * Remove every range held for id
+         */
+        IntervalSet without(int id) {
+            int n = ids.length;
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] != id) {
+                    kept++;
+                }
+            }
+            if (kept == n) {
+                return this;
+            }
+            int[] newIds = new int[kept];
+            long[] newStarts = new long[kept];
+            long[] newEnds = new long[kept];
+            int j = 0;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] != id) {
+                    newIds[j] = ids[i];
+                    newStarts[j] = starts[i];
+                    newEnds[j] = ends[i];
+                    j++;
+                }
+            }
+            return new IntervalSet(newIds, newStarts, newEnds);
+        }
+
+        /**
+         * Number of elements less than or equal to key
+         */
+        private static int upperBound(long[] sorted, long key) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.dao.BranchDAO;
+import com.gearrentpro.dao.CodeSequenceDAO;
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.HiLoAllocator;
+
+import java.sql.SQLException;
+
+/**
+ * Rental and reservation codes such as RENT-BR001-000123456: type, branch code and a
+ * per-branch number. Numbers come from code_sequences in blocks of codes.blockSize
+ * (default 100), so codes never repeat across terminals but are not contiguous.
+ */
+public class BookingCodeService {
+
+    private static final int NUMBER_DIGITS = 9;
+
+    private static BookingCodeService instance;
+
+    private final BranchDAO branchDAO;
+    private final HiLoAllocator allocator;
+
+    private BookingCodeService() {
+        this.branchDAO = new BranchDAO();
+        CodeSequenceDAO codeSequenceDAO = new CodeSequenceDAO();
+        this.allocator = new HiLoAllocator(codeSequenceDAO::reserveBlock,
+                Math.max(1, DatabaseConfig.getIntProperty("codes.blockSize", 100)));
+    }
+
+    public static synchronized BookingCodeService getInstance() {
+        if (instance == null) {
+            instance = new BookingCodeService();
+        }
+        return instance;
+    }
+
+    public String nextRentalCode(int branchId) throws SQLException {
+        return nextCode("RENT", branchId);
+    }
+
+    public String nextReservationCode(int branchId) throws SQLException {
+        return nextCode("RES", branchId);
+    }
+
+    private String nextCode(String type, int branchId) throws SQLException {
+        String branchCode = branchDAO.getBranchCode(branchId);
+        if (branchCode == null) {
+            throw new IllegalArgumentException("Branch not found!");
+        }
+        String prefix = type + "-" + branchCode;
+        return format(prefix, allocator.next(prefix));
+    }
+
+    /**
+     * prefix-NNNNNNNNN: the number zero-padded to NUMBER_DIGITS (longer numbers are kept whole)
+     */
+    static String format(String prefix, long number) {
+        String digits = Long.toString(number);
+        StringBuilder code = new StringBuilder(prefix.length() + 1 + Math.max(NUMBER_DIGITS, digits.length()));
+        code.append(prefix).append('-');
+        for (int i = digits.length(); i < NUMBER_DIGITS; i++) {
+            code.append('0');
+        }
+        return code.append(digits).toString();
+    }
+}
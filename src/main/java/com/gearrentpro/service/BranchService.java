@@ -14,7 +14,7 @@ public class BranchService {
         this.branchDAO = new BranchDAO();
     }
     
-    public static BranchService getInstance() {
+    public static synchronized BranchService getInstance() {
         if (instance == null) {
             instance = new BranchService();
         }
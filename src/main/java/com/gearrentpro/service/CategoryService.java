@@ -15,7 +15,7 @@ public class CategoryService {
         this.categoryDAO = new CategoryDAO();
     }
     
-    public static CategoryService getInstance() {
+    public static synchronized CategoryService getInstance() {
         if (instance == null) {
             instance = new CategoryService();
         }
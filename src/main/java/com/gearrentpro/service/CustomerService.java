@@ -2,9 +2,11 @@ package com.gearrentpro.service;
 
 import com.gearrentpro.dao.CustomerDAO;
 import com.gearrentpro.entity.Customer;
+import com.gearrentpro.util.BatchResult;
 import com.gearrentpro.util.ValidationUtils;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class CustomerService {
@@ -15,7 +17,7 @@ public class CustomerService {
         this.customerDAO = new CustomerDAO();
     }
     
-    public static CustomerService getInstance() {
+    public static synchronized CustomerService getInstance() {
         if (instance == null) {
             instance = new CustomerService();
         }
@@ -29,6 +31,13 @@ public class CustomerService {
         return customerDAO.getAllCustomers();
     }
     
+    /**
+     * Get the page of customers that follows the given customer (null for the first page)
+     */
+    public List<Customer> getCustomersPage(String search, Customer after, int limit) throws SQLException {
+        return customerDAO.getCustomersPage(search, after, limit);
+    }
+    
     /**
      * Get customer by ID
      */
@@ -66,6 +75,48 @@ public class CustomerService {
         return customerDAO.updateCustomer(customer);
     }
     
+    /**
+     * Create many customers. Invalid rows are reported without touching the database;
+     * duplicate NIC/Passport numbers are rejected by the database per row. Row numbers
+     * in the result are list positions.
+     */
+    public BatchResult createCustomerBatch(List<Customer> customers) throws SQLException {
+        BatchResult result = new BatchResult();
+        List<Customer> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < customers.size(); i++) {
+            try {
+                validateCustomer(customers.get(i));
+                valid.add(customers.get(i));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                result.recordError(i, e.getMessage());
+            }
+        }
+        result.addAll(customerDAO.createCustomerBatch(valid), row -> positions.get((int) row));
+        return result;
+    }
+    
+    /**
+     * Update many customers
+     */
+    public BatchResult updateCustomerBatch(List<Customer> customers) throws SQLException {
+        BatchResult result = new BatchResult();
+        List<Customer> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < customers.size(); i++) {
+            try {
+                validateCustomer(customers.get(i));
+                valid.add(customers.get(i));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                result.recordError(i, e.getMessage());
+            }
+        }
+        result.addAll(customerDAO.updateCustomerBatch(valid), row -> positions.get((int) row));
+        return result;
+    }
+    
     /**
      * Validate customer data
      */
@@ -1,11 +1,25 @@
 package com.gearrentpro.service;
 
 import com.gearrentpro.dao.EquipmentDAO;
+import com.gearrentpro.entity.Branch;
+import com.gearrentpro.entity.Category;
 import com.gearrentpro.entity.Equipment;
+import com.gearrentpro.util.BatchResult;
+import com.gearrentpro.util.CsvReader;
+import com.gearrentpro.util.JdbcBatch;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class EquipmentService {
     private EquipmentDAO equipmentDAO;
@@ -15,7 +29,7 @@ public class EquipmentService {
         this.equipmentDAO = new EquipmentDAO();
     }
     
-    public static EquipmentService getInstance() {
+    public static synchronized EquipmentService getInstance() {
         if (instance == null) {
             instance = new EquipmentService();
         }
@@ -36,6 +50,13 @@ public class EquipmentService {
         return equipmentDAO.getEquipmentById(equipmentId);
     }
     
+    /**
+     * Get equipment for several IDs with one query for those not already cached
+     */
+    public Map<Integer, Equipment> getEquipmentByIds(Collection<Integer> equipmentIds) throws SQLException {
+        return equipmentDAO.getEquipmentByIds(equipmentIds);
+    }
+    
     /**
      * Get equipment by branch
      */
@@ -50,6 +71,29 @@ public class EquipmentService {
         return equipmentDAO.getEquipmentByBranchAndCategory(branchId, categoryId);
     }
     
+    /**
+     * Get the page of equipment that follows the given item (null for the first page)
+     */
+    public List<Equipment> getEquipmentPage(Integer branchId, Equipment.EquipmentStatus status, String search,
+                                            Equipment after, int limit) throws SQLException {
+        return equipmentDAO.getEquipmentPage(branchId, status, search, after, limit);
+    }
+    
+    /**
+     * Get equipment by position in the getEquipmentPage order
+     */
+    public List<Equipment> getEquipmentAt(Integer branchId, Equipment.EquipmentStatus status, String search,
+                                          int offset, int limit) throws SQLException {
+        return equipmentDAO.getEquipmentAt(branchId, status, search, offset, limit);
+    }
+    
+    /**
+     * Count equipment matching the getEquipmentPage filters
+     */
+    public int countEquipment(Integer branchId, Equipment.EquipmentStatus status, String search) throws SQLException {
+        return equipmentDAO.countEquipment(branchId, status, search);
+    }
+    
     /**
      * Get available equipment for rental/reservation
      */
@@ -57,6 +101,17 @@ public class EquipmentService {
         return equipmentDAO.getAvailableEquipment(branchId, categoryId);
     }
     
+    /**
+     * Get equipment free of rentals and reservations for the whole date range
+     */
+    public List<Equipment> findAvailable(int branchId, int categoryId,
+                                         java.time.LocalDate startDate, java.time.LocalDate endDate) throws SQLException {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("A valid date range is required!");
+        }
+        return equipmentDAO.findAvailable(branchId, categoryId, startDate, endDate);
+    }
+
     /**
      * Create new equipment with validation
      */
@@ -68,11 +123,169 @@ public class EquipmentService {
     }
     
     /**
-     * Update equipment
+     * Update equipment; fails if someone else changed it after it was loaded
      */
     public boolean updateEquipment(Equipment equipment) throws SQLException {
         validateEquipment(equipment);
-        return equipmentDAO.updateEquipment(equipment);
+        if (!equipmentDAO.updateEquipment(equipment)) {
+            throw new IllegalArgumentException("This equipment was changed by someone else. Please reload and try again!");
+        }
+        return true;
+    }
+    
+    /**
+     * Create many equipment items. Invalid rows are reported without touching the
+     * database; row numbers in the result are list positions.
+     */
+    public BatchResult createEquipmentBatch(List<Equipment> equipmentList) throws SQLException {
+        BatchResult result = new BatchResult();
+        List<Equipment> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < equipmentList.size(); i++) {
+            try {
+                validateEquipment(equipmentList.get(i));
+                valid.add(equipmentList.get(i));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                result.recordError(i, e.getMessage());
+            }
+        }
+        result.addAll(equipmentDAO.createEquipmentBatch(valid), row -> positions.get((int) row));
+        return result;
+    }
+    
+    /**
+     * Update many equipment items, rejecting rows changed by someone else since they were loaded
+     */
+    public BatchResult updateEquipmentBatch(List<Equipment> equipmentList) throws SQLException {
+        BatchResult result = new BatchResult();
+        List<Equipment> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < equipmentList.size(); i++) {
+            try {
+                validateEquipment(equipmentList.get(i));
+                valid.add(equipmentList.get(i));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                result.recordError(i, e.getMessage());
+            }
+        }
+        result.addAll(equipmentDAO.updateEquipmentBatch(valid), row -> positions.get((int) row));
+        return result;
+    }
+    
+    /**
+     * Import equipment from a CSV file whose header names the columns
+     * equipment_code, category, brand, model, purchase_year, daily_base_price,
+     * security_deposit, branch_code and optionally status (default AVAILABLE).
+     * Category is matched by name and branch by code. The file is streamed and
+     * written in committed chunks; row numbers in the result are file lines.
+     */
+    public BatchResult importEquipmentCsv(Path file) throws IOException, SQLException {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        for (Category category : CategoryService.getInstance().getAllCategories()) {
+            categoryIds.put(category.getCategoryName().trim().toLowerCase(Locale.ROOT), category.getCategoryId());
+        }
+        Map<String, Integer> branchIds = new HashMap<>();
+        for (Branch branch : BranchService.getInstance().getAllBranches()) {
+            branchIds.put(branch.getBranchCode().trim().toLowerCase(Locale.ROOT), branch.getBranchId());
+        }
+
+        BatchResult result = new BatchResult();
+        int batchSize = JdbcBatch.getBatchSize();
+        List<Equipment> chunk = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty!");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheet exports may start with a byte order mark
+                columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : new String[]{"equipment_code", "category", "brand", "model", "purchase_year",
+                                                 "daily_base_price", "security_deposit", "branch_code"}) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("Missing column: " + required);
+                }
+            }
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                long line = csv.getRecordLine();
+                try {
+                    Equipment equipment = parseEquipment(record, columns, categoryIds, branchIds);
+                    validateEquipment(equipment);
+                    chunk.add(equipment);
+                    lines.add(line);
+                } catch (IllegalArgumentException e) {
+                    result.recordError(line, e.getMessage());
+                }
+                if (chunk.size() == batchSize) {
+                    writeImportChunk(chunk, lines, result);
+                }
+            }
+        }
+        writeImportChunk(chunk, lines, result);
+        return result;
+    }
+    
+    private void writeImportChunk(List<Equipment> chunk, List<Long> lines, BatchResult result) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        result.addAll(equipmentDAO.createEquipmentBatch(chunk), row -> lines.get((int) row));
+        chunk.clear();
+        lines.clear();
+    }
+    
+    private Equipment parseEquipment(List<String> record, Map<String, Integer> columns,
+                                     Map<String, Integer> categoryIds, Map<String, Integer> branchIds) {
+        String categoryName = field(record, columns, "category");
+        Integer categoryId = categoryIds.get(categoryName.toLowerCase(Locale.ROOT));
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Unknown category: " + categoryName);
+        }
+        String branchCode = field(record, columns, "branch_code");
+        Integer branchId = branchIds.get(branchCode.toLowerCase(Locale.ROOT));
+        if (branchId == null) {
+            throw new IllegalArgumentException("Unknown branch code: " + branchCode);
+        }
+
+        Equipment equipment;
+        try {
+            equipment = new Equipment(field(record, columns, "equipment_code"), categoryId,
+                    field(record, columns, "brand"), field(record, columns, "model"),
+                    Integer.parseInt(field(record, columns, "purchase_year")),
+                    new BigDecimal(field(record, columns, "daily_base_price")),
+                    new BigDecimal(field(record, columns, "security_deposit")), branchId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Purchase year, price and deposit must be numbers!");
+        }
+
+        String status = field(record, columns, "status");
+        if (!status.isEmpty()) {
+            try {
+                equipment.setStatus(Equipment.EquipmentStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status: " + status);
+            }
+        }
+        return equipment;
+    }
+    
+    /**
+     * Trimmed value of a named column, empty when the column or value is missing
+     */
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return "";
+        }
+        return record.get(index).trim();
     }
     
     /**
@@ -83,7 +296,7 @@ public class EquipmentService {
     }
     
     public boolean isEquipmentAvailable(int equipmentId, java.time.LocalDate startDate, java.time.LocalDate endDate) throws SQLException {
-        return equipmentDAO.isEquipmentAvailable(equipmentId, startDate, endDate);
+        return AvailabilityService.getInstance().isEquipmentAvailable(equipmentId, startDate, endDate);
     }
 
     /**
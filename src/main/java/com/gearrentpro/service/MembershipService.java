@@ -15,7 +15,7 @@ public class MembershipService {
         initializeDiscounts();
     }
     
-    public static MembershipService getInstance() {
+    public static synchronized MembershipService getInstance() {
         if (instance == null) {
             instance = new MembershipService();
         }
@@ -0,0 +1,301 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.dao.RentalDAO;
+import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.RentalListRow;
+import com.gearrentpro.util.DatabaseConfig;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves rentals to OVERDUE when their end date passes and serves the overdue screen
+ * from memory. ACTIVE rentals wait in a min-heap on (end_date, rental_id); at day
+ * rollover one UPDATE flips every ACTIVE rental that ended before today, and the heap
+ * is popped only as far as today, so the job touches just the rentals that fell due.
+ * Overdue rentals are kept in due-date order, so the screen is a copy of that set.
+ *
+ * State is reloaded from the database every overdue.resyncMinutes (default 10) to pick
+ * up rentals created, returned or cancelled from other terminals; changes made in this
+ * process are applied immediately. Database work (the reload query and the rollover
+ * UPDATE) runs outside the service lock, so the booking and return hooks never wait
+ * on it: hooks that arrive while a reload is reading are replayed onto the new state.
+ */
+public class OverdueRentalService {
+
+    private static OverdueRentalService instance;
+    private static final Comparator<RentalListRow> BY_DUE_DATE =
+            Comparator.comparing(RentalListRow::getEndDate).thenComparingInt(RentalListRow::getRentalId);
+
+    private final RentalDAO rentalDAO;
+    private final long resyncMinutes;
+    // Held for the whole of a reload or rollover, never by the hooks
+    private final Object reloadLock = new Object();
+    private PriorityQueue<RentalListRow> dueHeap = new PriorityQueue<>(BY_DUE_DATE);
+    // Rows still in the heap; a popped row that is no longer here was returned or cancelled
+    private Map<Integer, RentalListRow> active = new HashMap<>();
+    private TreeSet<RentalListRow> overdue = new TreeSet<>(BY_DUE_DATE);
+    private Map<Integer, RentalListRow> overdueById = new HashMap<>();
+    // Hook calls made while a reload is reading, replayed onto the reloaded state
+    private List<Runnable> changesDuringReload;
+    private LocalDate lastRollover;
+    private boolean stale = true;
+    private ScheduledExecutorService scheduler;
+
+    private OverdueRentalService() {
+        this.rentalDAO = new RentalDAO();
+        this.resyncMinutes = Math.max(1, DatabaseConfig.getIntProperty("overdue.resyncMinutes", 10));
+    }
+
+    public static synchronized OverdueRentalService getInstance() {
+        if (instance == null) {
+            instance = new OverdueRentalService();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the open rentals now and start the rollover and resync jobs
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "overdue-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runResync, 0, resyncMinutes, TimeUnit.MINUTES);
+        scheduleRollover();
+    }
+
+    /**
+     * Stop the background jobs
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Overdue rentals, most overdue first. Rolls over first if the day has changed
+     * since the last run (e.g. the machine slept through midnight).
+     */
+    public List<RentalListRow> getOverdueRentals() throws SQLException {
+        LocalDate today = LocalDate.now();
+        if (isStale()) {
+            resync(today);
+        } else if (!today.equals(getLastRollover())) {
+            rollover(today);
+        }
+        synchronized (this) {
+            return new ArrayList<>(overdue);
+        }
+    }
+
+    /**
+     * Track a newly created rental until it is returned or cancelled
+     */
+    public synchronized void rentalCreated(Rental rental) {
+        RentalListRow row = new RentalListRow();
+        row.setRentalId(rental.getRentalId());
+        row.setRentalCode(rental.getRentalCode());
+        row.setEquipmentDetails(rental.getEquipmentDetails());
+        row.setCustomerName(rental.getCustomerName());
+        row.setStartDate(rental.getStartDate());
+        row.setEndDate(rental.getEndDate());
+        row.setRentalStatus(Rental.RentalStatus.ACTIVE);
+        apply(() -> track(row));
+    }
+
+    /**
+     * Apply a rental status change; RETURNED and CANCELLED rentals are dropped
+     */
+    public synchronized void rentalStatusChanged(int rentalId, Rental.RentalStatus status) {
+        apply(() -> statusChanged(rentalId, status));
+    }
+
+    /**
+     * Apply a hook's change now, and again after the reload in flight (if any) swaps its state in
+     */
+    private void apply(Runnable change) {
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+        if (!stale) {
+            change.run();
+        }
+    }
+
+    private void track(RentalListRow row) {
+        active.put(row.getRentalId(), row);
+        dueHeap.add(row);
+        if (row.getEndDate().isBefore(LocalDate.now())) {
+            // Back-dated rental: let the next read flip it
+            lastRollover = null;
+        }
+    }
+
+    private void statusChanged(int rentalId, Rental.RentalStatus status) {
+        if (status == Rental.RentalStatus.ACTIVE || status == Rental.RentalStatus.OVERDUE) {
+            if (!active.containsKey(rentalId) && !overdueById.containsKey(rentalId)) {
+                // Re-opened rental we no longer hold; reload on the next read
+                stale = true;
+            }
+            return;
+        }
+        // The heap entry is skipped when popped (lazy deletion)
+        active.remove(rentalId);
+        RentalListRow row = overdueById.remove(rentalId);
+        if (row != null) {
+            overdue.remove(row);
+        }
+    }
+
+    /**
+     * Flip ACTIVE rentals that ended before today and move them from the heap to the
+     * overdue set. Rentals flipped in the database but missing from the heap came from
+     * another terminal, so the state is reloaded.
+     */
+    private void rollover(LocalDate today) throws SQLException {
+        synchronized (reloadLock) {
+            int flipped = rentalDAO.markOverdue(today);
+            int moved;
+            synchronized (this) {
+                moved = moveDue(today);
+                lastRollover = today;
+            }
+            if (flipped > moved) {
+                resync(today);
+            }
+        }
+    }
+
+    /**
+     * Reload the open rentals: the query runs without the service lock, then the new
+     * state is swapped in and the hook calls made meanwhile are replayed onto it. Rolls
+     * over afterwards if that has not happened today yet.
+     */
+    private void resync(LocalDate today) throws SQLException {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changesDuringReload = new ArrayList<>();
+            }
+            List<RentalListRow> rows;
+            try {
+                rows = rentalDAO.getOpenRentalRows();
+            } catch (SQLException e) {
+                synchronized (this) {
+                    changesDuringReload = null;
+                    stale = true;
+                }
+                throw e;
+            }
+
+            PriorityQueue<RentalListRow> newDueHeap = new PriorityQueue<>(BY_DUE_DATE);
+            Map<Integer, RentalListRow> newActive = new HashMap<>();
+            TreeSet<RentalListRow> newOverdue = new TreeSet<>(BY_DUE_DATE);
+            Map<Integer, RentalListRow> newOverdueById = new HashMap<>();
+            for (RentalListRow row : rows) {
+                if (row.getRentalStatus() == Rental.RentalStatus.OVERDUE) {
+                    newOverdue.add(row);
+                    newOverdueById.put(row.getRentalId(), row);
+                } else {
+                    newActive.put(row.getRentalId(), row);
+                    newDueHeap.add(row);
+                }
+            }
+
+            boolean rolledOverToday;
+            synchronized (this) {
+                dueHeap = newDueHeap;
+                active = newActive;
+                overdue = newOverdue;
+                overdueById = newOverdueById;
+                stale = false;
+                List<Runnable> changes = changesDuringReload;
+                changesDuringReload = null;
+                // Each replayed change is idempotent, so one the query already saw is harmless
+                for (Runnable change : changes) {
+                    change.run();
+                }
+                // ACTIVE rentals past their end date are shown as overdue until the rollover flips them
+                moveDue(today);
+                rolledOverToday = today.equals(lastRollover);
+            }
+            if (!rolledOverToday) {
+                rollover(today);
+            }
+        }
+    }
+
+    private synchronized boolean isStale() {
+        return stale;
+    }
+
+    private synchronized LocalDate getLastRollover() {
+        return lastRollover;
+    }
+
+    private int moveDue(LocalDate today) {
+        int moved = 0;
+        RentalListRow row;
+        while ((row = dueHeap.peek()) != null && row.getEndDate().isBefore(today)) {
+            dueHeap.poll();
+            if (active.remove(row.getRentalId(), row)) {
+                row.setRentalStatus(Rental.RentalStatus.OVERDUE);
+                overdue.add(row);
+                overdueById.put(row.getRentalId(), row);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private void runResync() {
+        try {
+            resync(LocalDate.now());
+        } catch (SQLException e) {
+            System.err.println("Failed to reload overdue rentals: " + e.getMessage());
+        }
+    }
+
+    private void runRollover() {
+        try {
+            rollover(LocalDate.now());
+        } catch (SQLException e) {
+            // The next read or resync catches up
+            System.err.println("Failed to mark overdue rentals: " + e.getMessage());
+        }
+        scheduleRollover();
+    }
+
+    /**
+     * Run the rollover just after the next local midnight; rescheduled after each run
+     * because days are not always 24 hours long
+     */
+    private synchronized void scheduleRollover() {
+        if (scheduler == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delayMillis = Duration.between(now, midnight).toMillis() + 1000;
+        scheduler.schedule(this::runRollover, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
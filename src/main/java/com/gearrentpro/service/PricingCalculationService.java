@@ -18,7 +18,7 @@ public class PricingCalculationService {
     
     private PricingCalculationService() {}
     
-    public static PricingCalculationService getInstance() {
+    public static synchronized PricingCalculationService getInstance() {
         if (instance == null) {
             instance = new PricingCalculationService();
         }
@@ -43,21 +43,35 @@ public class PricingCalculationService {
     }
     
     /**
-     * Calculate total rental amount with weekend considerations
+     * Calculate total rental amount with weekend considerations.
+     * Every weekday costs the same rounded daily rate and so does every weekend
+     * day, so the total is weekdays * weekdayRate + weekendDays * weekendRate.
      */
     public BigDecimal calculateRentalAmount(Equipment equipment, Category category, 
                                            LocalDate startDate, LocalDate endDate) {
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        LocalDate current = startDate;
-        
-        // Iterate through each day and add appropriate daily rate
-        while (!current.isAfter(endDate)) {
-            BigDecimal dailyRate = calculateDailyRate(equipment, category, current);
-            totalAmount = totalAmount.add(dailyRate);
-            current = current.plusDays(1);
+        if (endDate.isBefore(startDate)) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal categoryRate = equipment.getDailyBasePrice().multiply(category.getBasePriceFactor());
+        BigDecimal weekdayRate = categoryRate.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal weekendRate = categoryRate.multiply(category.getWeekendMultiplier())
+                .setScale(2, RoundingMode.HALF_UP);
+
+        long weekendDays = DateUtils.countWeekendDays(startDate, endDate);
+        long weekdays = DateUtils.getDaysBetween(startDate, endDate) - weekendDays;
+
+        try {
+            long totalCents = Math.addExact(
+                    Math.multiplyExact(weekdays, weekdayRate.unscaledValue().longValueExact()),
+                    Math.multiplyExact(weekendDays, weekendRate.unscaledValue().longValueExact()));
+            return BigDecimal.valueOf(totalCents, 2);
+        } catch (ArithmeticException e) {
+            // Amounts beyond long cents: same sum in BigDecimal
+            return weekdayRate.multiply(BigDecimal.valueOf(weekdays))
+                    .add(weekendRate.multiply(BigDecimal.valueOf(weekendDays)))
+                    .setScale(2, RoundingMode.HALF_UP);
         }
-        
-        return totalAmount.setScale(2, RoundingMode.HALF_UP);
     }
     
     /**
@@ -1,29 +1,47 @@
 package com.gearrentpro.service;
 
+import com.gearrentpro.dao.CustomerDAO;
+import com.gearrentpro.dao.EquipmentDAO;
 import com.gearrentpro.dao.RentalDAO;
 import com.gearrentpro.entity.*;
+import com.gearrentpro.util.CsvWriter;
 import com.gearrentpro.util.DateUtils;
+import com.gearrentpro.util.StripedLock;
+import com.gearrentpro.util.Transaction;
 import com.gearrentpro.dao.ReturnDetailsDAO;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
 
 public class RentalService {
 
     private RentalDAO rentalDAO;
+    private EquipmentDAO equipmentDAO;
+    private CustomerDAO customerDAO;
     private PricingCalculationService pricingService;
+    private AvailabilityService availabilityService;
+    private RevenueReportService revenueReportService;
+    private OverdueRentalService overdueRentalService;
+    private BookingCodeService bookingCodeService;
     private static RentalService instance;
     private static final int MAX_RENTAL_DAYS = 30;
 
     private RentalService() {
         this.rentalDAO = new RentalDAO();
+        this.equipmentDAO = new EquipmentDAO();
+        this.customerDAO = new CustomerDAO();
         this.pricingService = PricingCalculationService.getInstance();
+        this.availabilityService = AvailabilityService.getInstance();
+        this.revenueReportService = RevenueReportService.getInstance();
+        this.overdueRentalService = OverdueRentalService.getInstance();
+        this.bookingCodeService = BookingCodeService.getInstance();
     }
 
-    public static RentalService getInstance() {
+    public static synchronized RentalService getInstance() {
         if (instance == null) {
             instance = new RentalService();
         }
@@ -58,10 +76,48 @@ public class RentalService {
         return rentalDAO.getOverdueRentals();
     }
 
+    /**
+     * Get overdue rentals with only the columns the overdue screen shows, from the
+     * overdue job's in-memory set
+     */
+    public List<RentalListRow> getOverdueRentalRows() throws SQLException {
+        return overdueRentalService.getOverdueRentals();
+    }
+
+    /**
+     * Get ACTIVE and OVERDUE rentals as list rows, soonest due first
+     */
+    public List<RentalListRow> getOpenRentalRows() throws SQLException {
+        return rentalDAO.getOpenRentalRows();
+    }
+
     public List<Rental> getRentalsByBranch(int branchId) throws SQLException {
         return rentalDAO.getRentalsByBranch(branchId);
     }
 
+    /**
+     * Get the page of rental list rows that follows the given row (null for the first page)
+     */
+    public List<RentalListRow> getRentalsPage(Integer branchId, Rental.RentalStatus status,
+                                              RentalListRow after, int limit) throws SQLException {
+        return rentalDAO.getRentalsPage(branchId, status, after, limit);
+    }
+
+    /**
+     * Get rental list rows by position in the getRentalsPage order
+     */
+    public List<RentalListRow> getRentalsAt(Integer branchId, Rental.RentalStatus status,
+                                            int offset, int limit) throws SQLException {
+        return rentalDAO.getRentalsAt(branchId, status, offset, limit);
+    }
+
+    /**
+     * Count rentals matching the getRentalsPage filters
+     */
+    public int countRentals(Integer branchId, Rental.RentalStatus status) throws SQLException {
+        return rentalDAO.countRentals(branchId, status);
+    }
+
     public boolean updatePaymentStatus(int rentalId, Rental.PaymentStatus status) throws SQLException {
         return rentalDAO.updatePaymentStatus(rentalId, status);
     }
@@ -75,7 +131,23 @@ public class RentalService {
     }
 
     public boolean updateRentalStatus(int rentalId, Rental.RentalStatus status) throws SQLException {
-        return rentalDAO.updateRentalStatus(rentalId, status);
+        // Compare-and-set so a concurrent change cannot be counted twice in the revenue rollup
+        Rental changed = Transaction.inTransaction(() -> {
+            Rental rental = rentalDAO.getRentalById(rentalId);
+            if (rental == null || !rentalDAO.updateRentalStatus(rentalId, rental.getRentalStatus(), status)) {
+                return null;
+            }
+            updateHeldDeposit(rental, status);
+            revenueReportService.rentalStatusChanged(rental, status);
+            return rental;
+        });
+        if (changed == null) {
+            return false;
+        }
+        customerDAO.invalidateDepositHeadroom(changed.getCustomerId());
+        availabilityService.rentalStatusChanged(rentalId, status);
+        overdueRentalService.rentalStatusChanged(rentalId, status);
+        return true;
     }
 
     /**
@@ -85,8 +157,8 @@ public class RentalService {
             Customer customer, Category category) throws SQLException, Exception {
         validateRental(rental);
 
-        // Check equipment availability
-        if (rentalDAO.isEquipmentRented(equipment.getEquipmentId(), rental.getStartDate(), rental.getEndDate())) {
+        // Cheap check against the availability index; repeated under the equipment lock below
+        if (availabilityService.isEquipmentRented(equipment.getEquipmentId(), rental.getStartDate(), rental.getEndDate())) {
             throw new IllegalArgumentException("Equipment is not available for selected dates!");
         }
 
@@ -103,7 +175,7 @@ public class RentalService {
                 longDiscount, membershipDiscount);
 
         // Set calculated values
-        rental.setRentalCode("RENT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        rental.setRentalCode(bookingCodeService.nextRentalCode(rental.getBranchId()));
         rental.setDailyRate(equipment.getDailyBasePrice().multiply(category.getBasePriceFactor()));
         rental.setRentalAmount(rentalAmount);
         rental.setSecurityDeposit(equipment.getSecurityDeposit());
@@ -112,8 +184,41 @@ public class RentalService {
         rental.setFinalPayableAmount(finalPayable);
         rental.setPaymentStatus(Rental.PaymentStatus.UNPAID);
         rental.setRentalStatus(Rental.RentalStatus.ACTIVE);
-
-        return rentalDAO.createRental(rental);
+        rental.setCustomerName(customer.getCustomerName());
+        rental.setEquipmentDetails(equipment.getModel() != null
+                ? equipment.getBrand() + " " + equipment.getModel() : equipment.getBrand());
+
+        // Check and insert atomically: bookings of the same item queue on the in-process
+        // stripe first, then on the row lock (which also covers other instances)
+        int equipmentId = equipment.getEquipmentId();
+        boolean created;
+        try {
+            created = StripedLock.forBookings().withLock(equipmentId, () ->
+                Transaction.inTransaction(() -> {
+                    if (!equipmentDAO.lockEquipment(equipmentId)) {
+                        throw new IllegalArgumentException("Equipment not found!");
+                    }
+                    if (rentalDAO.isEquipmentRented(equipmentId, rental.getStartDate(), rental.getEndDate())) {
+                        throw new IllegalArgumentException("Equipment is not available for selected dates!");
+                    }
+                    if (!customerDAO.holdDeposit(rental.getCustomerId(), rental.getSecurityDeposit())) {
+                        throw new IllegalArgumentException("Customer deposit limit would be exceeded!");
+                    }
+                    if (!rentalDAO.createRental(rental)) {
+                        return false;
+                    }
+                    revenueReportService.rentalCreated(rental);
+                    return true;
+                }));
+        } finally {
+            // Also after a rejected hold: the cached headroom let it through, so it was out of date
+            customerDAO.invalidateDepositHeadroom(rental.getCustomerId());
+        }
+        if (created) {
+            availabilityService.rentalCreated(rental);
+            overdueRentalService.rentalCreated(rental);
+        }
+        return created;
     }
 
     /**
@@ -125,12 +230,12 @@ public class RentalService {
         if (rental == null) {
             throw new IllegalArgumentException("Rental not found!");
         }
-
-        // Get category for late fee
-        EquipmentService equipmentService = EquipmentService.getInstance();
-        Equipment equipment = equipmentService.getEquipmentById(rental.getEquipmentId());
-        CategoryService categoryService = CategoryService.getInstance();
-        Category category = categoryService.getCategoryById(equipment.getCategoryId());
+        if (!isOpen(rental.getRentalStatus())) {
+            throw new IllegalArgumentException("Rental has already been returned or cancelled!");
+        }
+        // Equipment and category (for the late fee) come from the reference caches
+        Equipment equipment = equipmentDAO.getEquipmentById(rental.getEquipmentId());
+        Category category = CategoryService.getInstance().getCategoryById(equipment.getCategoryId());
 
         // Calculate charges
         BigDecimal lateFee = pricingService.calculateLateFee(rental.getEndDate(), actualReturnDate,
@@ -149,16 +254,45 @@ public class RentalService {
         returnDetails.setRefundAmount(refundInfo.refundAmount);
         returnDetails.setAdditionalPaymentRequired(refundInfo.additionalPayment);
 
-        // Update rental with return info
-        rentalDAO.updateRentalReturn(rentalId, actualReturnDate, Rental.RentalStatus.RETURNED);
-
-        // Save return details
+        // Update rental with return info, save return details and add the charges to revenue together
         ReturnDetailsDAO returnDetailsDAO = new ReturnDetailsDAO();
-        returnDetailsDAO.createReturnDetails(returnDetails);
+        // The conditional UPDATE lets only one of two concurrent returns release the deposit
+        Transaction.inTransaction(() -> {
+            if (!rentalDAO.updateRentalReturn(rentalId, actualReturnDate, Rental.RentalStatus.RETURNED)) {
+                throw new IllegalArgumentException("Rental has already been returned or cancelled!");
+            }
+            returnDetailsDAO.createReturnDetails(returnDetails);
+            updateHeldDeposit(rental, Rental.RentalStatus.RETURNED);
+            revenueReportService.rentalReturned(rental, returnDetails);
+            return null;
+        });
+        customerDAO.invalidateDepositHeadroom(rental.getCustomerId());
+        availabilityService.rentalStatusChanged(rentalId, Rental.RentalStatus.RETURNED);
+        overdueRentalService.rentalStatusChanged(rentalId, Rental.RentalStatus.RETURNED);
 
         return returnDetails;
     }
 
+    /**
+     * Export the rentals behind the revenue report to a CSV file, streaming rows from the
+     * database straight to disk. Returns the number of rentals written.
+     */
+    public long exportRevenueCsv(Integer branchId, LocalDate fromDate, LocalDate toDate, Path file)
+            throws SQLException, IOException {
+        try (CsvWriter csv = CsvWriter.open(file)) {
+            csv.writeRecord("Rental Code", "Branch", "Start Date", "End Date", "Returned On", "Customer",
+                    "Equipment", "Status", "Payment", "Rental Amount", "Membership Discount",
+                    "Long Rental Discount", "Final Payable", "Security Deposit", "Late Fee", "Damage Charge");
+            Object[] record = new Object[16];
+            return rentalDAO.streamRevenueRows(branchId, fromDate, toDate, rs -> {
+                for (int i = 0; i < record.length; i++) {
+                    record[i] = rs.getString(i + 1);
+                }
+                csv.writeRecord(record);
+            });
+        }
+    }
+
     /**
      * Validate rental data
      */
@@ -181,14 +315,29 @@ public class RentalService {
         }
     }
 
+    /**
+     * Early check against the cached deposit headroom; holdDeposit enforces the limit
+     * again when the rental is written
+     */
     private void checkCustomerDepositLimit(Customer customer, BigDecimal newDeposit) throws SQLException {
-        List<Rental> activeRentals = getActiveRentalsByCustomer(customer.getCustomerId());
-        BigDecimal currentDeposit = activeRentals.stream()
-                .map(Rental::getSecurityDeposit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (currentDeposit.add(newDeposit).compareTo(customer.getDepositLimit()) > 0) {
+        BigDecimal headroom = customerDAO.getDepositHeadroom(customer.getCustomerId());
+        if (headroom != null && newDeposit.compareTo(headroom) > 0) {
             throw new IllegalArgumentException("Customer deposit limit would be exceeded!");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Release the deposit when an open rental is closed, hold it again when a closed one is reopened
+     */
+    private void updateHeldDeposit(Rental rental, Rental.RentalStatus status) throws SQLException {
+        boolean wasOpen = isOpen(rental.getRentalStatus());
+        if (wasOpen != isOpen(status)) {
+            BigDecimal deposit = wasOpen ? rental.getSecurityDeposit().negate() : rental.getSecurityDeposit();
+            customerDAO.adjustOutstandingDeposit(rental.getCustomerId(), deposit);
+        }
+    }
+
+    private static boolean isOpen(Rental.RentalStatus status) {
+        return status == Rental.RentalStatus.ACTIVE || status == Rental.RentalStatus.OVERDUE;
+    }
+}
@@ -1,8 +1,9 @@
 package com.gearrentpro.service;
 
 import com.gearrentpro.dao.RentalDAO;
+import com.gearrentpro.util.StreamingQuery;
 
-import java.sql.ResultSet;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 
@@ -15,18 +16,26 @@ public class ReportService {
         this.rentalDAO = new RentalDAO();
     }
 
-    public static ReportService getInstance() {
+    public static synchronized ReportService getInstance() {
         if (instance == null) {
             instance = new ReportService();
         }
         return instance;
     }
 
-    public ResultSet getBranchRevenueReport(LocalDate startDate, LocalDate endDate) throws SQLException {
-        return rentalDAO.getBranchRevenueReport(startDate, endDate);
+    /**
+     * Hand each branch revenue row to the handler; the connection is released when this returns
+     */
+    public long forEachBranchRevenue(LocalDate startDate, LocalDate endDate,
+                                     StreamingQuery.RowHandler handler) throws SQLException, IOException {
+        return rentalDAO.streamBranchRevenueReport(startDate, endDate, handler);
     }
 
-    public ResultSet getEquipmentUtilizationReport(int branchId, LocalDate startDate, LocalDate endDate) throws SQLException {
-        return rentalDAO.getEquipmentUtilizationReport(branchId, startDate, endDate);
+    /**
+     * Hand each equipment utilization row to the handler; the connection is released when this returns
+     */
+    public long forEachEquipmentUtilization(int branchId, LocalDate startDate, LocalDate endDate,
+                                            StreamingQuery.RowHandler handler) throws SQLException, IOException {
+        return rentalDAO.streamEquipmentUtilizationReport(branchId, startDate, endDate, handler);
     }
 }
@@ -1,5 +1,7 @@
 package com.gearrentpro.service;
 
+import com.gearrentpro.dao.CustomerDAO;
+import com.gearrentpro.dao.EquipmentDAO;
 import com.gearrentpro.dao.RentalDAO;
 import com.gearrentpro.dao.ReservationDAO;
 import com.gearrentpro.entity.Category;
@@ -7,34 +9,49 @@ import com.gearrentpro.entity.Customer;
 import com.gearrentpro.entity.Equipment;
 import com.gearrentpro.entity.Rental;
 import com.gearrentpro.entity.Reservation;
+import com.gearrentpro.entity.ReservationListRow;
 import com.gearrentpro.util.DateUtils;
+import com.gearrentpro.util.FanOut;
+import com.gearrentpro.util.StripedLock;
+import com.gearrentpro.util.Transaction;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.UUID;
 
 public class ReservationService {
 
   private static final int MAX_RENTAL_DAYS = 30;
   private static ReservationService instance;
+  private final AvailabilityService availabilityService;
+  private final BookingCodeService bookingCodeService;
   private final CategoryService categoryService;
+  private final CustomerDAO customerDAO;
   private final CustomerService customerService;
+  private final EquipmentDAO equipmentDAO;
   private final EquipmentService equipmentService;
+  private final OverdueRentalService overdueRentalService;
   private final PricingCalculationService pricingCalculationService;
   private final RentalDAO rentalDAO;
   private final ReservationDAO reservationDAO;
+  private final RevenueReportService revenueReportService;
 
   private ReservationService() {
     this.reservationDAO = new ReservationDAO();
     this.rentalDAO = new RentalDAO();
+    this.equipmentDAO = new EquipmentDAO();
     this.equipmentService = EquipmentService.getInstance();
     this.pricingCalculationService = PricingCalculationService.getInstance();
     this.customerService = CustomerService.getInstance();
+    this.customerDAO = new CustomerDAO();
     this.categoryService = CategoryService.getInstance();
+    this.availabilityService = AvailabilityService.getInstance();
+    this.bookingCodeService = BookingCodeService.getInstance();
+    this.revenueReportService = RevenueReportService.getInstance();
+    this.overdueRentalService = OverdueRentalService.getInstance();
   }
 
-  public static ReservationService getInstance() {
+  public static synchronized ReservationService getInstance() {
     if (instance == null) {
       instance = new ReservationService();
     }
@@ -42,8 +59,7 @@ public class ReservationService {
   }
 
   public boolean cancelReservation(int reservationId) throws SQLException {
-    return reservationDAO.updateReservationStatus(
-        reservationId, Reservation.ReservationStatus.CANCELLED);
+    return updateReservationStatus(reservationId, Reservation.ReservationStatus.CANCELLED);
   }
 
   public boolean convertToRental(int reservationId) throws Exception {
@@ -52,27 +68,41 @@ public class ReservationService {
       return false; // Or throw an exception
     }
 
-    Equipment equipment = equipmentService.getEquipmentById(reservation.getEquipmentId());
+    // Equipment and customer only depend on the reservation, so load them together
+    Equipment equipment;
+    Customer customer;
+    try (FanOut fanOut = new FanOut()) {
+      FanOut.Subtask<Equipment> equipmentLookup =
+          fanOut.fork(() -> equipmentService.getEquipmentById(reservation.getEquipmentId()));
+      FanOut.Subtask<Customer> customerLookup =
+          fanOut.fork(() -> customerService.getCustomerById(reservation.getCustomerId()));
+      fanOut.join();
+      equipment = equipmentLookup.get();
+      customer = customerLookup.get();
+    }
+    // Needs the equipment's category id; served from the category cache
+    Category category = categoryService.getCategoryById(equipment.getCategoryId());
+
     int days = DateUtils.getDaysBetween(reservation.getStartDate(), reservation.getEndDate());
 
     Rental rental = new Rental();
-    rental.setRentalCode("RENT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+    rental.setRentalCode(bookingCodeService.nextRentalCode(reservation.getBranchId()));
     rental.setEquipmentId(reservation.getEquipmentId());
     rental.setCustomerId(reservation.getCustomerId());
     rental.setBranchId(reservation.getBranchId());
     rental.setReservationId(reservation.getReservationId());
     rental.setStartDate(reservation.getStartDate());
     rental.setEndDate(reservation.getEndDate());
+    rental.setEquipmentDetails(reservation.getEquipmentDetails());
+    rental.setCustomerName(reservation.getCustomerName());
     rental.setDailyRate(equipment.getDailyBasePrice());
 
-    Category category = categoryService.getCategoryById(equipment.getCategoryId());
     BigDecimal rentalAmount =
         pricingCalculationService.calculateRentalAmount(
             equipment, category, reservation.getStartDate(), reservation.getEndDate());
     rental.setRentalAmount(rentalAmount);
     rental.setSecurityDeposit(equipment.getSecurityDeposit());
 
-    Customer customer = customerService.getCustomerById(reservation.getCustomerId());
     BigDecimal membershipDiscount =
         pricingCalculationService.calculateMembershipDiscount(rentalAmount, customer);
     rental.setMembershipDiscount(membershipDiscount);
@@ -88,17 +118,50 @@ public class ReservationService {
     rental.setPaymentStatus(Rental.PaymentStatus.UNPAID);
     rental.setRentalStatus(Rental.RentalStatus.ACTIVE);
 
-    if (rentalDAO.createRental(rental)) {
-      return updateReservationStatus(reservationId, Reservation.ReservationStatus.CONFIRMED);
+    // Re-check the status under the equipment lock so a reservation is converted only once
+    boolean converted;
+    try {
+      converted =
+          StripedLock.forBookings()
+              .withLock(
+                  reservation.getEquipmentId(),
+                  () ->
+                      Transaction.inTransaction(
+                          () -> {
+                            equipmentDAO.lockEquipment(reservation.getEquipmentId());
+                            Reservation current = reservationDAO.getReservationById(reservationId);
+                            if (current == null
+                                || current.getStatus() != Reservation.ReservationStatus.PENDING) {
+                              return false;
+                            }
+                            if (!customerDAO.holdDeposit(
+                                rental.getCustomerId(), rental.getSecurityDeposit())) {
+                              throw new IllegalArgumentException(
+                                  "Customer deposit limit would be exceeded!");
+                            }
+                            if (!rentalDAO.createRental(rental)) {
+                              return false;
+                            }
+                            revenueReportService.rentalCreated(rental);
+                            return reservationDAO.updateReservationStatus(
+                                reservationId, Reservation.ReservationStatus.CONFIRMED);
+                          }));
+    } finally {
+      customerDAO.invalidateDepositHeadroom(rental.getCustomerId());
     }
-
-    return false;
+    if (converted) {
+      availabilityService.rentalCreated(rental);
+      overdueRentalService.rentalCreated(rental);
+      availabilityService.reservationStatusChanged(
+          reservationId, Reservation.ReservationStatus.CONFIRMED);
+    }
+    return converted;
   }
 
   public boolean createReservation(Reservation reservation, int customerId) throws SQLException {
     validateReservation(reservation);
 
-    // Check for overlapping reservations and rentals
+    // Cheap check against the availability index; repeated under the equipment lock below
     if (hasDateConflict(
         reservation.getEquipmentId(), reservation.getStartDate(), reservation.getEndDate())) {
       throw new IllegalArgumentException("Equipment not available for selected dates!");
@@ -111,10 +174,34 @@ public class ReservationService {
 
     // Generate reservation code
     reservation.setReservationCode(
-        "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        bookingCodeService.nextReservationCode(reservation.getBranchId()));
 
-    int reservationId = reservationDAO.createReservation(reservation);
-    return reservationId > 0;
+    int equipmentId = reservation.getEquipmentId();
+    LocalDate start = reservation.getStartDate();
+    LocalDate end = reservation.getEndDate();
+    int reservationId =
+        StripedLock.forBookings()
+            .withLock(
+                equipmentId,
+                () ->
+                    Transaction.inTransaction(
+                        () -> {
+                          if (!equipmentDAO.lockEquipment(equipmentId)) {
+                            throw new IllegalArgumentException("Equipment not found!");
+                          }
+                          if (rentalDAO.isEquipmentRented(equipmentId, start, end)
+                              || reservationDAO.hasOverlappingReservation(equipmentId, start, end)) {
+                            throw new IllegalArgumentException(
+                                "Equipment not available for selected dates!");
+                          }
+                          return reservationDAO.createReservation(reservation);
+                        }));
+    if (reservationId <= 0) {
+      return false;
+    }
+    reservation.setReservationId(reservationId);
+    availabilityService.reservationCreated(reservation);
+    return true;
   }
 
   public List<Reservation> getAllReservations() throws SQLException {
@@ -129,26 +216,38 @@ public class ReservationService {
     return reservationDAO.getReservationsByBranch(branchId);
   }
 
+  /** Get the page of reservation list rows that follows the given one (null for the first page) */
+  public List<ReservationListRow> getReservationsPage(
+      Integer branchId, String search, ReservationListRow after, int limit) throws SQLException {
+    return reservationDAO.getReservationsPage(branchId, search, after, limit);
+  }
+
   public boolean updateReservationStatus(int reservationId, Reservation.ReservationStatus status)
       throws SQLException {
-    return reservationDAO.updateReservationStatus(reservationId, status);
+    boolean updated = reservationDAO.updateReservationStatus(reservationId, status);
+    if (updated) {
+      availabilityService.reservationStatusChanged(reservationId, status);
+    }
+    return updated;
   }
 
   private boolean hasDateConflict(int equipmentId, LocalDate startDate, LocalDate endDate)
       throws SQLException {
-    // Check reservations
-    if (reservationDAO.hasOverlappingReservation(equipmentId, startDate, endDate)) {
-      return true;
-    }
-
-    // Check rentals (from RentalDAO)
-    return rentalDAO.isEquipmentRented(equipmentId, startDate, endDate);
+    // Reservations and rentals are both answered from the availability index
+    return !availabilityService.isEquipmentAvailable(equipmentId, startDate, endDate);
   }
 
+  /**
+   * Whether the equipment's deposit fits in the customer's remaining deposit limit. Nothing
+   * is held until the reservation is converted, which checks again.
+   */
   private boolean isCustomerDepositLimitValid(int customerId, Reservation reservation)
       throws SQLException {
-    // This will be implemented when we add deposit calculation
-    return true;
+    Equipment equipment = equipmentService.getEquipmentById(reservation.getEquipmentId());
+    BigDecimal headroom = customerDAO.getDepositHeadroom(customerId);
+    return equipment == null
+        || headroom == null
+        || equipment.getSecurityDeposit().compareTo(headroom) <= 0;
   }
 
   private void validateReservation(Reservation reservation) throws IllegalArgumentException {
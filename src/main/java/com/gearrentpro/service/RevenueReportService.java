@@ -0,0 +1,107 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.dao.ReturnDetailsDAO;
+import com.gearrentpro.dao.RevenueDAO;
+import com.gearrentpro.entity.BranchRevenue;
+import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.ReturnDetails;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Revenue report backed by the daily_branch_revenue rollup. Every rental that is not
+ * cancelled counts on its start date with its final payable amount and deposit; late fees
+ * and damage charges are added to the same day when it is returned. The rental services
+ * call the rentalCreated/rentalReturned/rentalStatusChanged hooks inside the transaction
+ * that writes the rental, so the rollup commits or rolls back with it.
+ */
+public class RevenueReportService {
+    private RevenueDAO revenueDAO;
+    private ReturnDetailsDAO returnDetailsDAO;
+    private static RevenueReportService instance;
+    
+    private RevenueReportService() {
+        this.revenueDAO = new RevenueDAO();
+        this.returnDetailsDAO = new ReturnDetailsDAO();
+    }
+    
+    public static synchronized RevenueReportService getInstance() {
+        if (instance == null) {
+            instance = new RevenueReportService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Revenue per branch for rentals started in the date range; null branchId means all branches
+     */
+    public List<BranchRevenue> getBranchRevenue(Integer branchId, LocalDate fromDate, LocalDate toDate)
+            throws SQLException {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Please select date range!");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date must be after start date!");
+        }
+        return revenueDAO.getBranchRevenue(branchId, fromDate, toDate);
+    }
+    
+    /**
+     * Add a newly inserted rental to the rollup
+     */
+    public void rentalCreated(Rental rental) throws SQLException {
+        if (countsAsRevenue(rental.getRentalStatus())) {
+            revenueDAO.adjustDailyRevenue(rental.getBranchId(), rental.getStartDate(), 1,
+                    rental.getFinalPayableAmount(), rental.getSecurityDeposit(),
+                    BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+    }
+    
+    /**
+     * Add the late fee and damage charge of a return to the day the rental started
+     */
+    public void rentalReturned(Rental rental, ReturnDetails returnDetails) throws SQLException {
+        if (countsAsRevenue(rental.getRentalStatus())) {
+            revenueDAO.adjustDailyRevenue(rental.getBranchId(), rental.getStartDate(), 0,
+                    BigDecimal.ZERO, BigDecimal.ZERO,
+                    orZero(returnDetails.getLateFee()), orZero(returnDetails.getDamageCharge()));
+        }
+    }
+    
+    /**
+     * Move a rental in or out of the rollup when it is cancelled or reinstated.
+     * The rental must still carry its status from before the change.
+     */
+    public void rentalStatusChanged(Rental rental, Rental.RentalStatus newStatus) throws SQLException {
+        boolean counted = countsAsRevenue(rental.getRentalStatus());
+        if (counted == countsAsRevenue(newStatus)) {
+            return;
+        }
+        
+        BigDecimal lateFees = BigDecimal.ZERO;
+        BigDecimal damageCharges = BigDecimal.ZERO;
+        ReturnDetails returnDetails = returnDetailsDAO.getReturnDetailsByRentalId(rental.getRentalId());
+        if (returnDetails != null) {
+            lateFees = orZero(returnDetails.getLateFee());
+            damageCharges = orZero(returnDetails.getDamageCharge());
+        }
+        
+        int sign = counted ? -1 : 1;
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        revenueDAO.adjustDailyRevenue(rental.getBranchId(), rental.getStartDate(), sign,
+                orZero(rental.getFinalPayableAmount()).multiply(factor),
+                orZero(rental.getSecurityDeposit()).multiply(factor),
+                lateFees.multiply(factor), damageCharges.multiply(factor));
+    }
+    
+    private static boolean countsAsRevenue(Rental.RentalStatus status) {
+        return status != Rental.RentalStatus.CANCELLED;
+    }
+    
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
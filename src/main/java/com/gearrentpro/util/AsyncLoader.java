@@ -0,0 +1,214 @@
+package com.gearrentpro.util;
+
+import javafx.concurrent.Task;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a screen's data-access calls on a bounded background pool so JDBC never
+ * blocks the JavaFX Application Thread. Results and errors are handed back on the
+ * FX thread. While calls are in flight the owner node shows a wait cursor (and a
+ * spinner as the placeholder of a TableView owner). Reads started with run are
+ * cancelled once the owner is removed from its scene, i.e. the user navigated away;
+ * writes started with submit always run to completion, so their outcome is still
+ * reported and a JDBC call is never interrupted half way through a commit.
+ *
+ * Create one loader per controller and use it from the FX thread only.
+ * Call latency is recorded per call name for diagnostics.
+ */
+public class AsyncLoader {
+
+    /**
+     * Blocking data-access call to run in the background
+     */
+    @FunctionalInterface
+    public interface DataCall<T> {
+        T call() throws Exception;
+    }
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    private static final Map<String, ConnectionPool.LatencyHistogram> LATENCIES = new ConcurrentHashMap<>();
+    private static final long SLOW_CALL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(DatabaseConfig.getIntProperty("async.slowCallMs", 500));
+
+    private final Node owner;
+    private final Set<Task<?>> running = new HashSet<>();
+    private final Set<Task<?>> reads = new HashSet<>();
+    private Cursor ownerCursor;
+    private Node ownerPlaceholder;
+
+    public AsyncLoader(Node owner) {
+        this.owner = owner;
+        owner.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                cancelReads();
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = Math.max(1, DatabaseConfig.getIntProperty("async.threads", 4));
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "db-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Run a read in the background and deliver its result or failure on the FX thread.
+     * The read is cancelled if the user leaves the screen first.
+     */
+    public <T> Task<T> run(String name, DataCall<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = start(name, work, onSuccess, onFailure);
+        reads.add(task);
+        return task;
+    }
+
+    /**
+     * Run a write in the background and deliver its result or failure on the FX thread.
+     * Unlike run, the call is not cancelled when the user leaves the screen.
+     */
+    public <T> Task<T> submit(String name, DataCall<T> work, Consumer<T> onSuccess,
+                              Consumer<Throwable> onFailure) {
+        return start(name, work, onSuccess, onFailure);
+    }
+
+    /**
+     * Cancel every read started by this loader that has not finished yet; writes carry on
+     */
+    public void cancelReads() {
+        for (Task<?> task : new ArrayList<>(reads)) {
+            task.cancel(true);
+        }
+    }
+
+    private <T> Task<T> start(String name, DataCall<T> work, Consumer<T> onSuccess,
+                              Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                long start = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    record(name, System.nanoTime() - start);
+                }
+            }
+        };
+        task.setOnSucceeded(e -> {
+            finished(task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            finished(task);
+            onFailure.accept(task.getException());
+        });
+        task.setOnCancelled(e -> finished(task));
+
+        started(task);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * True while any call started by this loader is in flight
+     */
+    public boolean isBusy() {
+        return !running.isEmpty();
+    }
+
+    /**
+     * Shared background pool (also used for list prefetching)
+     */
+    public static Executor getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Latency histograms keyed by call name
+     */
+    public static Map<String, ConnectionPool.LatencyHistogram> getLatencies() {
+        return new TreeMap<>(LATENCIES);
+    }
+
+    /**
+     * Pool and latency summary for diagnostics
+     */
+    public static String getStats() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("threads=").append(EXECUTOR.getPoolSize())
+          .append(", active=").append(EXECUTOR.getActiveCount())
+          .append(", queued=").append(EXECUTOR.getQueue().size());
+        for (Map.Entry<String, ConnectionPool.LatencyHistogram> entry : getLatencies().entrySet()) {
+            sb.append("\n  ").append(entry.getKey()).append(": {").append(entry.getValue()).append('}');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stop accepting work and interrupt running calls on application exit
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static void record(String name, long elapsedNanos) {
+        LATENCIES.computeIfAbsent(name, key -> new ConnectionPool.LatencyHistogram()).record(elapsedNanos);
+        if (elapsedNanos >= SLOW_CALL_NANOS) {
+            System.err.println("Slow data call " + name + ": " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms");
+        }
+    }
+
+    private void started(Task<?> task) {
+        if (running.isEmpty()) {
+            showBusy();
+        }
+        running.add(task);
+    }
+
+    private void finished(Task<?> task) {
+        reads.remove(task);
+        if (running.remove(task) && running.isEmpty()) {
+            hideBusy();
+        }
+    }
+
+    private void showBusy() {
+        ownerCursor = owner.getCursor();
+        owner.setCursor(Cursor.WAIT);
+        if (owner instanceof TableView) {
+            TableView<?> table = (TableView<?>) owner;
+            ownerPlaceholder = table.getPlaceholder();
+            ProgressIndicator spinner = new ProgressIndicator();
+            spinner.setMaxSize(48, 48);
+            table.setPlaceholder(spinner);
+        }
+    }
+
+    private void hideBusy() {
+        owner.setCursor(ownerCursor);
+        if (owner instanceof TableView) {
+            ((TableView<?>) owner).setPlaceholder(ownerPlaceholder);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.gearrentpro.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Outcome of a bulk write: how many rows succeeded and why each failed row failed
+ */
+public class BatchResult {
+
+    /**
+     * One rejected row
+     */
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /**
+         * Row number as counted by the caller (list position or file line)
+         */
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Row " + row + ": " + message;
+        }
+    }
+
+    private int succeeded;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void recordSuccess() {
+        succeeded++;
+    }
+
+    public void recordError(long row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    /**
+     * Add another result, shifting its row numbers by the given offset
+     */
+    public void addAll(BatchResult other, long rowOffset) {
+        addAll(other, row -> row + rowOffset);
+    }
+
+    /**
+     * Add another result, translating its row numbers (e.g. list positions to file lines)
+     */
+    public void addAll(BatchResult other, LongUnaryOperator rowMapping) {
+        succeeded += other.succeeded;
+        for (RowError error : other.errors) {
+            recordError(rowMapping.applyAsLong(error.getRow()), error.getMessage());
+        }
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Failed rows in row order
+     */
+    public List<RowError> getErrors() {
+        List<RowError> sorted = new ArrayList<>(errors);
+        sorted.sort(Comparator.comparingLong(RowError::getRow));
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return succeeded + " succeeded, " + errors.size() + " failed";
+    }
+}
@@ -0,0 +1,568 @@
+package com.gearrentpro.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded JDBC connection pool. Connections handed out are proxies whose
+ * close() returns the physical connection to the pool, so callers keep
+ * using try-with-resources exactly as before. Each physical connection keeps
+ * an LRU cache of its prepared statements, so repeated SQL is only parsed
+ * (server-side prepared) once per connection.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minIdle;
+    private final int maxIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionThresholdMillis;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<Connection> idleConnections = new LinkedBlockingDeque<>();
+    private final Map<Connection, Lease> leasedConnections = new ConcurrentHashMap<>();
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final LatencyHistogram borrowLatency = new LatencyHistogram();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, Properties connectionProperties, int minIdle, int maxIdle, int maxSize,
+                          long borrowTimeoutMillis, int validationTimeoutSeconds,
+                          long leakDetectionThresholdMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool max size must be greater than 0!");
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.maxSize = maxSize;
+        this.maxIdle = Math.max(0, Math.min(maxIdle, maxSize));
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxIdle));
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMillis = leakDetectionThresholdMillis > 0
+                ? Math.max(1000, Math.min(leakDetectionThresholdMillis / 2, 30000))
+                : 30000;
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout for a free slot
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis +
+                        " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            Connection physical = takeValidIdleConnection();
+            if (physical == null) {
+                physical = openConnection();
+            }
+
+            Lease lease = new Lease(leakDetectionThresholdMillis > 0
+                    ? new Throwable("Connection borrowed here") : null);
+            leasedConnections.put(physical, lease);
+            borrowLatency.record(System.nanoTime() - start);
+            return wrap(physical, lease);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and stop the housekeeping thread
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        Connection conn;
+        while ((conn = idleConnections.pollFirst()) != null) {
+            closePhysical(conn);
+        }
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public int getActiveConnections() {
+        return leasedConnections.size();
+    }
+
+    public LatencyHistogram getBorrowLatency() {
+        return borrowLatency;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.get();
+    }
+
+    /**
+     * Pool summary for diagnostics
+     */
+    public String getStats() {
+        return "total=" + getTotalConnections() + ", active=" + getActiveConnections() +
+               ", idle=" + getIdleConnections() + ", max=" + maxSize +
+               ", statementCache={hits=" + getStatementCacheHits() + ", misses=" + getStatementCacheMisses() +
+               ", evictions=" + getStatementCacheEvictions() + "}" +
+               ", borrowLatency={" + borrowLatency + "}";
+    }
+
+    /**
+     * Pop idle connections (most recently used first) until one passes isValid
+     */
+    private Connection takeValidIdleConnection() {
+        Connection conn;
+        while ((conn = idleConnections.pollFirst()) != null) {
+            try {
+                if (conn.isValid(validationTimeoutSeconds)) {
+                    return conn;
+                }
+            } catch (SQLException e) {
+                // treated as invalid below
+            }
+            closePhysical(conn);
+        }
+        return null;
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, connectionProperties);
+        totalConnections.incrementAndGet();
+        if (statementCacheSize > 0) {
+            statementCaches.put(conn, new StatementCache());
+        }
+        return conn;
+    }
+
+    private void closePhysical(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.closeAll();
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection: " + e.getMessage());
+        } finally {
+            totalConnections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Return a physical connection to the pool, resetting per-session state
+     */
+    private void release(Connection physical) {
+        leasedConnections.remove(physical);
+        try {
+            boolean reusable = !shutdown && !physical.isClosed();
+            if (reusable) {
+                try {
+                    if (!physical.getAutoCommit()) {
+                        physical.rollback();
+                        physical.setAutoCommit(true);
+                    }
+                    physical.clearWarnings();
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+
+            if (reusable && idleConnections.size() < maxIdle) {
+                idleConnections.offerFirst(physical);
+            } else {
+                closePhysical(physical);
+            }
+        } catch (SQLException e) {
+            closePhysical(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Report leaked connections and keep at least minIdle connections warm
+     */
+    private void housekeep() {
+        if (leakDetectionThresholdMillis > 0) {
+            long now = System.currentTimeMillis();
+            for (Lease lease : leasedConnections.values()) {
+                if (!lease.reported && now - lease.borrowedAt > leakDetectionThresholdMillis) {
+                    lease.reported = true;
+                    System.err.println("Possible connection leak: connection held for " +
+                            (now - lease.borrowedAt) + " ms");
+                    if (lease.borrowSite != null) {
+                        lease.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        while (!shutdown && idleConnections.size() < minIdle && totalConnections.get() < maxSize) {
+            try {
+                idleConnections.offerLast(openConnection());
+            } catch (SQLException e) {
+                System.err.println("Failed to pre-open pooled connection: " + e.getMessage());
+                break;
+            }
+        }
+    }
+
+    private Connection wrap(Connection physical, Lease lease) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical, lease));
+    }
+
+    /**
+     * Book-keeping for one borrowed connection
+     */
+    private static class Lease {
+        final long borrowedAt = System.currentTimeMillis();
+        final Throwable borrowSite;
+        volatile boolean reported;
+
+        Lease(Throwable borrowSite) {
+            this.borrowSite = borrowSite;
+        }
+    }
+
+    /**
+     * Delegates to the physical connection; close() hands it back to the pool
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final Lease lease;
+        private final StatementCache statementCache;
+        private boolean closed;
+
+        PooledConnectionHandler(Connection physical, Lease lease) {
+            this.physical = physical;
+            this.lease = lease;
+            this.statementCache = statementCaches.get(physical);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+
+            if (statementCache != null && "prepareStatement".equals(method.getName()) && isCacheable(args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : -1;
+                return statementCache.prepare((Connection) proxy, physical, (String) args[0], autoGeneratedKeys);
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached;
+     * cursor-type variants are used for one-off streaming queries
+     */
+    private static boolean isCacheable(Object[] args) {
+        return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+    }
+
+    /**
+     * One cached statement; only one borrower may use it at a time. The driver's
+     * defaults are kept so check-in can undo settings a borrower changed.
+     */
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        final int defaultFetchSize;
+        final int defaultMaxRows;
+        final int defaultQueryTimeout;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        /**
+         * Clear parameters and batch and restore fetch size, max rows and query timeout,
+         * so the next borrower of the same SQL does not inherit them
+         */
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+            // Max rows first: some drivers reject a fetch size above the current max rows
+            if (statement.getMaxRows() != defaultMaxRows) {
+                statement.setMaxRows(defaultMaxRows);
+            }
+            if (statement.getFetchSize() != defaultFetchSize) {
+                statement.setFetchSize(defaultFetchSize);
+            }
+            if (statement.getQueryTimeout() != defaultQueryTimeout) {
+                statement.setQueryTimeout(defaultQueryTimeout);
+            }
+        }
+    }
+
+    /**
+     * LRU cache of prepared statements for a single physical connection
+     */
+    private class StatementCache {
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized PreparedStatement prepare(Connection owner, Connection physical,
+                                               String sql, int autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys + ":" + sql;
+            CachedStatement cached = statements.get(key);
+
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+                cached.inUse = true;
+                return wrapStatement(owner, cached);
+            }
+
+            statementCacheMisses.incrementAndGet();
+            PreparedStatement statement = autoGeneratedKeys >= 0
+                    ? physical.prepareStatement(sql, autoGeneratedKeys)
+                    : physical.prepareStatement(sql);
+
+            if (cached != null) {
+                // Same SQL already checked out on this connection: hand out an uncached statement
+                return statement;
+            }
+
+            CachedStatement entry = new CachedStatement(statement);
+            entry.inUse = true;
+            statements.put(key, entry);
+            evictOverflow();
+            return wrapStatement(owner, entry);
+        }
+
+        synchronized void checkIn(CachedStatement cached) throws SQLException {
+            cached.inUse = false;
+            if (cached.evicted) {
+                cached.statement.close();
+            } else {
+                cached.reset();
+            }
+        }
+
+        synchronized void closeAll() {
+            for (CachedStatement cached : statements.values()) {
+                closeQuietly(cached.statement);
+            }
+            statements.clear();
+        }
+
+        private void evictOverflow() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                it.remove();
+                statementCacheEvictions.incrementAndGet();
+                if (eldest.inUse) {
+                    eldest.evicted = true;
+                } else {
+                    closeQuietly(eldest.statement);
+                }
+            }
+        }
+
+        private PreparedStatement wrapStatement(Connection owner, CachedStatement cached) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(owner, this, cached));
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // connection is going away anyway
+        }
+    }
+
+    /**
+     * close() returns the statement to its cache instead of closing it
+     */
+    private static class CachedStatementHandler implements InvocationHandler {
+        private final Connection owner;
+        private final StatementCache cache;
+        private final CachedStatement cached;
+        private boolean closed;
+
+        CachedStatementHandler(Connection owner, StatementCache cache, CachedStatement cached) {
+            this.owner = owner;
+            this.cache = cache;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cache.checkIn(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Fixed-bucket latency histogram (lock-free)
+     */
+    public static class LatencyHistogram {
+        private static final long[] BUCKET_UPPER_MICROS = {
+            100, 1_000, 5_000, 10_000, 50_000, 100_000, 500_000, 1_000_000, Long.MAX_VALUE
+        };
+        private static final String[] BUCKET_LABELS = {
+            "<100us", "<1ms", "<5ms", "<10ms", "<50ms", "<100ms", "<500ms", "<1s", ">=1s"
+        };
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_UPPER_MICROS.length);
+
+        public void record(long elapsedNanos) {
+            long micros = elapsedNanos / 1000;
+            for (int i = 0; i < BUCKET_UPPER_MICROS.length; i++) {
+                if (micros < BUCKET_UPPER_MICROS[i]) {
+                    counts.incrementAndGet(i);
+                    return;
+                }
+            }
+        }
+
+        public long[] getCounts() {
+            long[] snapshot = new long[counts.length()];
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+            }
+            return snapshot;
+        }
+
+        public static String[] getBucketLabels() {
+            return BUCKET_LABELS.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < BUCKET_LABELS.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(BUCKET_LABELS[i]).append('=').append(counts.get(i));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gearrentpro.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CSV writer over a buffered file channel, the counterpart of CsvReader. Records are
+ * encoded into a 64 KiB buffer and flushed to the channel in large writes, so exports
+ * of any size run in constant memory. Fields containing commas, quotes or line breaks
+ * are quoted; records end with CRLF as spreadsheet applications expect.
+ */
+public class CsvWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private long records;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Create or truncate the file and write UTF-8 to it
+     */
+    public static CsvWriter open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+        return new CsvWriter(new BufferedWriter(writer, BUFFER_SIZE));
+    }
+
+    /**
+     * Write one record; null fields are written empty
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+        records++;
+    }
+
+    /**
+     * Records written so far, header included
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
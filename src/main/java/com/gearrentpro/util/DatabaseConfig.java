@@ -3,12 +3,12 @@ package com.gearrentpro.util;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class DatabaseConfig {
     private static final Properties properties = new Properties();
+    private static ConnectionPool pool;
 
     static {
         try (InputStream input = DatabaseConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
@@ -20,10 +20,74 @@ public class DatabaseConfig {
         } catch (IOException | ClassNotFoundException ex) {
             ex.printStackTrace();
         }
+        pool = createPool();
     }
 
+    /**
+     * Build the connection pool from the db.pool.* settings
+     */
+    private static ConnectionPool createPool() {
+        Properties connectionProperties = new Properties();
+        if (properties.getProperty("db.user") != null) {
+            connectionProperties.setProperty("user", properties.getProperty("db.user"));
+        }
+        if (properties.getProperty("db.password") != null) {
+            connectionProperties.setProperty("password", properties.getProperty("db.password"));
+        }
+        String url = properties.getProperty("db.url");
+        if (url != null && url.startsWith("jdbc:mysql:")) {
+            // Prepare on the server so the per-connection statement cache skips re-parsing
+            connectionProperties.setProperty("useServerPrepStmts", "true");
+            // Send JdbcBatch inserts as multi-row statements
+            connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        }
+
+        return new ConnectionPool(
+                url,
+                connectionProperties,
+                getIntProperty("db.pool.minIdle", 2),
+                getIntProperty("db.pool.maxIdle", 5),
+                getIntProperty("db.pool.maxSize", 10),
+                getIntProperty("db.pool.borrowTimeoutMs", 10000),
+                getIntProperty("db.pool.validationTimeoutSec", 2),
+                getIntProperty("db.pool.leakDetectionThresholdMs", 60000),
+                getIntProperty("db.pool.statementCacheSize", 64));
+    }
+
+    /**
+     * Read an integer setting, falling back to the default when missing or invalid
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Borrow a pooled connection, or the current thread's transaction connection
+     * when called inside Transaction.inTransaction
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(properties.getProperty("db.url"), properties.getProperty("db.user"), properties.getProperty("db.password"));
+        Connection transaction = Transaction.current();
+        return transaction != null ? transaction : pool.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Close pooled connections on application exit
+     */
+    public static void shutdown() {
+        pool.shutdown();
     }
 
     public static boolean testConnection() {
@@ -34,4 +98,4 @@ public class DatabaseConfig {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,6 @@ package com.gearrentpro.util;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
 
 public class DateUtils {
     
@@ -24,20 +22,25 @@ public class DateUtils {
     }
     
     /**
-     * Get all weekend days in date range
+     * Get all weekend days in date range (inclusive), computed from whole weeks
+     * plus the at most six leftover days
      */
     public static int countWeekendDays(LocalDate startDate, LocalDate endDate) {
-        int weekendDays = 0;
-        LocalDate current = startDate;
-        
-        while (!current.isAfter(endDate)) {
-            if (isWeekend(current)) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days <= 0) {
+            return 0;
+        }
+
+        long weekendDays = (days / 7) * 2;
+        int firstDay = startDate.getDayOfWeek().getValue();
+        for (int i = 0; i < days % 7; i++) {
+            int dayOfWeek = (firstDay - 1 + i) % 7 + 1;
+            if (dayOfWeek == DayOfWeek.SATURDAY.getValue() || dayOfWeek == DayOfWeek.SUNDAY.getValue()) {
                 weekendDays++;
             }
-            current = current.plusDays(1);
         }
-        
-        return weekendDays;
+
+        return (int) weekendDays;
     }
     
     /**
@@ -0,0 +1,42 @@
+package com.gearrentpro.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Name-to-constant table for an enum stored as text, built once per enum type. Replaces
+ * Enum.valueOf in row mappers, which checks its arguments and goes through the class's
+ * lazily built constant directory on every call.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final Map<String, E> byName;
+
+    private EnumLookup(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        this.byName = new HashMap<>(constants.length * 2);
+        for (E constant : constants) {
+            byName.put(constant.name(), constant);
+        }
+    }
+
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type) {
+        return new EnumLookup<>(type);
+    }
+
+    /**
+     * The constant with this name; unknown names fail like Enum.valueOf, null gives null
+     */
+    public E get(String name) {
+        if (name == null) {
+            return null;
+        }
+        E constant = byName.get(name);
+        if (constant == null) {
+            throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + name);
+        }
+        return constant;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gearrentpro.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Structured fan-out of independent lookups on virtual threads, so a service
+ * method waits for the slowest lookup rather than the sum of all of them.
+ *
+ * <pre>
+ * try (FanOut fanOut = new FanOut()) {
+ *     FanOut.Subtask&lt;Equipment&gt; equipment = fanOut.fork(() -&gt; equipmentDAO.getEquipmentById(id));
+ *     FanOut.Subtask&lt;Customer&gt; customer = fanOut.fork(() -&gt; customerDAO.getCustomerById(customerId));
+ *     fanOut.join();
+ *     ... equipment.get(), customer.get() ...
+ * }
+ * </pre>
+ *
+ * The first failure cancels the remaining lookups and is rethrown from join().
+ * Closing the scope waits for every lookup, so none outlives the block that forked it.
+ * Each lookup borrows its own pooled connection.
+ */
+public class FanOut implements AutoCloseable {
+
+    /**
+     * Blocking lookup to run on its own virtual thread
+     */
+    @FunctionalInterface
+    public interface Lookup<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Handle to a forked lookup; its value is available after join()
+     */
+    public static class Subtask<T> {
+        private final Future<T> future;
+
+        private Subtask(Future<T> future) {
+            this.future = future;
+        }
+
+        public T get() {
+            if (!future.isDone() || future.isCancelled()) {
+                throw new IllegalStateException("Lookup has not completed; call join() first");
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Lookup failed", e);
+            }
+        }
+    }
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+    private final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+    private final List<Future<Object>> forks = new ArrayList<>();
+
+    /**
+     * Start a lookup on a new virtual thread
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Subtask<T> fork(Lookup<T> lookup) {
+        Future<Object> future = completion.submit(lookup::call);
+        forks.add(future);
+        return new Subtask<>((Future<T>) (Future<?>) future);
+    }
+
+    /**
+     * Wait for every forked lookup; on the first failure cancel the rest and rethrow it
+     */
+    public void join() throws SQLException {
+        try {
+            for (int i = 0; i < forks.size(); i++) {
+                Future<Object> done = completion.take();
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw rethrow(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for lookups", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        for (Future<Object> future : forks) {
+            future.cancel(true);
+        }
+    }
+
+    private static SQLException rethrow(Throwable cause) {
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SQLException("Lookup failed", cause);
+    }
+}
@@ -0,0 +1,97 @@
+package com.gearrentpro.util;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique numbers per key from blocks reserved in the database (hi/lo). A block
+ * of blockSize numbers costs one round trip. Each thread carves its own run of up to
+ * SUB_BLOCK_SIZE numbers out of the block with one atomic add and serves the rest from
+ * it without touching shared state, so the block counter sees one update per run rather
+ * than one per number. Threads still wait for each other while a spent block is replaced.
+ * Numbers left in a block or a thread's run when the process or thread ends are never
+ * used, so sequences have gaps and are not issued in order across threads.
+ */
+public class HiLoAllocator {
+
+    /**
+     * Reserves blockSize numbers for the key and returns the first; no other caller, in
+     * this or any other process, may ever get the same range
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+        long reserve(String key, int blockSize) throws SQLException;
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+
+    private static final int SUB_BLOCK_SIZE = 16;
+
+    private final BlockSource source;
+    private final int blockSize;
+    private final int subBlockSize;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+    // Per thread and key: {next, end} of the run the thread is serving
+    private final ThreadLocal<Map<String, long[]>> runs = ThreadLocal.withInitial(HashMap::new);
+
+    public HiLoAllocator(BlockSource source, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be greater than 0!");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+        this.subBlockSize = Math.min(SUB_BLOCK_SIZE, blockSize);
+    }
+
+    /**
+     * Next unused number for the key
+     */
+    public long next(String key) throws SQLException {
+        Map<String, long[]> threadRuns = runs.get();
+        long[] run = threadRuns.get(key);
+        if (run != null && run[0] < run[1]) {
+            return run[0]++;
+        }
+        while (true) {
+            Block block = blocks.get(key);
+            if (block != null) {
+                long first = block.next.getAndAdd(subBlockSize);
+                if (first < block.end) {
+                    // The last run of a block may be short
+                    threadRuns.put(key, new long[] {first + 1, Math.min(first + subBlockSize, block.end)});
+                    return first;
+                }
+            }
+            refill(key, block);
+        }
+    }
+
+    private void refill(String key, Block spent) throws SQLException {
+        // A lock rather than synchronized: the reservation is a database round trip
+        ReentrantLock lock = refillLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (blocks.get(key) != spent) {
+                // Another thread has already replaced it
+                return;
+            }
+            long first = source.reserve(key, blockSize);
+            blocks.put(key, new Block(first, first + blockSize));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gearrentpro.util;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+/**
+ * Runs one prepared statement for many rows with addBatch/executeBatch. Rows are sent
+ * in chunks of db.batchSize (default 500), each committed in its own transaction, so a
+ * large import neither holds locks for its whole run nor loses finished chunks on a late
+ * failure. With rewriteBatchedStatements (set for MySQL by DatabaseConfig) a chunk of
+ * inserts travels as one multi-row statement.
+ *
+ * If a chunk fails it is rolled back to just before the batch and replayed row by row,
+ * so only the offending rows are reported and the rest are still written.
+ */
+public final class JdbcBatch {
+
+    /**
+     * Sets the statement parameters for one row
+     */
+    @FunctionalInterface
+    public interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    private JdbcBatch() {
+    }
+
+    /**
+     * Rows per executeBatch and per commit
+     */
+    public static int getBatchSize() {
+        return Math.max(1, DatabaseConfig.getIntProperty("db.batchSize", 500));
+    }
+
+    /**
+     * Execute the statement for every row. Row numbers in the result are list positions
+     * (0-based). A row whose statement changed nothing, such as an UPDATE with a stale
+     * version, is reported with noRowsMessage.
+     */
+    public static <T> BatchResult execute(String sql, List<T> rows, Binder<T> binder,
+                                          String noRowsMessage) throws SQLException {
+        BatchResult result = new BatchResult();
+        int batchSize = getBatchSize();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            int offset = from;
+            List<T> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            BatchResult chunkResult = Transaction.inTransaction(() -> executeChunk(sql, chunk, binder, noRowsMessage));
+            result.addAll(chunkResult, offset);
+        }
+        return result;
+    }
+
+    private static <T> BatchResult executeChunk(String sql, List<T> chunk, Binder<T> binder,
+                                                String noRowsMessage) throws SQLException {
+        BatchResult result = new BatchResult();
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (T row : chunk) {
+                binder.bind(stmt, row);
+                stmt.addBatch();
+            }
+
+            Savepoint beforeBatch = conn.setSavepoint();
+            int[] counts;
+            try {
+                counts = stmt.executeBatch();
+            } catch (BatchUpdateException e) {
+                // Which rows failed is driver-dependent (and lost when rewritten), so replay
+                conn.rollback(beforeBatch);
+                stmt.clearBatch();
+                executeRowByRow(stmt, chunk, binder, noRowsMessage, result);
+                return result;
+            }
+
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO (-2) is what rewritten batches report
+                if (counts[i] == 0) {
+                    result.recordError(i, noRowsMessage);
+                } else {
+                    result.recordSuccess();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <T> void executeRowByRow(PreparedStatement stmt, List<T> chunk, Binder<T> binder,
+                                            String noRowsMessage, BatchResult result) throws SQLException {
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                binder.bind(stmt, chunk.get(i));
+                if (stmt.executeUpdate() == 0) {
+                    result.recordError(i, noRowsMessage);
+                } else {
+                    result.recordSuccess();
+                }
+            } catch (SQLException e) {
+                result.recordError(i, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.gearrentpro.util;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read-only ObservableList for TableView that loads rows a page at a time.
+ * Only the row count is queried up front; pages are fetched in the background
+ * when a visible cell asks for them, kept in a small LRU cache, and the next
+ * page is prefetched as the user scrolls towards it. Until its page arrives a
+ * row reads as the placeholder given to the constructor (never null); the rows
+ * are then reported as replaced so the table redraws them.
+ *
+ * Pages are read by keyset from the last row of the previous page whenever
+ * that row is known, and by offset only after a jump (dragging the scroll bar).
+ * Must only be used from the JavaFX Application Thread once shown; the
+ * constructor runs the count query, so build the list in the background (see
+ * AsyncLoader). Create a new list to change the query or pick up new rows.
+ */
+public class LazyPagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Paged query behind the list
+     */
+    public interface PageSource<T> {
+        /** Total number of rows */
+        int count() throws SQLException;
+
+        /** Rows following the given row in list order (null for the first page) */
+        List<T> fetchAfter(T after, int limit) throws SQLException;
+
+        /** Rows starting at the given position */
+        List<T> fetchAt(int offset, int limit) throws SQLException;
+    }
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final int maxCachedPages;
+    private final T placeholder;
+    private final Consumer<SQLException> errorHandler;
+    private final int size;
+    private final Map<Integer, List<T>> pages;
+    // Last row of every page seen so far: the keyset cursor for the page after it
+    private final Map<Integer, T> lastRows = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    // Pages whose rows were handed out as placeholders and must be redrawn on arrival
+    private final Set<Integer> waiting = new HashSet<>();
+
+    public LazyPagedList(PageSource<T> source, int pageSize, int maxCachedPages, T placeholder,
+                         Consumer<SQLException> errorHandler) throws SQLException {
+        this.source = source;
+        this.placeholder = placeholder;
+        this.pageSize = pageSize;
+        this.maxCachedPages = Math.max(2, maxCachedPages);
+        this.errorHandler = errorHandler;
+        this.size = source.count();
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > LazyPagedList.this.maxCachedPages;
+            }
+        };
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int pageIndex = index / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            waiting.add(pageIndex);
+            load(pageIndex);
+            return placeholder;
+        }
+
+        // Past the middle of a page, fetch the next one before it is needed
+        if (index % pageSize >= pageSize / 2) {
+            load(pageIndex + 1);
+        }
+
+        int offset = index % pageSize;
+        // Rows deleted since the count leave the end of a page short
+        return offset < page.size() ? page.get(offset) : placeholder;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of pages currently held in memory
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void storePage(int pageIndex, List<T> page) {
+        pages.put(pageIndex, Collections.unmodifiableList(page));
+        if (!page.isEmpty()) {
+            lastRows.put(pageIndex, page.get(page.size() - 1));
+        }
+    }
+
+    private void load(int pageIndex) {
+        if (pageIndex * pageSize >= size || pages.containsKey(pageIndex) || !loading.add(pageIndex)) {
+            return;
+        }
+        // Read by keyset from the previous page's last row when known, by offset after a jump
+        T previousLast = pageIndex == 0 ? null : lastRows.get(pageIndex - 1);
+        boolean byKeyset = pageIndex == 0 || previousLast != null;
+        AsyncLoader.getExecutor().execute(() -> {
+            try {
+                List<T> page = byKeyset
+                        ? source.fetchAfter(previousLast, pageSize)
+                        : source.fetchAt(pageIndex * pageSize, pageSize);
+                Platform.runLater(() -> loaded(pageIndex, page));
+            } catch (SQLException e) {
+                Platform.runLater(() -> {
+                    loading.remove(pageIndex);
+                    // A failed prefetch is retried when the page is shown; report only shown pages
+                    if (waiting.remove(pageIndex)) {
+                        errorHandler.accept(e);
+                    }
+                });
+            }
+        });
+    }
+
+    private void loaded(int pageIndex, List<T> page) {
+        loading.remove(pageIndex);
+        if (!pages.containsKey(pageIndex)) {
+            storePage(pageIndex, page);
+        }
+        if (waiting.remove(pageIndex)) {
+            int from = pageIndex * pageSize;
+            int to = Math.min(size, from + pageSize);
+            beginChange();
+            nextReplace(from, to, Collections.nCopies(to - from, placeholder));
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.gearrentpro.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for data read far more often than it changes (categories,
+ * branches, equipment).
+ * Entries expire after cache.reference.ttlSeconds and the least recently used
+ * entry is dropped once cache.reference.maxEntries is reached. DAOs invalidate
+ * entries they change, so edits made in this application show up immediately;
+ * the TTL bounds staleness for edits made elsewhere.
+ *
+ * Cached values are returned as stored; callers handing them to code that may
+ * modify them should return copies.
+ */
+public class ReferenceDataCache<K, V> {
+
+    /**
+     * Loads a value on a cache miss
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    /**
+     * Loads the values for several missed keys at once; keys without a value are left out
+     */
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        Map<K, V> load(Collection<K> keys) throws SQLException;
+    }
+
+    private static final List<ReferenceDataCache<?, ?>> CACHES = new ArrayList<>();
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped on every invalidation so a load that raced with one is not stored
+    private long generation;
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public ReferenceDataCache(String name, long ttlSeconds, int maxEntries) {
+        this.name = name;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReferenceDataCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        synchronized (CACHES) {
+            CACHES.add(this);
+        }
+    }
+
+    /**
+     * Cache configured from cache.reference.ttlSeconds (default 300; 0 disables caching)
+     * and cache.reference.maxEntries (default 1000)
+     */
+    public static <K, V> ReferenceDataCache<K, V> create(String name) {
+        return new ReferenceDataCache<>(name,
+                DatabaseConfig.getIntProperty("cache.reference.ttlSeconds", 300),
+                DatabaseConfig.getIntProperty("cache.reference.maxEntries", 1000));
+    }
+
+    /**
+     * Return the cached value, loading it on a miss or after expiry.
+     * Null results are not cached.
+     */
+    public V get(K key, Loader<V> loader) throws SQLException {
+        if (ttlNanos <= 0) {
+            misses.incrementAndGet();
+            return loader.load();
+        }
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock; concurrent misses for one key may both query
+        misses.incrementAndGet();
+        V value = loader.load();
+        if (value != null) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, now));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Return the values for the given keys in key order, loading every miss with
+     * a single call to the bulk loader. Keys without a value are left out.
+     */
+    public Map<K, V> getAll(Collection<K> keys, BulkLoader<K, V> loader) throws SQLException {
+        Map<K, V> result = new LinkedHashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        long loadGeneration;
+        synchronized (entries) {
+            for (K key : keys) {
+                Entry<V> entry = ttlNanos > 0 ? entries.get(key) : null;
+                if (entry != null && now - entry.loadedAt < ttlNanos) {
+                    result.put(key, entry.value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            loadGeneration = generation;
+        }
+        hits.addAndGet(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        misses.addAndGet(missing.size());
+        Map<K, V> loaded = loader.load(missing);
+        if (ttlNanos > 0) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    for (Map.Entry<K, V> value : loaded.entrySet()) {
+                        if (value.getValue() != null) {
+                            entries.put(value.getKey(), new Entry<>(value.getValue(), now));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Rebuild in the caller's key order
+        Map<K, V> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = result.containsKey(key) ? result.get(key) : loaded.get(key);
+            if (value != null) {
+                ordered.put(key, value);
+            }
+        }
+        return ordered;
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Share of lookups served from the cache, 0 to 1
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%",
+                name, size(), maxEntries, getHits(), getMisses(), getEvictions(), getHitRatio() * 100);
+    }
+
+    /**
+     * Every cache created so far
+     */
+    public static List<ReferenceDataCache<?, ?>> getCaches() {
+        synchronized (CACHES) {
+            return new ArrayList<>(CACHES);
+        }
+    }
+
+    /**
+     * Drop all entries in every cache
+     */
+    public static void invalidateAllCaches() {
+        for (ReferenceDataCache<?, ?> cache : getCaches()) {
+            cache.invalidateAll();
+        }
+    }
+}
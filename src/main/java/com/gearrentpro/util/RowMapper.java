@@ -0,0 +1,75 @@
+package com.gearrentpro.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps result set rows to objects by column position. The binder looks up the positions
+ * of the columns it needs once per result set and returns a reader that uses only those
+ * positions, so rows are read without the driver's per-call label search. Mappers are
+ * stateless: keep one static instance per query shape and share it between threads.
+ */
+public final class RowMapper<T> {
+
+    /**
+     * Reads the current row using positions resolved by the binder
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Resolves the columns a reader needs and returns the reader
+     */
+    @FunctionalInterface
+    public interface Binder<T> {
+        RowReader<T> bind(Columns columns) throws SQLException;
+    }
+
+    /**
+     * Column positions of one result set, by lower-case label
+     */
+    public static final class Columns {
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        private Columns(ResultSetMetaData metaData) throws SQLException {
+            for (int i = metaData.getColumnCount(); i >= 1; i--) {
+                // Iterate backwards so that, like ResultSet.findColumn, the first match wins
+                positions.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        /**
+         * 1-based position of the column
+         */
+        public int get(String label) throws SQLException {
+            Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new SQLException("Column not found in result set: " + label);
+            }
+            return position;
+        }
+    }
+
+    private final Binder<T> binder;
+
+    private RowMapper(Binder<T> binder) {
+        this.binder = binder;
+    }
+
+    public static <T> RowMapper<T> of(Binder<T> binder) {
+        return new RowMapper<>(binder);
+    }
+
+    /**
+     * Resolve the columns of this result set; use the reader for each of its rows
+     */
+    public RowReader<T> bind(ResultSet rs) throws SQLException {
+        return binder.bind(new Columns(rs.getMetaData()));
+    }
+}
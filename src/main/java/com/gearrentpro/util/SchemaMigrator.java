@@ -0,0 +1,218 @@
+package com.gearrentpro.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations. Scripts live in /db/migration on the classpath,
+ * are applied in order once each, and are recorded in the schema_version table.
+ * CREATE INDEX statements are skipped when the index already exists, so a script that
+ * failed part way can simply be re-run. After migrating on MySQL, the hot rental
+ * queries are EXPLAINed and startup fails if the index meant for one is not usable.
+ */
+public class SchemaMigrator {
+
+    /** Migration scripts in version order; append new ones at the end */
+    private static final String[] MIGRATIONS = {
+            "V1__create_schema.sql",
+            "V2__rental_query_indexes.sql",
+            "V3__keyset_pagination_indexes.sql",
+            "V4__equipment_version.sql",
+            "V5__daily_branch_revenue.sql",
+            "V6__customer_outstanding_deposit.sql",
+            "V7__code_sequences.sql",
+            "V8__rental_status_start_index.sql"
+    };
+
+    /**
+     * Queries that must be served from an index (same predicates as the DAOs), each with
+     * the index the migrations create for it
+     */
+    private static final String[][] HOT_QUERIES = {
+            {"idx_rentals_equipment_status_dates",
+                    "SELECT COUNT(*) FROM rentals WHERE equipment_id = 1 AND rental_status IN ('ACTIVE', 'OVERDUE') " +
+                    "AND start_date <= CURDATE() AND end_date >= CURDATE()"},
+            {"idx_rentals_customer_status",
+                    "SELECT * FROM rentals WHERE customer_id = 1 AND rental_status IN ('ACTIVE', 'OVERDUE') " +
+                    "ORDER BY start_date"},
+            {"idx_rentals_branch_start",
+                    "SELECT * FROM rentals WHERE branch_id = 1 ORDER BY start_date DESC"},
+            {"idx_rentals_status_start",
+                    "SELECT * FROM rentals WHERE rental_status = 'ACTIVE' " +
+                    "ORDER BY start_date DESC, rental_id DESC LIMIT 100"},
+            {"idx_rentals_status_end",
+                    "SELECT * FROM rentals WHERE rental_status IN ('ACTIVE', 'OVERDUE') AND CURDATE() > end_date " +
+                    "ORDER BY end_date"},
+            {"idx_rentals_status_end",
+                    "UPDATE rentals SET rental_status = 'OVERDUE' WHERE rental_status = 'ACTIVE' " +
+                    "AND end_date < CURDATE()"},
+            {"idx_reservations_equipment_status_dates",
+                    "SELECT COUNT(*) FROM reservations WHERE equipment_id = 1 AND status IN ('PENDING', 'CONFIRMED') " +
+                    "AND start_date <= CURDATE() AND end_date >= CURDATE()"}
+    };
+
+    /** CREATE INDEX name ON table, so a re-run can skip indexes that already exist */
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("(?is)^CREATE\\s+INDEX\\s+(\\w+)\\s+ON\\s+(\\w+).*");
+
+    private SchemaMigrator() {}
+
+    /**
+     * Apply pending migrations, then run the EXPLAIN self-check
+     */
+    public static void migrate() throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            createVersionTable(conn);
+            int current = getCurrentVersion(conn);
+
+            for (int i = 0; i < MIGRATIONS.length; i++) {
+                int version = i + 1;
+                if (version <= current) {
+                    continue;
+                }
+                String script = MIGRATIONS[i];
+                System.out.println("Applying migration " + script);
+                for (String sql : readStatements(script)) {
+                    if (indexExists(conn, sql)) {
+                        continue;
+                    }
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(sql);
+                    }
+                }
+                recordVersion(conn, version, script);
+            }
+
+            if (conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")) {
+                checkQueryPlans(conn);
+            }
+        }
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_version (" +
+                     "version INT PRIMARY KEY, " +
+                     "script VARCHAR(255) NOT NULL, " +
+                     "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static int getCurrentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(version) FROM schema_version");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, int version, String script) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, script) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, version);
+            stmt.setString(2, script);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * True when the statement is a CREATE INDEX whose index is already on the table, as
+     * after a migration that failed part way through (MySQL has no CREATE INDEX IF NOT EXISTS)
+     */
+    private static boolean indexExists(Connection conn, String sql) throws SQLException {
+        Matcher matcher = CREATE_INDEX.matcher(sql);
+        if (!matcher.matches()) {
+            return false;
+        }
+        String indexName = matcher.group(1);
+        DatabaseMetaData metaData = conn.getMetaData();
+        for (String table : new String[] {matcher.group(2), matcher.group(2).toUpperCase()}) {
+            try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+                while (rs.next()) {
+                    if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        System.out.println("Index " + indexName + " already exists, skipping");
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split a script into statements on ';' at end of line, dropping -- comments
+     */
+    private static List<String> readStatements(String script) throws SQLException {
+        String content;
+        try (InputStream input = SchemaMigrator.class.getResourceAsStream("/db/migration/" + script)) {
+            if (input == null) {
+                throw new SQLException("Migration script not found: " + script);
+            }
+            content = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read migration script " + script, e);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : content.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    /**
+     * Fail when a hot query's index is not even a candidate (missing or unusable for its
+     * predicate). A plan that still reads the whole table or picks no key is reported as
+     * a warning, since MySQL legitimately prefers full scans of small tables.
+     */
+    private static void checkQueryPlans(Connection conn) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        for (String[] hotQuery : HOT_QUERIES) {
+            String expectedIndex = hotQuery[0];
+            String query = hotQuery[1];
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String type = rs.getString("type");
+                    String possibleKeys = rs.getString("possible_keys");
+                    String key = rs.getString("key");
+                    if (possibleKeys == null || !Arrays.asList(possibleKeys.split(",")).contains(expectedIndex)) {
+                        problems.add(expectedIndex + " is not usable (possible keys: " + possibleKeys + ") in: " +
+                                query);
+                    } else if ("ALL".equalsIgnoreCase(type) || key == null) {
+                        System.err.println("Schema self-check: " + rs.getString("table") + " is scanned without " +
+                                "an index (type " + type + ", key " + key + ") in: " + query);
+                    }
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Schema self-check failed:\n" + String.join("\n", problems));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gearrentpro.util;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Runs a forward-only, read-only query and hands its rows to a callback one at a time,
+ * so the result is never held in memory. The connection, statement and result set are
+ * opened and closed here, so callers never hold JDBC resources themselves.
+ *
+ * Other drivers are asked for db.streamFetchSize rows per round trip (default 1000). On
+ * MySQL the fetch size is Integer.MIN_VALUE, which makes Connector/J stream rows straight
+ * off the socket. If the URL sets useCursorFetch=true, MySQL reads db.streamFetchSize
+ * rows at a time through a server-side cursor instead.
+ *
+ * The connection stays busy until the last row has been handled: the callback must not
+ * issue other queries on it and should not do slow work per row.
+ */
+public final class StreamingQuery {
+
+    /**
+     * Receives each row; the ResultSet is positioned on it
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private StreamingQuery() {
+    }
+
+    /**
+     * Stream the rows of the query to the handler and return how many there were
+     */
+    public static long forEachRow(String sql, List<Object> params, RowHandler handler)
+            throws SQLException, IOException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(fetchSizeFor(conn));
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            long rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static int fetchSizeFor(Connection conn) throws SQLException {
+        int fetchSize = Math.max(1, DatabaseConfig.getIntProperty("db.streamFetchSize", 1000));
+        DatabaseMetaData metaData = conn.getMetaData();
+        if ("MySQL".equalsIgnoreCase(metaData.getDatabaseProductName())
+                && !metaData.getURL().contains("useCursorFetch=true")) {
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+}
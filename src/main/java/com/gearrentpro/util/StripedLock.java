@@ -0,0 +1,135 @@
+package com.gearrentpro.util;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed table of fair ReentrantLocks, picked by hashing an integer key, so work on the
+ * same key is serialised in-process while different keys almost never wait on each
+ * other. Used for bookings keyed by equipment_id: a second counter booking the same
+ * item queues here instead of holding a pooled connection while blocked on the row
+ * lock. The database lock still guards against other application instances.
+ */
+public class StripedLock {
+
+    /**
+     * Work to run while holding the stripe for a key
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private static StripedLock bookingLocks;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+    private final ConnectionPool.LatencyHistogram waits = new ConnectionPool.LatencyHistogram();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contended = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     * @param timeoutMillis longest wait for a stripe before giving up
+     */
+    public StripedLock(int stripes, long timeoutMillis) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Shared locks for equipment bookings, sized by booking.lockStripes (default 1024)
+     * with a booking.lockTimeoutMs wait limit (default 10000)
+     */
+    public static synchronized StripedLock forBookings() {
+        if (bookingLocks == null) {
+            bookingLocks = new StripedLock(
+                    DatabaseConfig.getIntProperty("booking.lockStripes", 1024),
+                    DatabaseConfig.getIntProperty("booking.lockTimeoutMs", 10000));
+        }
+        return bookingLocks;
+    }
+
+    /**
+     * Run the work holding the stripe for the key. Throws IllegalStateException if the
+     * stripe cannot be taken within the timeout.
+     */
+    public <T> T withLock(int key, Work<T> work) throws SQLException {
+        ReentrantLock lock = stripes[stripeFor(key)];
+        long start = System.nanoTime();
+        boolean acquired = lock.tryLock();
+        if (!acquired) {
+            contended.incrementAndGet();
+            try {
+                acquired = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for booking lock", e);
+            }
+        }
+        waits.record(System.nanoTime() - start);
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new IllegalStateException("Timed out waiting for lock on " + key);
+        }
+
+        acquisitions.incrementAndGet();
+        try {
+            return work.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeFor(int key) {
+        // Spread sequential ids so neighbours land on different stripes
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    /**
+     * Acquisitions that had to wait for another holder
+     */
+    public long getContended() {
+        return contended.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Time spent waiting for stripes, contended or not
+     */
+    public ConnectionPool.LatencyHistogram getWaitTimes() {
+        return waits;
+    }
+
+    /**
+     * Lock counters and wait-time histogram for diagnostics
+     */
+    public String getStats() {
+        return "stripes=" + stripes.length +
+               ", acquisitions=" + acquisitions.get() +
+               ", contended=" + contended.get() +
+               ", timeouts=" + timeouts.get() +
+               ", wait={" + waits + "}";
+    }
+}
@@ -0,0 +1,191 @@
+package com.gearrentpro.util;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Feeds a TableView from a keyset-paged query: the first page is loaded up front
+ * and the next one is appended whenever the user scrolls near the bottom.
+ * Pages are fetched in the background through an AsyncLoader owned by the table.
+ *
+ * At most pager.maxRows rows (default 1000) are kept. Past that, the top page is
+ * dropped and only its keyset cursor (the row before it) is remembered, so it can
+ * be read again when the user scrolls back up; rows then drop off the bottom and
+ * are re-read from the new last row on the way down.
+ */
+public class TablePager<T> {
+
+    /**
+     * Fetch the page that follows the given row (null for the first page)
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetchPage(T after, int limit) throws SQLException;
+    }
+
+    private static final double LOAD_THRESHOLD = 0.9;
+    private static final int MAX_ROWS = DatabaseConfig.getIntProperty("pager.maxRows", 1000);
+
+    private final TableView<T> table;
+    private final int pageSize;
+    private final int maxRows;
+    private final Consumer<Throwable> errorHandler;
+    private final AsyncLoader loader;
+    private final String callName;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private PageFetcher<T> fetcher;
+    private Task<List<T>> pending;
+    private boolean exhausted;
+    // Cursor of the first retained row (null when the list starts at the first row)
+    private T topCursor;
+    // Cursors of the pages dropped from the top, nearest first (null is the first page)
+    private final Deque<T> droppedCursors = new LinkedList<>();
+
+    public TablePager(TableView<T> table, int pageSize, Consumer<Throwable> errorHandler) {
+        this.table = table;
+        this.pageSize = pageSize;
+        this.maxRows = Math.max(2 * pageSize, MAX_ROWS);
+        this.errorHandler = errorHandler;
+        this.loader = new AsyncLoader(table);
+        this.callName = "page:" + table.getId();
+        table.setItems(items);
+
+        if (table.getSkin() != null) {
+            attachScrollListener();
+        }
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                // Scroll bars are created by the skin on its first layout pass
+                Platform.runLater(this::attachScrollListener);
+            }
+        });
+    }
+
+    /**
+     * Replace the query and load its first page
+     */
+    public void load(PageFetcher<T> fetcher) {
+        load(fetcher, null);
+    }
+
+    /**
+     * Replace the query, load its first page and then run the callback (may be null)
+     */
+    public void load(PageFetcher<T> fetcher, Runnable onLoaded) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        this.fetcher = fetcher;
+        this.exhausted = false;
+        this.topCursor = null;
+        droppedCursors.clear();
+        items.clear();
+        pending = loader.run(callName, () -> fetcher.fetchPage(null, pageSize), firstPage -> {
+            pending = null;
+            items.setAll(firstPage);
+            exhausted = firstPage.size() < pageSize;
+            table.scrollTo(0);
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, this::failed);
+    }
+
+    /**
+     * Append the next page unless the query has no more rows or a page is already loading
+     */
+    public void loadNextPage() {
+        if (fetcher == null || exhausted || pending != null) {
+            return;
+        }
+        PageFetcher<T> current = fetcher;
+        T last = items.isEmpty() ? null : items.get(items.size() - 1);
+        pending = loader.run(callName, () -> current.fetchPage(last, pageSize), page -> {
+            pending = null;
+            items.addAll(page);
+            exhausted = page.size() < pageSize;
+            if (items.size() > maxRows) {
+                dropTopPage();
+            }
+        }, this::failed);
+    }
+
+    /**
+     * Read back the page above the first retained row, if it was dropped earlier
+     */
+    public void loadPreviousPage() {
+        if (fetcher == null || droppedCursors.isEmpty() || pending != null) {
+            return;
+        }
+        PageFetcher<T> current = fetcher;
+        T cursor = droppedCursors.peekFirst();
+        pending = loader.run(callName, () -> current.fetchPage(cursor, pageSize), page -> {
+            pending = null;
+            droppedCursors.removeFirst();
+            topCursor = cursor;
+            int firstVisible = firstVisibleIndex();
+            items.addAll(0, page);
+            if (items.size() > maxRows) {
+                items.remove(maxRows, items.size());
+                exhausted = false;
+            }
+            table.scrollTo(firstVisible + page.size());
+        }, this::failed);
+    }
+
+    /**
+     * Rows currently retained
+     */
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    private void dropTopPage() {
+        int firstVisible = firstVisibleIndex();
+        droppedCursors.addFirst(topCursor);
+        topCursor = items.get(pageSize - 1);
+        items.remove(0, pageSize);
+        table.scrollTo(Math.max(0, firstVisible - pageSize));
+    }
+
+    private int firstVisibleIndex() {
+        if (table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow && flow.getFirstVisibleCell() != null) {
+            return flow.getFirstVisibleCell().getIndex();
+        }
+        return 0;
+    }
+
+    private void failed(Throwable error) {
+        pending = null;
+        errorHandler.accept(error);
+    }
+
+    private void attachScrollListener() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((obs, oldVal, newVal) -> {
+                    if (newVal.doubleValue() >= scrollBar.getMax() * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    } else if (newVal.doubleValue() <= scrollBar.getMax() * (1 - LOAD_THRESHOLD)) {
+                        loadPreviousPage();
+                    }
+                });
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.gearrentpro.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unit of work on a single connection. While the work runs, DatabaseConfig.getConnection()
+ * on the same thread hands out the transaction's connection (closing it is a no-op), so
+ * existing DAO methods take part without changes. The work is committed when it returns
+ * and rolled back when it throws; nested calls join the outer transaction.
+ *
+ * Row locks (SELECT ... FOR UPDATE) are held until commit, so do lookups and pricing
+ * before starting the transaction and keep the work itself to the check and the writes.
+ * Lookups forked onto other threads (FanOut) do not join the transaction.
+ */
+public final class Transaction {
+
+    /**
+     * Database work to run inside the transaction
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private static final ThreadLocal<Connection> CURRENT = new ThreadLocal<>();
+
+    private Transaction() {
+    }
+
+    /**
+     * Run the work in a transaction, or as part of the one already open on this thread
+     */
+    public static <T> T inTransaction(Work<T> work) throws SQLException {
+        if (CURRENT.get() != null) {
+            return work.run();
+        }
+
+        try (Connection conn = DatabaseConfig.getPool().getConnection()) {
+            conn.setAutoCommit(false);
+            CURRENT.set(participant(conn));
+            try {
+                T result = work.run();
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException | Error e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackFailure) {
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * True while this thread is inside inTransaction
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * The connection of the transaction open on this thread, or null
+     */
+    static Connection current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * View of the transaction's connection for DAOs: close() leaves it open and
+     * commit/rollback stay with inTransaction (savepoints may be used)
+     */
+    private static Connection participant(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Transaction.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "commit":
+                        case "setAutoCommit":
+                            throw new SQLException(method.getName() + " is managed by Transaction.inTransaction");
+                        case "rollback":
+                            // Rolling back to a savepoint is fine; the whole transaction is not
+                            if (args == null) {
+                                throw new SQLException("rollback is managed by Transaction.inTransaction");
+                            }
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
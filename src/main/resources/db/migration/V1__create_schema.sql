@@ -0,0 +1,134 @@
+-- Base GearRent Pro schema (same tables as src/database/db_schema.sql, without sample data).
+-- IF NOT EXISTS keeps this a no-op on databases created from that script.
+
+CREATE TABLE IF NOT EXISTS branches (
+    branch_id INT PRIMARY KEY AUTO_INCREMENT,
+    branch_code VARCHAR(20) UNIQUE NOT NULL,
+    branch_name VARCHAR(100) NOT NULL,
+    address VARCHAR(255),
+    contact_number VARCHAR(20),
+    email VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id INT PRIMARY KEY AUTO_INCREMENT,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('ADMIN', 'BRANCH_MANAGER', 'STAFF') NOT NULL,
+    branch_id INT,
+    full_name VARCHAR(100),
+    email VARCHAR(100),
+    status ENUM('ACTIVE', 'INACTIVE') DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (branch_id) REFERENCES branches(branch_id)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    category_id INT PRIMARY KEY AUTO_INCREMENT,
+    category_name VARCHAR(50) UNIQUE NOT NULL,
+    description VARCHAR(255),
+    base_price_factor DECIMAL(4, 2) NOT NULL,
+    weekend_multiplier DECIMAL(4, 2) DEFAULT 1.0,
+    default_late_fee DECIMAL(10, 2),
+    status ENUM('ACTIVE', 'INACTIVE') DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS equipment (
+    equipment_id INT PRIMARY KEY AUTO_INCREMENT,
+    equipment_code VARCHAR(30) UNIQUE NOT NULL,
+    category_id INT NOT NULL,
+    brand VARCHAR(50),
+    model VARCHAR(50),
+    purchase_year INT,
+    daily_base_price DECIMAL(10, 2) NOT NULL,
+    security_deposit DECIMAL(10, 2) NOT NULL,
+    status ENUM('AVAILABLE', 'RESERVED', 'RENTED', 'UNDER_MAINTENANCE') DEFAULT 'AVAILABLE',
+    branch_id INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (category_id) REFERENCES categories(category_id),
+    FOREIGN KEY (branch_id) REFERENCES branches(branch_id)
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id INT PRIMARY KEY AUTO_INCREMENT,
+    customer_code VARCHAR(20) UNIQUE NOT NULL,
+    customer_name VARCHAR(100) NOT NULL,
+    nic_passport VARCHAR(50) UNIQUE NOT NULL,
+    contact_number VARCHAR(20),
+    email VARCHAR(100),
+    address VARCHAR(255),
+    membership_level ENUM('REGULAR', 'SILVER', 'GOLD') DEFAULT 'REGULAR',
+    deposit_limit DECIMAL(15, 2) DEFAULT 500000.00,
+    status ENUM('ACTIVE', 'INACTIVE') DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS membership_discounts (
+    discount_id INT PRIMARY KEY AUTO_INCREMENT,
+    membership_level ENUM('REGULAR', 'SILVER', 'GOLD') UNIQUE NOT NULL,
+    discount_percentage DECIMAL(5, 2) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    reservation_id INT PRIMARY KEY AUTO_INCREMENT,
+    reservation_code VARCHAR(30) UNIQUE NOT NULL,
+    equipment_id INT NOT NULL,
+    customer_id INT NOT NULL,
+    branch_id INT NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'CANCELLED') DEFAULT 'PENDING',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (equipment_id) REFERENCES equipment(equipment_id),
+    FOREIGN KEY (customer_id) REFERENCES customers(customer_id),
+    FOREIGN KEY (branch_id) REFERENCES branches(branch_id)
+);
+
+CREATE TABLE IF NOT EXISTS rentals (
+    rental_id INT PRIMARY KEY AUTO_INCREMENT,
+    rental_code VARCHAR(30) UNIQUE NOT NULL,
+    equipment_id INT NOT NULL,
+    customer_id INT NOT NULL,
+    branch_id INT NOT NULL,
+    reservation_id INT,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    actual_return_date DATE,
+    daily_rate DECIMAL(10, 2) NOT NULL,
+    rental_amount DECIMAL(15, 2) NOT NULL,
+    security_deposit DECIMAL(10, 2) NOT NULL,
+    membership_discount DECIMAL(10, 2) DEFAULT 0,
+    long_rental_discount DECIMAL(10, 2) DEFAULT 0,
+    final_payable_amount DECIMAL(15, 2) NOT NULL,
+    payment_status ENUM('PAID', 'PARTIALLY_PAID', 'UNPAID') DEFAULT 'UNPAID',
+    rental_status ENUM('ACTIVE', 'RETURNED', 'OVERDUE', 'CANCELLED') DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (equipment_id) REFERENCES equipment(equipment_id),
+    FOREIGN KEY (customer_id) REFERENCES customers(customer_id),
+    FOREIGN KEY (branch_id) REFERENCES branches(branch_id),
+    FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id)
+);
+
+CREATE TABLE IF NOT EXISTS return_details (
+    return_id INT PRIMARY KEY AUTO_INCREMENT,
+    rental_id INT NOT NULL UNIQUE,
+    damage_description VARCHAR(500),
+    damage_charge DECIMAL(10, 2) DEFAULT 0,
+    late_fee DECIMAL(10, 2) DEFAULT 0,
+    total_charges DECIMAL(10, 2) DEFAULT 0,
+    refund_amount DECIMAL(10, 2) DEFAULT 0,
+    additional_payment_required DECIMAL(10, 2) DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (rental_id) REFERENCES rentals(rental_id)
+);
+
+CREATE TABLE IF NOT EXISTS configuration (
+    config_id INT PRIMARY KEY AUTO_INCREMENT,
+    config_key VARCHAR(100) UNIQUE NOT NULL,
+    config_value VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
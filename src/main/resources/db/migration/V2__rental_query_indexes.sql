@@ -0,0 +1,21 @@
+-- Indexes matching the rental and reservation lookups in RentalDAO/ReservationDAO.
+
+-- isEquipmentRented / getBlockingRentalRanges: covers the whole COUNT(*) predicate
+CREATE INDEX idx_rentals_equipment_status_dates
+    ON rentals (equipment_id, rental_status, start_date, end_date);
+
+-- getActiveRentalsByCustomer (deposit limit check)
+CREATE INDEX idx_rentals_customer_status
+    ON rentals (customer_id, rental_status);
+
+-- getRentalsByBranch, ordered by start date
+CREATE INDEX idx_rentals_branch_start
+    ON rentals (branch_id, start_date);
+
+-- getOverdueRentals
+CREATE INDEX idx_rentals_status_end
+    ON rentals (rental_status, end_date);
+
+-- hasOverlappingReservation / getBlockingReservationRanges
+CREATE INDEX idx_reservations_equipment_status_dates
+    ON reservations (equipment_id, status, start_date, end_date);
@@ -0,0 +1,17 @@
+-- Seek indexes for the paged list screens. InnoDB appends the primary key to
+-- every secondary index, so these also cover the id tie-breaker.
+
+-- RentalDAO.getRentalsPage without a branch filter: (start_date, rental_id)
+CREATE INDEX idx_rentals_start
+    ON rentals (start_date);
+
+-- ReservationDAO.getReservationsPage: (start_date, reservation_id)
+CREATE INDEX idx_reservations_start
+    ON reservations (start_date);
+
+CREATE INDEX idx_reservations_branch_start
+    ON reservations (branch_id, start_date);
+
+-- CustomerDAO.getCustomersPage: (customer_name, customer_id)
+CREATE INDEX idx_customers_name
+    ON customers (customer_name);
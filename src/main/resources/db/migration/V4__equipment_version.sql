@@ -0,0 +1,4 @@
+-- Optimistic lock for equipment rows. Every update bumps the version;
+-- EquipmentDAO.updateEquipment only writes when the version it read is current.
+ALTER TABLE equipment
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
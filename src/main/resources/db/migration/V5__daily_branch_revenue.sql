@@ -0,0 +1,25 @@
+-- Per-branch, per-day revenue totals for the revenue report. Rentals are counted on
+-- their start date unless cancelled; late fees and damage charges from return_details
+-- are added to the day the rental started. RevenueReportService keeps the rows current
+-- in the same transaction as each rental create, return and status change.
+CREATE TABLE daily_branch_revenue (
+    branch_id INT NOT NULL,
+    revenue_date DATE NOT NULL,
+    rental_count INT NOT NULL DEFAULT 0,
+    total_income DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    total_deposits DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    total_late_fees DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    total_damage_charges DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (branch_id, revenue_date),
+    FOREIGN KEY (branch_id) REFERENCES branches(branch_id)
+);
+
+-- Backfill from existing rentals
+INSERT INTO daily_branch_revenue (branch_id, revenue_date, rental_count, total_income,
+                                  total_deposits, total_late_fees, total_damage_charges)
+SELECT r.branch_id, r.start_date, COUNT(*), SUM(r.final_payable_amount), SUM(r.security_deposit),
+       COALESCE(SUM(rd.late_fee), 0), COALESCE(SUM(rd.damage_charge), 0)
+FROM rentals r
+LEFT JOIN return_details rd ON rd.rental_id = r.rental_id
+WHERE r.rental_status <> 'CANCELLED'
+GROUP BY r.branch_id, r.start_date;
@@ -0,0 +1,12 @@
+-- Running total of security deposits held for each customer's open (ACTIVE or
+-- OVERDUE) rentals, so the deposit-limit check is a primary-key read. Rental
+-- create, return and cancellation adjust it in the same transaction.
+ALTER TABLE customers
+    ADD COLUMN outstanding_deposit DECIMAL(15, 2) NOT NULL DEFAULT 0;
+
+UPDATE customers
+SET outstanding_deposit = (
+    SELECT COALESCE(SUM(r.security_deposit), 0)
+    FROM rentals r
+    WHERE r.customer_id = customers.customer_id
+      AND r.rental_status IN ('ACTIVE', 'OVERDUE'));
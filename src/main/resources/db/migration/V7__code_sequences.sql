@@ -0,0 +1,11 @@
+-- Number blocks for rental and reservation codes (CodeSequenceDAO.reserveBlock).
+-- next_value is the first number not yet handed to any process.
+CREATE TABLE IF NOT EXISTS code_sequences (
+    sequence_name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Room for RENT-<branch_code>-<9 digits> with the longest branch codes
+ALTER TABLE rentals MODIFY rental_code VARCHAR(40) NOT NULL;
+
+ALTER TABLE reservations MODIFY reservation_code VARCHAR(40) NOT NULL;
@@ -0,0 +1,5 @@
+-- RentalDAO.getRentalsPage filtered by status: rental_status = ? ORDER BY start_date DESC,
+-- rental_id DESC. idx_rentals_status_end leads with the status but is ordered by end_date,
+-- so without this index the filtered list sorts every matching rental.
+CREATE INDEX idx_rentals_status_start
+    ON rentals (rental_status, start_date, rental_id);
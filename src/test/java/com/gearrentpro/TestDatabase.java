@@ -0,0 +1,111 @@
+package com.gearrentpro;
+
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.SchemaMigrator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded test database (see src/test/resources/config.properties). The schema is
+ * migrated once per test JVM; every seed uses fresh codes, so tests never see each
+ * other's rows and need no cleanup.
+ */
+public final class TestDatabase {
+
+    /**
+     * Ids of the rows created by seedBooking
+     */
+    public static class Booking {
+        public int branchId;
+        public String branchCode;
+        public String branchName;
+        public int categoryId;
+        public int customerId;
+        public int equipmentId;
+        public String equipmentCode;
+    }
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static boolean migrated;
+
+    private TestDatabase() {}
+
+    /**
+     * Apply the migrations unless this JVM already has
+     */
+    public static synchronized void migrate() throws SQLException {
+        if (!migrated) {
+            SchemaMigrator.migrate();
+            migrated = true;
+        }
+    }
+
+    /**
+     * Insert a branch, category, customer and an AVAILABLE equipment item with a
+     * daily price of 1000 and a security deposit of 5000
+     */
+    public static Booking seedBooking() throws SQLException {
+        migrate();
+        int n = SEQUENCE.incrementAndGet();
+        Booking booking = new Booking();
+        booking.branchCode = "TB" + n;
+        booking.branchName = "Test branch " + n;
+        booking.equipmentCode = "TE" + n;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            booking.branchId = insert(conn, "INSERT INTO branches (branch_code, branch_name) VALUES (?, ?)",
+                    booking.branchCode, booking.branchName);
+            booking.categoryId = insert(conn, "INSERT INTO categories (category_name, base_price_factor, " +
+                    "weekend_multiplier, default_late_fee) VALUES (?, 1.0, 1.2, 100)", "Test category " + n);
+            booking.customerId = insert(conn, "INSERT INTO customers (customer_code, customer_name, " +
+                    "nic_passport) VALUES (?, ?, ?)", "TC" + n, "Test customer " + n, "TNIC" + n);
+            booking.equipmentId = insert(conn, "INSERT INTO equipment (equipment_code, category_id, brand, " +
+                    "model, purchase_year, daily_base_price, security_deposit, status, branch_id) " +
+                    "VALUES (?, ?, 'Canon', 'R5', 2020, ?, ?, 'AVAILABLE', ?)",
+                    booking.equipmentCode, booking.categoryId, new BigDecimal("1000.00"), new BigDecimal("5000.00"),
+                    booking.branchId);
+        }
+        return booking;
+    }
+
+    /**
+     * Run an INSERT, UPDATE or DELETE and return the generated key (0 if none)
+     */
+    public static int update(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            return insert(conn, sql, params);
+        }
+    }
+
+    /**
+     * Run a COUNT(*) style query and return its single value
+     */
+    public static long count(String sql, Object... params) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static int insert(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : 0;
+            }
+        }
+    }
+}
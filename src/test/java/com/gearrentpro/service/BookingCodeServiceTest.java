@@ -0,0 +1,51 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.TestDatabase;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Code format: type, branch code and a zero-padded per-branch number.
+ */
+public class BookingCodeServiceTest {
+
+    @Test
+    public void codesCarryTheTypeBranchCodeAndAPaddedNumber() throws Exception {
+        TestDatabase.Booking booking = TestDatabase.seedBooking();
+        BookingCodeService service = BookingCodeService.getInstance();
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 250; i++) {
+            String rentalCode = service.nextRentalCode(booking.branchId);
+            String reservationCode = service.nextReservationCode(booking.branchId);
+            assertTrue(rentalCode, rentalCode.matches("RENT-" + booking.branchCode + "-\\d{9}"));
+            assertTrue(reservationCode, reservationCode.matches("RES-" + booking.branchCode + "-\\d{9}"));
+            assertTrue("repeated " + rentalCode, codes.add(rentalCode));
+            assertTrue("repeated " + reservationCode, codes.add(reservationCode));
+        }
+    }
+
+    @Test
+    public void unknownBranchIsRejected() throws Exception {
+        TestDatabase.migrate();
+        try {
+            BookingCodeService.getInstance().nextRentalCode(-1);
+            fail("Expected an unknown branch to be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Branch not found!", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void numbersArePaddedToNineDigits() {
+        assertEquals("RENT-BR001-000000001", BookingCodeService.format("RENT-BR001", 1));
+        assertEquals("RES-BR001-123456789", BookingCodeService.format("RES-BR001", 123456789));
+        assertEquals("RENT-BR001-1234567890", BookingCodeService.format("RENT-BR001", 1234567890L));
+    }
+}
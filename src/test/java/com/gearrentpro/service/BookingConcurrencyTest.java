@@ -0,0 +1,171 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.TestDatabase;
+import com.gearrentpro.entity.Category;
+import com.gearrentpro.entity.Customer;
+import com.gearrentpro.entity.Equipment;
+import com.gearrentpro.entity.Rental;
+import com.gearrentpro.entity.Reservation;
+import com.gearrentpro.util.DatabaseConfig;
+import com.gearrentpro.util.Transaction;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Many terminals booking the same equipment for the same dates at once: exactly one
+ * booking may win, every other one must be rejected, and nothing may be left behind
+ * by the losers.
+ */
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Test
+    public void onlyOneConcurrentRentalOfTheSameEquipmentIsCreated() throws Exception {
+        TestDatabase.Booking booking = TestDatabase.seedBooking();
+        Equipment equipment = EquipmentService.getInstance().getEquipmentById(booking.equipmentId);
+        Category category = CategoryService.getInstance().getCategoryById(booking.categoryId);
+        Customer customer = CustomerService.getInstance().getCustomerById(booking.customerId);
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        Outcome outcome = race(() -> {
+            Rental rental = new Rental();
+            rental.setEquipmentId(booking.equipmentId);
+            rental.setCustomerId(booking.customerId);
+            rental.setBranchId(booking.branchId);
+            rental.setStartDate(start);
+            rental.setEndDate(start.plusDays(2));
+            return RentalService.getInstance().createRental(rental, equipment, customer, category);
+        });
+
+        assertEquals("created", 1, outcome.created.get());
+        assertEquals("rejected", THREADS - 1, outcome.rejected.get());
+        assertEquals(1, TestDatabase.count("SELECT COUNT(*) FROM rentals WHERE equipment_id = ?",
+                booking.equipmentId));
+        // Only the winner's deposit is held
+        assertEquals(5000, TestDatabase.count("SELECT outstanding_deposit FROM customers WHERE customer_id = ?",
+                booking.customerId));
+    }
+
+    @Test
+    public void onlyOneConcurrentReservationOfTheSameEquipmentIsCreated() throws Exception {
+        TestDatabase.Booking booking = TestDatabase.seedBooking();
+        LocalDate start = LocalDate.now().plusDays(5);
+
+        Outcome outcome = race(() -> {
+            Reservation reservation = new Reservation();
+            reservation.setEquipmentId(booking.equipmentId);
+            reservation.setCustomerId(booking.customerId);
+            reservation.setBranchId(booking.branchId);
+            reservation.setStartDate(start);
+            reservation.setEndDate(start.plusDays(3));
+            reservation.setStatus(Reservation.ReservationStatus.PENDING);
+            return ReservationService.getInstance().createReservation(reservation, booking.customerId);
+        });
+
+        assertEquals("created", 1, outcome.created.get());
+        assertEquals("rejected", THREADS - 1, outcome.rejected.get());
+        assertEquals(1, TestDatabase.count("SELECT COUNT(*) FROM reservations WHERE equipment_id = ?",
+                booking.equipmentId));
+    }
+
+    @Test
+    public void onlyOneConcurrentReturnOfTheSameRentalIsProcessed() throws Exception {
+        TestDatabase.Booking booking = TestDatabase.seedBooking();
+        Equipment equipment = EquipmentService.getInstance().getEquipmentById(booking.equipmentId);
+        Category category = CategoryService.getInstance().getCategoryById(booking.categoryId);
+        Customer customer = CustomerService.getInstance().getCustomerById(booking.customerId);
+        LocalDate start = LocalDate.now().plusDays(1);
+        Rental rental = new Rental();
+        rental.setEquipmentId(booking.equipmentId);
+        rental.setCustomerId(booking.customerId);
+        rental.setBranchId(booking.branchId);
+        rental.setStartDate(start);
+        rental.setEndDate(start.plusDays(2));
+        RentalService.getInstance().createRental(rental, equipment, customer, category);
+
+        Outcome outcome = race(() -> RentalService.getInstance().processReturn(rental.getRentalId(),
+                start.plusDays(2), null, BigDecimal.ZERO) != null);
+
+        assertEquals("returned", 1, outcome.created.get());
+        assertEquals("rejected", THREADS - 1, outcome.rejected.get());
+        assertEquals(1, TestDatabase.count("SELECT COUNT(*) FROM return_details WHERE rental_id = ?",
+                rental.getRentalId()));
+        // The deposit is released once, not once per return
+        assertEquals(0, TestDatabase.count("SELECT outstanding_deposit FROM customers WHERE customer_id = ?",
+                booking.customerId));
+    }
+
+    @Test
+    public void failedTransactionLeavesNoRows() throws Exception {
+        TestDatabase.migrate();
+        try {
+            Transaction.inTransaction(() -> {
+                try (Connection conn = DatabaseConfig.getConnection();
+                     PreparedStatement stmt = conn.prepareStatement(
+                             "INSERT INTO branches (branch_code, branch_name) VALUES ('ROLLBACK', 'Rolled back')")) {
+                    stmt.executeUpdate();
+                }
+                throw new IllegalStateException("fail after insert");
+            });
+            fail("Expected the work to throw");
+        } catch (IllegalStateException expected) {
+            // rolled back
+        }
+        assertEquals(0, TestDatabase.count("SELECT COUNT(*) FROM branches WHERE branch_code = 'ROLLBACK'"));
+        assertEquals(0, DatabaseConfig.getPool().getActiveConnections());
+    }
+
+    private static class Outcome {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+    }
+
+    /**
+     * Start THREADS bookings at the same moment and count winners and rejections; any
+     * other failure fails the test
+     */
+    private static Outcome race(Callable<Boolean> book) throws Exception {
+        Outcome outcome = new Outcome();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> bookings = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                bookings.add(executor.submit(() -> {
+                    go.await();
+                    try {
+                        if (book.call()) {
+                            outcome.created.incrementAndGet();
+                        }
+                    } catch (IllegalArgumentException e) {
+                        outcome.rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> booking : bookings) {
+                booking.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcome;
+    }
+}
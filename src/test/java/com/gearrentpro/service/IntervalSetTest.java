@@ -0,0 +1,108 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.entity.BookingRange;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Overlap checks on the availability index, and adding and removing bookings without
+ * leaving phantom ranges behind.
+ */
+public class IntervalSetTest {
+
+    private static final long DAY = LocalDate.of(2026, 3, 10).toEpochDay();
+
+    @Test
+    public void emptySetOverlapsNothing() {
+        assertFalse(AvailabilityService.IntervalSet.of(Collections.emptyList()).overlaps(DAY, DAY + 30));
+    }
+
+    @Test
+    public void overlapIncludesBothEndDays() {
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(
+                Arrays.asList(range(1, DAY, DAY + 2)));
+
+        assertTrue(set.overlaps(DAY + 2, DAY + 5));
+        assertTrue(set.overlaps(DAY - 3, DAY));
+        assertTrue(set.overlaps(DAY + 1, DAY + 1));
+        assertTrue(set.overlaps(DAY - 10, DAY + 10));
+        assertFalse(set.overlaps(DAY + 3, DAY + 5));
+        assertFalse(set.overlaps(DAY - 3, DAY - 1));
+    }
+
+    @Test
+    public void longEarlyRangeStillBlocksLaterDays() {
+        // The running maximum of end days must carry past shorter ranges that start later
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(Arrays.asList(
+                range(1, DAY, DAY + 20), range(2, DAY + 2, DAY + 3), range(3, DAY + 25, DAY + 26)));
+
+        assertTrue(set.overlaps(DAY + 10, DAY + 12));
+        assertFalse(set.overlaps(DAY + 21, DAY + 24));
+        assertTrue(set.overlaps(DAY + 26, DAY + 40));
+    }
+
+    @Test
+    public void withAndWithoutKeepTheSetConsistent() {
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(Collections.emptyList())
+                .with(2, DAY + 10, DAY + 12)
+                .with(1, DAY, DAY + 2)
+                .with(3, DAY + 5, DAY + 6);
+
+        assertTrue(set.overlaps(DAY + 1, DAY + 1));
+        assertTrue(set.overlaps(DAY + 6, DAY + 7));
+        assertTrue(set.overlaps(DAY + 12, DAY + 14));
+
+        set = set.without(3);
+        assertFalse(set.overlaps(DAY + 4, DAY + 8));
+        assertTrue(set.overlaps(DAY + 1, DAY + 1));
+        assertTrue(set.overlaps(DAY + 11, DAY + 11));
+        assertSame("unknown id leaves the set alone", set, set.without(99));
+    }
+
+    @Test
+    public void addingABookingTheReloadAlreadyReadLeavesNoPhantomAfterRemoval() {
+        // A reload read booking 7, then its create hook adds it again
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(
+                Arrays.asList(range(7, DAY, DAY + 2), range(8, DAY + 10, DAY + 11)));
+        set = set.with(7, DAY, DAY + 2);
+
+        set = set.without(7);
+
+        assertFalse(set.overlaps(DAY, DAY + 2));
+        assertTrue(set.overlaps(DAY + 10, DAY + 10));
+    }
+
+    @Test
+    public void withReplacesTheRangeOfAnExistingId() {
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(
+                Arrays.asList(range(1, DAY, DAY + 2)));
+
+        set = set.with(1, DAY + 20, DAY + 22);
+
+        assertFalse(set.overlaps(DAY, DAY + 2));
+        assertTrue(set.overlaps(DAY + 21, DAY + 21));
+    }
+
+    @Test
+    public void withoutRemovesEveryCopyOfAnId() {
+        AvailabilityService.IntervalSet set = AvailabilityService.IntervalSet.of(Arrays.asList(
+                range(4, DAY, DAY + 1), range(4, DAY, DAY + 1), range(5, DAY + 5, DAY + 6)));
+
+        set = set.without(4);
+
+        assertFalse(set.overlaps(DAY, DAY + 1));
+        assertTrue(set.overlaps(DAY + 5, DAY + 5));
+    }
+
+    private static BookingRange range(int id, long startDay, long endDay) {
+        return new BookingRange(BookingRange.BookingType.RENTAL, id, 1,
+                LocalDate.ofEpochDay(startDay), LocalDate.ofEpochDay(endDay));
+    }
+}
@@ -0,0 +1,137 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.entity.Category;
+import com.gearrentpro.entity.Equipment;
+import com.gearrentpro.util.DateUtils;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Golden check for calculateRentalAmount: the closed-form total must equal the per-day
+ * loop it replaced, summing calculateDailyRate over every day of the range.
+ */
+public class PricingCalculationServiceTest {
+
+    private final PricingCalculationService pricing = PricingCalculationService.getInstance();
+
+    @Test
+    public void matchesPerDayLoopAcrossMonthAndYearBoundaries() {
+        Equipment equipment = equipment("149.99");
+        Category category = category("1.15", "1.35");
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 1, 29), LocalDate.of(2024, 3, 2));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 1));
+        assertSameAsLoop(equipment, category, LocalDate.of(2023, 2, 28), LocalDate.of(2023, 3, 1));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 6));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 4, 30), LocalDate.of(2024, 5, 1));
+    }
+
+    @Test
+    public void matchesPerDayLoopForEveryStartDayAndShortLength() {
+        Equipment equipment = equipment("80.00");
+        Category category = category("1.10", "1.25");
+        // 2024-06-03 is a Monday: cover every weekday start and every leftover-day count
+        LocalDate monday = LocalDate.of(2024, 6, 3);
+        for (int startOffset = 0; startOffset < 7; startOffset++) {
+            LocalDate start = monday.plusDays(startOffset);
+            for (int length = 1; length <= 15; length++) {
+                assertSameAsLoop(equipment, category, start, start.plusDays(length - 1));
+            }
+        }
+    }
+
+    @Test
+    public void matchesPerDayLoopForWeekendOnlyRanges() {
+        Equipment equipment = equipment("33.33");
+        Category category = category("1.07", "1.5");
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 6, 8), LocalDate.of(2024, 6, 8));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 6, 9), LocalDate.of(2024, 6, 9));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 6, 8), LocalDate.of(2024, 6, 9));
+    }
+
+    @Test
+    public void matchesPerDayLoopForLongRentals() {
+        Equipment equipment = equipment("1234.56");
+        Category category = category("1.333", "1.777");
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7));
+        assertSameAsLoop(equipment, category, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        assertSameAsLoop(equipment, category, LocalDate.of(2020, 3, 15), LocalDate.of(2029, 11, 2));
+    }
+
+    @Test
+    public void returnsZeroForReversedRange() {
+        Equipment equipment = equipment("50.00");
+        Category category = category("1.0", "1.2");
+        LocalDate start = LocalDate.of(2024, 6, 10);
+        assertSameAsLoop(equipment, category, start, start.minusDays(1));
+        assertSameAsLoop(equipment, category, start, start.minusDays(30));
+    }
+
+    @Test
+    public void matchesPerDayLoopForRandomPricesAndRanges() {
+        Random random = new Random(42);
+        LocalDate base = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            Equipment equipment = equipment(BigDecimal.valueOf(random.nextInt(500000), 2).toPlainString());
+            Category category = category(
+                    BigDecimal.valueOf(50 + random.nextInt(200), 2).toPlainString(),
+                    BigDecimal.valueOf(100 + random.nextInt(100), 2).toPlainString());
+            LocalDate start = base.plusDays(random.nextInt(1100));
+            LocalDate end = start.plusDays(random.nextInt(120) - 5);
+            assertSameAsLoop(equipment, category, start, end);
+        }
+    }
+
+    @Test
+    public void countsWeekendDaysLikeADayWalk() {
+        LocalDate base = LocalDate.of(2024, 2, 24);
+        for (int startOffset = 0; startOffset < 14; startOffset++) {
+            LocalDate start = base.plusDays(startOffset);
+            for (int length = 1; length <= 40; length++) {
+                LocalDate end = start.plusDays(length - 1);
+                int expected = 0;
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    if (DateUtils.isWeekend(day)) {
+                        expected++;
+                    }
+                }
+                assertEquals(start + ".." + end, expected, DateUtils.countWeekendDays(start, end));
+            }
+        }
+    }
+
+    private void assertSameAsLoop(Equipment equipment, Category category, LocalDate start, LocalDate end) {
+        BigDecimal expected = perDayLoop(equipment, category, start, end);
+        BigDecimal actual = pricing.calculateRentalAmount(equipment, category, start, end);
+        assertEquals(start + ".." + end + " at " + equipment.getDailyBasePrice(), expected, actual);
+    }
+
+    /**
+     * The implementation calculateRentalAmount had before the closed form
+     */
+    private BigDecimal perDayLoop(Equipment equipment, Category category, LocalDate start, LocalDate end) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        LocalDate current = start;
+        while (!current.isAfter(end)) {
+            totalAmount = totalAmount.add(pricing.calculateDailyRate(equipment, category, current));
+            current = current.plusDays(1);
+        }
+        return totalAmount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Equipment equipment(String dailyBasePrice) {
+        Equipment equipment = new Equipment();
+        equipment.setDailyBasePrice(new BigDecimal(dailyBasePrice));
+        return equipment;
+    }
+
+    private static Category category(String basePriceFactor, String weekendMultiplier) {
+        return new Category("Test", null, new BigDecimal(basePriceFactor),
+                new BigDecimal(weekendMultiplier), BigDecimal.ZERO);
+    }
+}
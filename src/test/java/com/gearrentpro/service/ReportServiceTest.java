@@ -0,0 +1,106 @@
+package com.gearrentpro.service;
+
+import com.gearrentpro.TestDatabase;
+import com.gearrentpro.util.DatabaseConfig;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The streaming report callbacks: what they return, and that every call hands its
+ * connection back to the pool, including when the row handler throws.
+ */
+public class ReportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 31);
+
+    private final ReportService reportService = ReportService.getInstance();
+
+    @Test
+    public void branchRevenueLeavesOutCancelledRentals() throws Exception {
+        TestDatabase.Booking booking = seedRentals();
+        String branchName = booking.branchName;
+
+        List<String> rows = new ArrayList<>();
+        reportService.forEachBranchRevenue(FROM, TO, rs -> {
+            rows.add(rs.getString("branch_name") + ":" + rs.getInt("total_rentals") + ":" +
+                    rs.getBigDecimal("total_revenue").intValue());
+        });
+
+        List<String> branchRows = new ArrayList<>();
+        for (String row : rows) {
+            if (row.startsWith(branchName + ":")) {
+                branchRows.add(row);
+            }
+        }
+        assertEquals(List.of(branchName + ":2:9000"), branchRows);
+    }
+
+    @Test
+    public void equipmentUtilizationCountsNonCancelledRentalDaysPerItem() throws Exception {
+        TestDatabase.Booking booking = seedRentals();
+
+        List<String> rows = new ArrayList<>();
+        long count = reportService.forEachEquipmentUtilization(booking.branchId, FROM, TO,
+                rs -> rows.add(rs.getString(1) + ":" + rs.getInt(3)));
+
+        assertEquals(2, count);
+        // 5 + 3 days on the first item, the cancelled rental is not counted; the idle item shows 0
+        assertEquals(List.of(booking.equipmentCode + ":8", booking.equipmentCode + "-IDLE:0"), rows);
+    }
+
+    @Test
+    public void streamingCallsReleaseTheirConnections() throws Exception {
+        TestDatabase.Booking booking = seedRentals();
+        int poolSize = DatabaseConfig.getIntProperty("db.pool.maxSize", 10);
+
+        // Far more calls than the pool has connections: a single leak per call would exhaust it
+        for (int i = 0; i < 50 * poolSize; i++) {
+            reportService.forEachBranchRevenue(FROM, TO, rs -> { });
+            reportService.forEachEquipmentUtilization(booking.branchId, FROM, TO, rs -> { });
+            try {
+                reportService.forEachEquipmentUtilization(booking.branchId, FROM, TO, rs -> {
+                    throw new IOException("disk full");
+                });
+                fail("Expected the handler's exception");
+            } catch (IOException expected) {
+                // the connection must still be released
+            }
+        }
+
+        assertEquals(0, DatabaseConfig.getPool().getActiveConnections());
+    }
+
+    /**
+     * A branch with two items: the first has two rentals in January (5 and 3 days) and a
+     * cancelled one, the second has none
+     */
+    private static TestDatabase.Booking seedRentals() throws Exception {
+        TestDatabase.Booking booking = TestDatabase.seedBooking();
+        TestDatabase.update("INSERT INTO equipment (equipment_code, category_id, brand, model, purchase_year, " +
+                "daily_base_price, security_deposit, status, branch_id) " +
+                "VALUES (?, ?, 'Sony', 'A7', 2021, 800, 4000, 'AVAILABLE', ?)",
+                booking.equipmentCode + "-IDLE", booking.categoryId, booking.branchId);
+        insertRental(booking, "2025-01-05", "2025-01-10", "RETURNED", 5000);
+        insertRental(booking, "2025-01-20", "2025-01-23", "ACTIVE", 4000);
+        insertRental(booking, "2025-01-12", "2025-01-15", "CANCELLED", 3000);
+        return booking;
+    }
+
+    private static void insertRental(TestDatabase.Booking booking, String start, String end, String status,
+                                     int amount) throws Exception {
+        TestDatabase.update("INSERT INTO rentals (rental_code, equipment_id, customer_id, branch_id, start_date, " +
+                "end_date, daily_rate, rental_amount, security_deposit, final_payable_amount, rental_status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 1000, ?, 5000, ?, ?)",
+                "TR-" + booking.equipmentId + "-" + start, booking.equipmentId, booking.customerId,
+                booking.branchId, Date.valueOf(start), Date.valueOf(end), amount, amount, status);
+    }
+}
@@ -0,0 +1,57 @@
+package com.gearrentpro.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cached statements must come back from the cache as a fresh statement would.
+ */
+public class ConnectionPoolTest {
+
+    private static final String SQL = "SELECT 1";
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        // One connection, so the second prepare hits the first one's cached statement
+        pool = new ConnectionPool("jdbc:h2:mem:pool-test;DB_CLOSE_DELAY=-1", new Properties(),
+                0, 1, 1, 5000, 2, 0, 8);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void settingsChangedByABorrowerAreResetOnCheckIn() throws Exception {
+        int fetchSize;
+        int maxRows;
+        int queryTimeout;
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            fetchSize = stmt.getFetchSize();
+            maxRows = stmt.getMaxRows();
+            queryTimeout = stmt.getQueryTimeout();
+            stmt.setFetchSize(fetchSize + 500);
+            stmt.setMaxRows(3);
+            stmt.setQueryTimeout(queryTimeout + 7);
+        }
+
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            assertEquals("served from the cache", 1, pool.getStatementCacheHits());
+            assertEquals(fetchSize, stmt.getFetchSize());
+            assertEquals(maxRows, stmt.getMaxRows());
+            assertEquals(queryTimeout, stmt.getQueryTimeout());
+        }
+    }
+}
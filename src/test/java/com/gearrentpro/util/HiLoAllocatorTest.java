@@ -0,0 +1,115 @@
+package com.gearrentpro.util;
+
+import com.gearrentpro.TestDatabase;
+import com.gearrentpro.dao.CodeSequenceDAO;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Numbers must never be handed out twice, whether the threads share one allocator or
+ * two allocators (two terminals) share one database sequence.
+ */
+public class HiLoAllocatorTest {
+
+    private static final int THREADS = 16;
+    private static final int NUMBERS_PER_THREAD = 20000;
+
+    @Test
+    public void twoAllocatorsSharingADatabaseSequenceNeverRepeatANumber() throws Exception {
+        TestDatabase.migrate();
+        CodeSequenceDAO codeSequenceDAO = new CodeSequenceDAO();
+        HiLoAllocator[] terminals = {
+                new HiLoAllocator(codeSequenceDAO::reserveBlock, 100),
+                new HiLoAllocator(codeSequenceDAO::reserveBlock, 100)
+        };
+
+        Set<Long> issued = drawConcurrently(terminals, "TEST-UNIQUE");
+
+        assertEquals(THREADS * NUMBERS_PER_THREAD, issued.size());
+        assertEquals(0, DatabaseConfig.getPool().getActiveConnections());
+    }
+
+    @Test
+    public void blockSizesThatAreNotAMultipleOfTheThreadRunNeverRepeatANumber() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        HiLoAllocator.BlockSource source = (key, blockSize) -> sequence.getAndAdd(blockSize);
+        HiLoAllocator[] terminals = {new HiLoAllocator(source, 7), new HiLoAllocator(source, 37)};
+
+        Set<Long> issued = drawConcurrently(terminals, "key");
+
+        assertEquals(THREADS * NUMBERS_PER_THREAD, issued.size());
+    }
+
+    @Test
+    public void oneThreadGetsConsecutiveNumbersAndOneReservationPerBlock() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicInteger reservations = new AtomicInteger();
+        HiLoAllocator allocator = new HiLoAllocator((key, blockSize) -> {
+            reservations.incrementAndGet();
+            return sequence.getAndAdd(blockSize);
+        }, 100);
+
+        for (long expected = 1; expected <= 1000; expected++) {
+            assertEquals(expected, allocator.next("key"));
+        }
+        assertEquals(10, reservations.get());
+    }
+
+    @Test
+    public void keysHaveSeparateSequences() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        HiLoAllocator allocator = new HiLoAllocator((key, blockSize) -> sequence.getAndAdd(blockSize), 10);
+
+        long first = allocator.next("a");
+        long other = allocator.next("b");
+
+        assertEquals(first + 1, allocator.next("a"));
+        assertTrue("keys must not share a block", other >= first + 10);
+    }
+
+    /**
+     * Draw NUMBERS_PER_THREAD numbers on each of THREADS threads, spread over the
+     * allocators, and fail on the first number handed out twice
+     */
+    private static Set<Long> drawConcurrently(HiLoAllocator[] allocators, String key) throws Exception {
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                HiLoAllocator allocator = allocators[t % allocators.length];
+                workers.add(executor.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                        long value = allocator.next(key);
+                        if (!issued.add(value)) {
+                            throw new AssertionError("Number " + value + " was handed out twice");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return issued;
+    }
+}